@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import ninja.utils.NinjaProperties;
+
+import org.apache.commons.codec.binary.Hex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import services.AuthService;
+
+/**
+ * Password hashing with the former SHA512 rounds and the current PasswordHasher on login
+ * and registration, and the signing of session cookies
+ *
+ * @author svenkubiak
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AuthBenchmark {
+    private static final String USERPASS = "correct horse battery staple";
+    private static final String SALT = "5a9bd3c1e0f24f7a8e6d2b1c0a9f8e7d";
+    private static final String MESSAGE = "username=user1&authenticity=1d4b0e3c9f2a7b6d&___TS=1414141414141";
+    private static final String USERNAME = "user1";
+    private AuthService authService;
+    private NinjaProperties ninjaProperties;
+    private String cookieSignature;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.authService = BenchmarkServer.getInjector().getInstance(AuthService.class);
+        this.ninjaProperties = BenchmarkServer.getInjector().getInstance(NinjaProperties.class);
+        this.cookieSignature = this.authService.sign(USERNAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkServer.shutdown();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String hashPassword() {
+        return this.authService.hashPassword(USERPASS, SALT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String encodePassword() {
+        return this.authService.encodePassword(USERPASS, SALT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String sign() {
+        return this.authService.sign(MESSAGE);
+    }
+
+    /**
+     * Verification of the remember-me cookie as done by the AuthenticationFilter before
+     * the Mac was reused: a new Mac per request, keyed with the secret read from the properties
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean verifyCookieNewMac() throws Exception {
+        final Mac mac = Mac.getInstance("HmacSHA1");
+        mac.init(new SecretKeySpec(this.ninjaProperties.get("application.secret").getBytes("UTF-8"), "HmacSHA1"));
+        return Hex.encodeHexString(mac.doFinal(USERNAME.getBytes("UTF-8"))).equals(this.cookieSignature);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean verifyCookie() {
+        return this.authService.verify(USERNAME, this.cookieSignature);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String encryptAES() {
+        return this.authService.encryptAES(MESSAGE);
+    }
+}
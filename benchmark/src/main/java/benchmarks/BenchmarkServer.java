@@ -0,0 +1,53 @@
+package benchmarks;
+
+import ninja.utils.NinjaTestServer;
+
+import services.DataService;
+import services.IndexService;
+
+import com.google.inject.Injector;
+
+import de.svenkubiak.embeddedmongodb.EmbeddedMongo;
+
+/**
+ * Starts the application once per benchmark fork, backed by an embedded MongoDB
+ *
+ * @author svenkubiak
+ *
+ */
+public final class BenchmarkServer {
+    private static NinjaTestServer ninjaTestServer;
+
+    private BenchmarkServer() {
+    }
+
+    public static synchronized Injector getInjector() {
+        if (ninjaTestServer == null) {
+            System.setProperty("ninja.external.configuration", "conf/benchmark.conf");
+            ninjaTestServer = new NinjaTestServer();
+
+            final Injector injector = ninjaTestServer.getInjector();
+            injector.getInstance(DataService.class).setMongoClient(EmbeddedMongo.DB.getMongoClient());
+        }
+
+        return ninjaTestServer.getInjector();
+    }
+
+    /**
+     * Drops all data and restores the indexes
+     */
+    public static Injector reset() {
+        final Injector injector = getInjector();
+        injector.getInstance(DataService.class).dropDatabase();
+        injector.getInstance(IndexService.class).ensureIndexes();
+
+        return injector;
+    }
+
+    public static synchronized void shutdown() {
+        if (ninjaTestServer != null) {
+            ninjaTestServer.shutdown();
+            ninjaTestServer = null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import models.Game;
+import models.GameTip;
+import models.User;
+import mongodb.MongoDB;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import services.EventBus;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+
+/**
+ * End-to-end calculation runs and the queries and statistics they are built from.
+ * All games are ended, so after the first run the full calculations measure the steady
+ * state of a tournament where results are re-applied. The statistics a calculation
+ * triggers through StandingsChanged are awaited before the next invocation, so they
+ * neither run during nor contend with the measurement.
+ *
+ * @author svenkubiak
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CalculationBenchmark {
+    private static final int IDLE_TIMEOUT = 10;
+
+    /**
+     * Waits for the events of the previous invocation before each invocation
+     */
+    @State(Scope.Benchmark)
+    public static class Idle {
+        @Setup(Level.Invocation)
+        public void setup(final TournamentState state) throws InterruptedException {
+            if (!state.injector.getInstance(EventBus.class).awaitIdle(IDLE_TIMEOUT, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Events of the previous invocation are still running");
+            }
+        }
+    }
+
+    /**
+     * Resets the points of the tips of the last playday before each invocation, so every
+     * incremental run rescores them instead of finding all points unchanged. The totals
+     * of the users grow with every invocation, which does not change the work done.
+     */
+    @State(Scope.Benchmark)
+    public static class Unscored {
+        @Setup(Level.Invocation)
+        public void setup(final TournamentState state, final Idle idle) {
+            final List<DBRef> games = new ArrayList<DBRef>();
+            for (final Game game : state.lastPlaydayGames) {
+                games.add(state.dataService.getReference(Game.class, game.getId()));
+            }
+
+            final DBObject query = new BasicDBObject("game", new BasicDBObject("$in", games));
+            final DBObject update = new BasicDBObject("$set", new BasicDBObject("points", 0)).append("$unset", new BasicDBObject("outcome", ""));
+            state.injector.getInstance(MongoDB.class).getDatastore().getCollection(GameTip.class).update(query, update, false, true);
+        }
+    }
+
+    @Benchmark
+    public void calculations(final TournamentState state, final Idle idle) {
+        state.calculationService.calculations();
+    }
+
+    @Benchmark
+    public void incrementalCalculations(final TournamentState state, final Unscored unscored) {
+        state.calculationService.calculations(state.lastPlaydayGames);
+    }
+
+    @Benchmark
+    public void calculateStatistics(final TournamentState state) {
+        state.calculationService.calculateStatistics(Collections.singletonList(state.playday), state.activeUsers);
+    }
+
+    @Benchmark
+    public void setPlaydayStatistics(final TournamentState state) {
+        state.statisticService.setPlaydayStatistics(state.playday, state.scores);
+    }
+
+    @Benchmark
+    public Map<String, Integer> getScores(final TournamentState state) {
+        return state.calculationService.getScores(state.playday);
+    }
+
+    @Benchmark
+    public List<Map<User, List<GameTip>>> findPlaydayTips(final TournamentState state) {
+        return state.dataService.findPlaydayTips(state.playday, state.activeUsers);
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.io.File;
+
+import ninja.utils.NinjaTestServer;
+
+import services.GeneratorService;
+import services.IndexService;
+import services.generator.GeneratorOptions;
+
+import com.google.inject.Injector;
+
+/**
+ * Command line access to the tournament generator, e.g.
+ *
+ * java -cp target/benchmarks.jar benchmarks.Generate export /tmp/wc users=50000 seed=7 ended=2
+ * java -cp target/benchmarks.jar benchmarks.Generate import /tmp/wc
+ * java -cp target/benchmarks.jar benchmarks.Generate database users=50000
+ *
+ * export writes NDJSON files, import and database write to the empty MongoDB configured
+ * in application.conf. Options are users, seed, groups, teams (per group), legs,
+ * playoffs and ended (playdays).
+ *
+ * @author svenkubiak
+ *
+ */
+public final class Generate {
+
+    private Generate() {
+    }
+
+    public static void main(final String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: Generate export <directory> [option=value ...] | import <directory> | database [option=value ...]");
+            System.exit(1);
+        }
+
+        System.setProperty("ninja.external.configuration", "conf/benchmark.conf");
+        final NinjaTestServer ninjaTestServer = new NinjaTestServer();
+        try {
+            final Injector injector = ninjaTestServer.getInjector();
+            final GeneratorService generatorService = injector.getInstance(GeneratorService.class);
+            if ("export".equals(args[0])) {
+                final File directory = new File(args[1]);
+                directory.mkdirs();
+                generatorService.generate(getOptions(args, 2), directory);
+            } else if ("import".equals(args[0])) {
+                injector.getInstance(IndexService.class).ensureIndexes();
+                generatorService.load(new File(args[1]));
+            } else {
+                injector.getInstance(IndexService.class).ensureIndexes();
+                generatorService.generate(getOptions(args, 1));
+            }
+        } finally {
+            ninjaTestServer.shutdown();
+        }
+    }
+
+    private static GeneratorOptions getOptions(final String[] args, final int offset) {
+        final GeneratorOptions options = new GeneratorOptions();
+        for (int i = offset; i < args.length; i++) {
+            final String[] option = args[i].split("=", 2);
+            final String value = (option.length == 2) ? option[1] : "";
+            switch (option[0]) {
+            case "users":
+                options.setUsers(Integer.parseInt(value));
+                break;
+            case "seed":
+                options.setSeed(Long.parseLong(value));
+                break;
+            case "groups":
+                options.setGroups(Integer.parseInt(value));
+                break;
+            case "teams":
+                options.setTeamsPerGroup(Integer.parseInt(value));
+                break;
+            case "legs":
+                options.setLegs(Integer.parseInt(value));
+                break;
+            case "playoffs":
+                options.setPlayoffs(Boolean.parseBoolean(value));
+                break;
+            case "ended":
+                options.setEndedPlaydays(Integer.parseInt(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        return options;
+    }
+}
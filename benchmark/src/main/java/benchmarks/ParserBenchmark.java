@@ -0,0 +1,128 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+
+import models.ws.WSMatch;
+import models.ws.WSResult;
+import models.ws.WSResults;
+
+import org.apache.commons.io.IOUtils;
+import org.joda.time.format.ISODateTimeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import services.matchdata.MatchdataParser;
+
+/**
+ * Parsing of recorded openligadb responses, a single match (GetMatchByMatchID) and
+ * a playday (GetMatchdataByGroupLeagueSaison), with the former DOM approach and the
+ * streaming MatchdataParser. Run with -prof gc to compare the allocation rate.
+ *
+ * @author svenkubiak
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+    private byte[] match;
+    private byte[] matchdata;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.match = load("/openligadb/match.xml");
+        this.matchdata = load("/openligadb/matchdata.xml");
+    }
+
+    @Benchmark
+    public WSResults parseMatchDom() throws Exception {
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(this.match));
+        final WSResults wsResults = new WSResults();
+        if (document.getElementsByTagName("matchIsFinished").getLength() > 0) {
+            wsResults.setFinished(("true").equalsIgnoreCase(document.getElementsByTagName("matchIsFinished").item(0).getTextContent()));
+        }
+
+        final Map<String, WSResult> resultsMap = new HashMap<String, WSResult>();
+        final NodeList matchResult = document.getElementsByTagName("matchResults").item(0).getChildNodes();
+        for (int i = 0; i < matchResult.getLength(); i++) {
+            final NodeList singleResults = matchResult.item(i).getChildNodes();
+            if (("Endergebnis").equalsIgnoreCase(singleResults.item(0).getTextContent())) {
+                final WSResult wsResult = new WSResult();
+                wsResult.setHomeScore(singleResults.item(1).getTextContent());
+                wsResult.setAwayScore(singleResults.item(2).getTextContent());
+                resultsMap.put("90", wsResult);
+            }
+        }
+        wsResults.setWsResult(resultsMap);
+        wsResults.setKickoff(ISODateTimeFormat.dateTimeParser().withZoneUTC()
+                .parseDateTime(document.getElementsByTagName("matchDateTimeUTC").item(0).getTextContent()).toDate());
+
+        return wsResults;
+    }
+
+    @Benchmark
+    public WSResults parseMatchStax() throws XMLStreamException {
+        return MatchdataParser.parseMatch(new ByteArrayInputStream(this.match));
+    }
+
+    @Benchmark
+    public List<WSMatch> parseMatchdataDom() throws Exception {
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(this.matchdata));
+        final List<WSMatch> matches = new ArrayList<WSMatch>();
+        final NodeList nodeList = document.getElementsByTagName("Matchdata");
+        for (int i = 0; i < nodeList.getLength(); i++) {
+            final WSMatch wsMatch = new WSMatch();
+            final NodeList childs = nodeList.item(i).getChildNodes();
+            for (int j = 0; j < childs.getLength(); j++) {
+                final Node node = childs.item(j);
+                if ("matchID".equals(node.getNodeName())) {
+                    wsMatch.setMatchID(node.getTextContent());
+                } else if ("matchDateTimeUTC".equals(node.getNodeName())) {
+                    wsMatch.setKickoff(ISODateTimeFormat.dateTimeParser().withZoneUTC().parseDateTime(node.getTextContent()).toDate());
+                }
+            }
+            matches.add(wsMatch);
+        }
+
+        return matches;
+    }
+
+    @Benchmark
+    public List<WSMatch> parseMatchdataStax() throws XMLStreamException {
+        return MatchdataParser.parseMatches(new ByteArrayInputStream(this.matchdata));
+    }
+
+    private static byte[] load(final String resource) throws IOException {
+        final InputStream inputStream = ParserBenchmark.class.getResourceAsStream(resource);
+        try {
+            return IOUtils.toByteArray(inputStream);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import services.ImportService;
+import services.ResultService;
+import services.ScoringService;
+import services.scoring.TipScoring;
+
+import com.google.inject.Injector;
+
+/**
+ * Scores of a single tip through ResultService and of a whole game column through
+ * the scoring kernel. Times are per scored tip.
+ *
+ * @author svenkubiak
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScoringBenchmark {
+    private static final int TIPS = 1024;
+    private final int[] homeScores = new int[TIPS];
+    private final int[] awayScores = new int[TIPS];
+    private final int[] homeTips = new int[TIPS];
+    private final int[] awayTips = new int[TIPS];
+    private final int[] points = new int[TIPS];
+    private ResultService resultService;
+    private TipScoring tipScoring;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Injector injector = BenchmarkServer.reset();
+        injector.getInstance(ImportService.class).loadSettingsAndAdmin();
+        this.resultService = injector.getInstance(ResultService.class);
+        this.tipScoring = injector.getInstance(ScoringService.class).getRules(false);
+
+        final Random random = new Random(42);
+        for (int i = 0; i < TIPS; i++) {
+            this.homeScores[i] = random.nextInt(5);
+            this.awayScores[i] = random.nextInt(5);
+            this.homeTips[i] = random.nextInt(5);
+            this.awayTips[i] = random.nextInt(5);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkServer.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIPS)
+    public int getTipPoints() {
+        int sum = 0;
+        for (int i = 0; i < TIPS; i++) {
+            sum = sum + this.resultService.getTipPoints(this.homeScores[i], this.awayScores[i], this.homeTips[i], this.awayTips[i]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIPS)
+    public int getTipPointsOvertime() {
+        int sum = 0;
+        for (int i = 0; i < TIPS; i++) {
+            sum = sum + this.resultService.getTipPointsOvertime(this.homeScores[i], this.homeScores[i], this.homeScores[i], this.awayScores[i], this.homeTips[i], this.awayTips[i]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIPS)
+    public int getTipPointsTrend() {
+        int sum = 0;
+        for (int i = 0; i < TIPS; i++) {
+            sum = sum + this.resultService.getTipPointsTrend(this.homeScores[i], this.awayScores[i], this.homeTips[i], this.awayTips[i]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TIPS)
+    public int[] scoreGame() {
+        this.tipScoring.score(this.homeScores[0], this.awayScores[0], this.homeTips, this.awayTips, this.points, TIPS);
+
+        return this.points;
+    }
+}
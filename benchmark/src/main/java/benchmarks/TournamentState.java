@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.Map;
+
+import models.Game;
+import models.Playday;
+import models.User;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import services.CalculationService;
+import services.DataService;
+import services.GeneratorService;
+import services.StatisticService;
+import services.generator.GeneratorOptions;
+
+import com.google.inject.Injector;
+
+/**
+ * A generated league with all games ended and tips, sized by the teams and users parameters
+ *
+ * @author svenkubiak
+ *
+ */
+@State(Scope.Benchmark)
+public class TournamentState {
+    @Param({"18"})
+    public int teams;
+
+    @Param({"100", "1000", "20000"})
+    public int users;
+
+    @Param({"42"})
+    public long seed;
+
+    public Injector injector;
+    public DataService dataService;
+    public CalculationService calculationService;
+    public StatisticService statisticService;
+    public Playday playday;
+    public List<User> activeUsers;
+    public List<Game> lastPlaydayGames;
+    public Map<String, Integer> scores;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final GeneratorOptions options = GeneratorOptions.league(this.teams);
+        options.setUsers(this.users);
+        options.setSeed(this.seed);
+        options.setEndedPlaydays(2 * (this.teams - 1));
+
+        this.injector = BenchmarkServer.reset();
+        this.injector.getInstance(GeneratorService.class).generate(options);
+
+        this.dataService = this.injector.getInstance(DataService.class);
+        this.calculationService = this.injector.getInstance(CalculationService.class);
+        this.statisticService = this.injector.getInstance(StatisticService.class);
+
+        this.playday = this.dataService.findPlaydaybByNumber(1);
+        this.activeUsers = this.dataService.findAllActiveUsers();
+        this.lastPlaydayGames = this.dataService.findGamesByPlayday(this.dataService.findPlaydaybByNumber(2 * (this.teams - 1)));
+        this.scores = this.calculationService.getScores(this.playday);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkServer.shutdown();
+    }
+}
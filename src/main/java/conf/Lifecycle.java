@@ -9,12 +9,29 @@ import jobs.GameTipJob;
 import jobs.KickoffJob;
 import jobs.ReminderJob;
 import jobs.ResultJob;
+import models.User;
+import models.enums.ConfirmationType;
 import models.enums.Constants;
 import ninja.NinjaScheduler;
 import ninja.lifecycle.Dispose;
 import ninja.lifecycle.Start;
 import ninja.utils.NinjaConstant;
+import services.CalculationService;
+import services.CommonService;
+import services.DataService;
+import services.EventBus;
 import services.I18nService;
+import services.IndexService;
+import services.LeaseService;
+import services.MailService;
+import services.NotificationService;
+import services.OutboxService;
+import services.PrincipalService;
+import services.events.GameEnded;
+import services.events.PlaydayCompleted;
+import services.events.StandingsChanged;
+import services.events.Subscriber;
+import services.events.UserRegistered;
 
 import com.google.inject.Inject;
 
@@ -31,12 +48,99 @@ public class Lifecycle {
     private static final String GAMETIPCRON = "0 0/1 * * * ?";
     private static final String TRIGGER_GROUP = "triggerGroup";
     private static final String JOB_GROUP = "jobGroup";
+    private static final int EVENT_CAPACITY = 1000;
 
     @Inject
     private NinjaScheduler ninjaScheduler;
+
+    @Inject
+    private CommonService commonService;
     
     @Inject
     private I18nService i18nService;
+
+    @Inject
+    private IndexService indexService;
+
+    @Inject
+    private OutboxService outboxService;
+
+    @Inject
+    private LeaseService leaseService;
+
+    @Inject
+    private EventBus eventBus;
+
+    @Inject
+    private NotificationService notificationService;
+
+    @Inject
+    private CalculationService calculationService;
+
+    @Inject
+    private MailService mailService;
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private PrincipalService principalService;
+
+    @Start(order = 70)
+    public void subscriptions() {
+        eventBus.subscribe(GameEnded.class, "results", 1, EVENT_CAPACITY, new Subscriber<GameEnded>() {
+            @Override
+            public void on(final GameEnded event) {
+                notificationService.sendNotfications(event.getGame());
+            }
+        });
+
+        eventBus.subscribe(PlaydayCompleted.class, "topthree", 1, EVENT_CAPACITY, new Subscriber<PlaydayCompleted>() {
+            @Override
+            public void on(final PlaydayCompleted event) {
+                notificationService.sendTopThree(event.getPlayday());
+            }
+        });
+
+        eventBus.subscribe(StandingsChanged.class, "statistics", 1, EVENT_CAPACITY, new Subscriber<StandingsChanged>() {
+            @Override
+            public void on(final StandingsChanged event) {
+                calculationService.calculateStatistics(event.getPlaydays(), event.getUsers());
+            }
+        });
+
+        eventBus.subscribe(StandingsChanged.class, "principals", 1, EVENT_CAPACITY, new Subscriber<StandingsChanged>() {
+            @Override
+            public void on(final StandingsChanged event) {
+                principalService.invalidateAll();
+            }
+        });
+
+        eventBus.subscribe(UserRegistered.class, "registrations", 1, EVENT_CAPACITY, new Subscriber<UserRegistered>() {
+            @Override
+            public void on(final UserRegistered event) {
+                mailService.confirm(event.getUser(), event.getToken(), ConfirmationType.ACTIVATION);
+                if (dataService.findSettings().isInformOnNewTipper()) {
+                    for (final User admin : dataService.findAllAdmins()) {
+                        mailService.newuser(event.getUser(), admin);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Fails the startup if an index can not be created. In test mode the indexes are
+     * ensured by the tests, once they have switched to the embedded database.
+     */
+    @Start(order = 80)
+    public void indexes() {
+        if (NinjaConstant.MODE_TEST.equals(System.getProperty(NinjaConstant.MODE_KEY_NAME))) {
+            return;
+        }
+
+        indexService.ensureIndexes();
+    }
     
     @Start(order = 90)
     public void startup() {
@@ -60,7 +164,11 @@ public class Lifecycle {
         ninjaScheduler.schedule(kickoffJob, kickoffTrigger);
         ninjaScheduler.schedule(reminderJob, reminderTrigger);
         ninjaScheduler.schedule(resultJob, resultTrigger);
+        if (("lease").equalsIgnoreCase(commonService.getJobInstance())) {
+            leaseService.start();
+        }
         ninjaScheduler.start();
+        outboxService.start();
     }
     
     @Dispose(order = 90)
@@ -1,6 +1,14 @@
 package conf;
 
+import models.enums.Constants;
+import ninja.utils.NinjaProperties;
+import services.matchdata.MatchdataProvider;
+import services.matchdata.OpenligadbMatchdataProvider;
+import services.password.PasswordHasher;
+import services.password.Pbkdf2PasswordHasher;
+
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import com.google.inject.Singleton;
 
 /**
@@ -10,8 +18,27 @@ import com.google.inject.Singleton;
  */
 @Singleton
 public class Module extends AbstractModule {
+    private static final int TIMEOUT = 10000;
+    private static final int ITERATIONS = 100000;
+
     @Override
     protected void configure() {
         bind(Lifecycle.class);
     }
-}
\ No newline at end of file
+
+    @Provides
+    @Singleton
+    MatchdataProvider provideMatchdataProvider(NinjaProperties ninjaProperties) {
+        return new OpenligadbMatchdataProvider(
+                ninjaProperties.getWithDefault("rudeltippen.matchdata.url", Constants.WS_URL.asString()),
+                ninjaProperties.getWithDefault("rudeltippen.matchdata.league", "bl1"),
+                ninjaProperties.getWithDefault("rudeltippen.matchdata.season", "2014"),
+                ninjaProperties.getIntegerWithDefault("rudeltippen.results.timeout", TIMEOUT));
+    }
+
+    @Provides
+    @Singleton
+    PasswordHasher providePasswordHasher(NinjaProperties ninjaProperties) {
+        return new Pbkdf2PasswordHasher(ninjaProperties.getIntegerWithDefault("rudeltippen.password.iterations", ITERATIONS));
+    }
+}
@@ -1,6 +1,7 @@
 package controllers;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -38,11 +39,17 @@ import org.quartz.impl.matchers.GroupMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import services.CalculationScheduler;
 import services.CalculationService;
 import services.CommonService;
 import services.DataService;
 import services.I18nService;
+import services.JobRunService;
+import services.LeaderboardService;
 import services.MailService;
+import services.OutboxService;
+import services.PageCacheService;
+import services.PrincipalService;
 import services.ValidationService;
 
 import com.google.inject.Inject;
@@ -68,16 +75,26 @@ public class AdminController extends RootController {
     private static final String AWAY_SCORE = "_awayScore";
     private static final String HOME_SCORE = "_homeScore";
     private static final String ADMIN_RESULTS = "/admin/results/";
+    private static final int JOB_RUNS = 25;
 
     @Inject
     private DataService dataService;
+
+    @Inject
+    private JobRunService jobRunService;
     
     @Inject
     private CalculationService calculationService;
 
+    @Inject
+    private CalculationScheduler calculationScheduler;
+
     @Inject
     private MailService mailService;
 
+    @Inject
+    private OutboxService outboxService;
+
     @Inject
     private I18nService i18nService;
 
@@ -86,6 +103,15 @@ public class AdminController extends RootController {
 
     @Inject
     private CommonService commonService;
+
+    @Inject
+    private LeaderboardService leaderboardService;
+
+    @Inject
+    private PrincipalService principalService;
+
+    @Inject
+    private PageCacheService pageCacheService;
     
     @Inject
     private NinjaScheduler ninjaScheduler;
@@ -123,7 +149,8 @@ public class AdminController extends RootController {
             }
         }
 
-        String gamekey = setGameScore(map, keys);
+        final List<Game> games = new ArrayList<Game>();
+        String gamekey = setGameScore(map, keys, games);
         int playday = 1;
         if (keys != null && !keys.isEmpty() && StringUtils.isNotBlank(gamekey)) {
             gamekey = gamekey.replace("_et", "");
@@ -133,13 +160,13 @@ public class AdminController extends RootController {
             }
         }
 
-        calculationService.calculations();
+        calculationScheduler.schedule(games);
         flashScope.success(i18nService.get("controller.games.tippsstored"));
         
         return Results.redirect(ADMIN_RESULTS + playday);
     }
 
-    private String setGameScore(final Map<String, String> map, final Set<String> keys) {
+    private String setGameScore(final Map<String, String> map, final Set<String> keys, final List<Game> games) {
         String gamekey = null;
         for (final String key : keys) {
             gamekey = key;
@@ -148,7 +175,10 @@ public class AdminController extends RootController {
             final String extratime = map.get("extratime_" + key);
             final String homeScoreExtratime = map.get(GAME + key + HOME_SCORE_ET);
             final String awayScoreExtratime = map.get(GAME + key + AWAY_SCORE_ET);
-            calculationService.setGameScore(key, homeScore, awayScore, extratime, homeScoreExtratime, awayScoreExtratime);
+            final Game game = calculationService.setGameScore(key, homeScore, awayScore, extratime, homeScoreExtratime, awayScoreExtratime);
+            if (game != null) {
+                games.add(game);
+            }
         }
         
         return gamekey;
@@ -162,7 +192,10 @@ public class AdminController extends RootController {
         }
 
         if (!validation.hasBeanViolations()) {
-            final Settings settings = dataService.findSettings();
+            final Settings settings = dataService.loadSettings();
+            final boolean rescore = settings.getPointsTip() != settingsDTO.getPointsTip()
+                    || settings.getPointsTipDiff() != settingsDTO.getPointsTipDiff()
+                    || settings.getPointsTipTrend() != settingsDTO.getPointsTipTrend();
             settings.setGameName(settingsDTO.getName());
             settings.setPointsTip(settingsDTO.getPointsTip());
             settings.setPointsTipDiff(settingsDTO.getPointsTipDiff());
@@ -170,7 +203,10 @@ public class AdminController extends RootController {
             settings.setMinutesBeforeTip(settingsDTO.getMinutesBeforeTip());
             settings.setInformOnNewTipper(settingsDTO.isInformOnNewTipper());
             settings.setEnableRegistration(settingsDTO.isEnableRegistration());
-            dataService.save(settings);
+            dataService.saveSettings(settings);
+            if (rescore) {
+                calculationScheduler.schedule();
+            }
 
             flashScope.success(i18nService.get("setup.saved"));
         }
@@ -213,6 +249,10 @@ public class AdminController extends RootController {
                 message = i18nService.get("info.change.activate", new Object[]{user.getEmail()});
             }
             dataService.save(user);
+            principalService.invalidate(user);
+            leaderboardService.update(Collections.singletonList(user));
+            pageCacheService.invalidate();
+            calculationScheduler.schedule();
             flashScope.success(message);
             LOG.info("User " + user.getEmail() + " " + activate + " - by " + connectedUser.getEmail());
         } else {
@@ -240,6 +280,7 @@ public class AdminController extends RootController {
                     user.setAdmin(true);
                 }
                 dataService.save(user);
+                principalService.invalidate(user);
                 flashScope.success(message);
                 LOG.info(user.getEmail() + " " + admin + " - " + connectedUser.getEmail());
             } else {
@@ -260,11 +301,12 @@ public class AdminController extends RootController {
             final String username = user.getEmail();
             dataService.deleteConfirmationsByUser(user);
             dataService.deleteUser(user);
+            principalService.invalidate(user);
             
             flashScope.success(i18nService.get("info.delete.user", new Object[]{username}));
             LOG.info(username + " deleted - " + connectedUser.getEmail());
 
-            calculationService.calculations();
+            calculationScheduler.schedule();
         } else {
             flashScope.error(i18nService.get(ERROR_LOADING_USER));
         }
@@ -347,11 +389,15 @@ public class AdminController extends RootController {
             LOG.error("Failed to get jobs from scheduler", e);
         }
         
-        return Results.html().render("jobs", jobs);
+        return Results.html()
+                .render("jobs", jobs)
+                .render("outbox", outboxService.getMetrics())
+                .render("statistics", jobRunService.getMetrics())
+                .render("runs", dataService.findRecentJobRuns(JOB_RUNS));
     }
 
     public Result calculations() {
-        calculationService.calculations();
+        calculationScheduler.verify();
 
         return Results.redirect("/admin/tournament");
     }
@@ -17,6 +17,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import services.DataService;
+import services.TournamentService;
 
 import com.google.inject.Inject;
 
@@ -35,6 +36,9 @@ public class AjaxController extends RootController {
     @Inject
     private DataService dataService;
 
+    @Inject
+    private TournamentService tournamentService;
+
     public Result webserviceid(@PathParam("gameId") String gameId, Context context) {
         Game game = dataService.findGameById(gameId);
         if (game != null) {
@@ -42,6 +46,7 @@ public class AjaxController extends RootController {
             if (StringUtils.isNotBlank(webserviceID)) {
                 game.setWebserviceID(webserviceID);
                 dataService.save(game);
+                tournamentService.rebuild();
 
                 return Results.noContent();
             }
@@ -60,6 +65,7 @@ public class AjaxController extends RootController {
                     game.setKickoff(simpleDateFormat.parse(kickoff));
                     game.setUpdatable(false);
                     dataService.save(game);
+                    tournamentService.rebuild();
 
                     return Results.noContent();
                 } catch (Exception e) {
@@ -82,6 +88,7 @@ public class AjaxController extends RootController {
                 Bracket bracket = team.getBracket();
                 bracket.setUpdatable(false);
                 dataService.save(bracket);
+                tournamentService.rebuild();
 
                 return Results.noContent();
             }
@@ -95,6 +102,7 @@ public class AjaxController extends RootController {
         if (game != null) {
             game.setUpdatable(!game.isUpdatable());
             dataService.save(game);
+            tournamentService.rebuild();
 
             return Results.noContent();
         }
@@ -107,6 +115,7 @@ public class AjaxController extends RootController {
         if (bracket != null) {
             bracket.setUpdatable(!bracket.isUpdatable());
             dataService.save(bracket);
+            tournamentService.rebuild();
 
             return Results.noContent();
         }
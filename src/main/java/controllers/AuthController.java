@@ -1,8 +1,9 @@
 package controllers;
 
+import java.util.Collections;
 import java.util.Date;
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import models.Confirmation;
 import models.Settings;
@@ -26,10 +27,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import services.AuthService;
+import services.CalculationScheduler;
 import services.DataService;
+import services.EventBus;
 import services.I18nService;
+import services.LeaderboardService;
 import services.MailService;
+import services.PageCacheService;
+import services.PrincipalService;
 import services.ValidationService;
+import services.events.UserRegistered;
 
 import com.google.inject.Inject;
 
@@ -49,6 +56,7 @@ public class AuthController {
     private static final String VALIDATION = "validations";
     private static final String AUTH_LOGIN = "/auth/login";
     private static final String INVALIDTOKEN = "controller.users.invalidtoken";
+    private static final String BUSY = "controller.auth.busy";
 
     @Inject
     private DataService dataService;
@@ -64,6 +72,21 @@ public class AuthController {
 
     @Inject
     private I18nService i18nService;
+
+    @Inject
+    private LeaderboardService leaderboardService;
+
+    @Inject
+    private CalculationScheduler calculationScheduler;
+
+    @Inject
+    private PrincipalService principalService;
+
+    @Inject
+    private PageCacheService pageCacheService;
+
+    @Inject
+    private EventBus eventBus;
     
     @Inject
     private NinjaValidator validations;
@@ -132,7 +155,11 @@ public class AuthController {
                 if ((ConfirmationType.ACTIVATION).equals(confirmationType)) {
                     user.setActive(true);
                     dataService.save(user);
+                    principalService.invalidate(user);
                     dataService.delete(confirmation);
+                    leaderboardService.update(Collections.singletonList(user));
+                    pageCacheService.invalidate();
+                    calculationScheduler.schedule();
                     
                     flashScope.success(i18nService.get("controller.users.accountactivated"));
                     LOG.info("User activated: " + user.getEmail());
@@ -141,6 +168,7 @@ public class AuthController {
                     final String newusername = authService.decryptAES(confirmation.getConfirmValue());
                     user.setEmail(newusername);
                     dataService.save(user);
+                    principalService.invalidate(user);
                     session.remove(Constants.USERNAME.asString());
                     dataService.delete(confirmation);
 
@@ -149,6 +177,7 @@ public class AuthController {
                 } else if ((ConfirmationType.CHANGEUSERPASS).equals(confirmationType)) {
                     user.setUserpass(authService.decryptAES(confirmation.getConfirmValue()));
                     dataService.save(user);
+                    principalService.invalidate(user);
                     session.remove("username");
                     dataService.delete(confirmation);
 
@@ -172,7 +201,7 @@ public class AuthController {
         return Results.html();
     }
 
-    public Result create(@JSR303Validation UserDTO userDTO, Validation validation) {
+    public Result create(@JSR303Validation UserDTO userDTO, Validation validation, FlashScope flashScope) {
         final Settings settings = dataService.findSettings();
         if (!settings.isEnableRegistration()) {
             return Results.redirect("/");
@@ -184,6 +213,15 @@ public class AuthController {
             return Results.html().render("user", userDTO).render(VALIDATION, validation).template("/views/AuthController/register.ftl.html");
         } else {
             final String salt = DigestUtils.sha512Hex(UUID.randomUUID().toString());
+            final String userpass;
+            try {
+                userpass = authService.encodePassword(userDTO.getUserpass(), salt);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Rejected registration of " + userDTO.getEmail() + ", too many concurrent password hashes");
+                flashScope.error(i18nService.get(BUSY));
+                return Results.redirect("/auth/register");
+            }
+
             final User user = new User();
             user.setRegistered(new Date());
             user.setUsername(userDTO.getUsername());
@@ -195,7 +233,7 @@ public class AuthController {
             user.setNotification(true);
             user.setAdmin(false);
             user.setSalt(salt);
-            user.setUserpass(authService.hashPassword(userDTO.getUserpass(), salt));
+            user.setUserpass(userpass);
             user.setPoints(0);
             user.setPicture(DigestUtils.md5Hex(userDTO.getEmail()));
             dataService.save(user);
@@ -210,13 +248,7 @@ public class AuthController {
             confirmation.setUser(user);
             dataService.save(confirmation);
 
-            mailService.confirm(user, token, confirmationType);
-            if (settings.isInformOnNewTipper()) {
-                final List<User> admins = dataService.findAllAdmins();
-                for (final User admin : admins) {
-                    mailService.newuser(user, admin);
-                }
-            }
+            eventBus.publish(new UserRegistered(user, token));
             LOG.info("User registered: " + user.getEmail());
         }
 
@@ -239,9 +271,17 @@ public class AuthController {
         }
 
         final User user = confirmation.getUser();
-        final String password = authService.hashPassword(passwordDTO.getUserpass(), user.getSalt());
+        final String password;
+        try {
+            password = authService.encodePassword(passwordDTO.getUserpass(), user.getSalt());
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Rejected password reset of " + user.getEmail() + ", too many concurrent password hashes");
+            flashScope.error(i18nService.get(BUSY));
+            return Results.redirect("/auth/password/" + passwordDTO.getToken());
+        }
         user.setUserpass(password);
         dataService.save(user);
+        principalService.invalidate(user);
 
         dataService.delete(confirmation);
         flashScope.success(i18nService.get("controller.auth.passwordreset"));
@@ -256,14 +296,19 @@ public class AuthController {
         if (validations.hasErrors()) {
             return Results.html().render(VALIDATION, validations).render("settings", dataService.findSettings()).template("/views/AuthController/login.ftl.html");
         } else {
-            if (authService.authenticate(login.getUsername(), login.getUserpass())) {
-                session.put(Constants.USERNAME.asString(), login.getUsername());
-                if (login.isRemember()) {
-                    String signedUsername = authService.sign(login.getUsername()) + "-" + login.getUsername();
-                    Cookie.builder(Constants.COOKIENAME.asString(), signedUsername).setSecure(true).setHttpOnly(true).build();
+            try {
+                if (authService.authenticate(login.getUsername(), login.getUserpass())) {
+                    session.put(Constants.USERNAME.asString(), login.getUsername());
+                    if (login.isRemember()) {
+                        String signedUsername = authService.sign(login.getUsername()) + "-" + login.getUsername();
+                        Cookie.builder(Constants.COOKIENAME.asString(), signedUsername).setSecure(true).setHttpOnly(true).build();
+                    }
+
+                    return Results.redirect("/");
                 }
-
-                return Results.redirect("/");
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Rejected login of " + login.getUsername() + ", too many concurrent logins");
+                flashScope.error(i18nService.get(BUSY));
             }
         }
 
@@ -12,6 +12,7 @@ import models.GameTip;
 import models.Playday;
 import models.Settings;
 import models.Team;
+import models.TournamentSnapshot;
 import models.User;
 import models.enums.Constants;
 import models.pagination.Pagination;
@@ -27,6 +28,8 @@ import org.apache.commons.lang.StringUtils;
 import services.CommonService;
 import services.DataService;
 import services.I18nService;
+import services.PageCacheService;
+import services.TournamentService;
 import services.ValidationService;
 
 import com.google.inject.Inject;
@@ -43,6 +46,8 @@ public class TipController extends RootController {
     private static final String HOME_SCORE = "_homeScore";
     private static final String GAME = "game_";
     private static final String TIPS_PLAYDAY = "/tips/playday/";
+    private static final String TIPS_STANDINGS = "/tips/standings";
+    private static final String TIPS_STATISTICS = "/tips/statistics";
 
     @Inject
     private DataService dataService;
@@ -56,12 +61,19 @@ public class TipController extends RootController {
     @Inject
     private CommonService commonService;
 
+    @Inject
+    private TournamentService tournamentService;
+
+    @Inject
+    private PageCacheService pageCacheService;
+
     public Result playday(@PathParam("number") long number) {
-        final Pagination pagination = commonService.getPagination(number, TIPS_PLAYDAY, dataService.findAllPlaydaysOrderByNumber().size());
-        final Playday playday = dataService.findPlaydaybByNumber(pagination.getNumberAsInt());
-        final List<Game> games = dataService.findGamesByPlayday(playday);
+        final TournamentSnapshot tournament = tournamentService.getSnapshot();
+        final Pagination pagination = commonService.getPagination(number, TIPS_PLAYDAY, tournament.getPlaydays().size());
+        final Playday playday = tournament.getPlayday(pagination.getNumberAsInt());
+        final List<Game> games = tournament.getGames(playday);
 
-        final List<Extra> extras = dataService.findAllExtras();
+        final List<Extra> extras = tournament.getExtras();
         final boolean tippable = commonService.extrasAreTipable(extras);
 
         return Results.html()
@@ -74,6 +86,7 @@ public class TipController extends RootController {
     }
 
     public Result storetips(FlashScope flashScope, Context context) {
+        final TournamentSnapshot tournament = tournamentService.getSnapshot();
         int tipped = 0;
         int playday = 1;
         final List<String> keys = new ArrayList<String>();
@@ -93,7 +106,7 @@ public class TipController extends RootController {
                 final String homeScore = map.get(GAME + key + HOME_SCORE);
                 final String awayScore = map.get(GAME + key + AWAY_SCORE);
 
-                final Game game = dataService.findGameById(key);
+                final Game game = tournament.getGame(key);
                 if (validationService.isValidScore(homeScore, awayScore) && game != null) {
                     dataService.saveGameTip(game, Integer.parseInt(homeScore), Integer.parseInt(awayScore), context.getAttribute(Constants.CONNECTEDUSER.asString(), User.class));
                     keys.add(key);
@@ -114,6 +127,7 @@ public class TipController extends RootController {
     }
 
     public Result storeextratips(FlashScope flashScope, Context context) {
+        final TournamentSnapshot tournament = tournamentService.getSnapshot();
         final Map<String, String> map = commonService.convertParamaters(context.getParameters());
         for (final Entry<String, String> entry : map.entrySet()) {
             String key = entry.getKey();
@@ -128,31 +142,43 @@ public class TipController extends RootController {
                 final String tId = teamdId;
 
                 if (StringUtils.isNotBlank(bId) || StringUtils.isNotBlank(tId)) {
-                    return Results.redirect(TIPS_PLAYDAY + dataService.findCurrentPlayday().getNumber());
+                    return Results.redirect(TIPS_PLAYDAY + tournament.getCurrentPlayday().getNumber());
                 }
 
-                final Extra extra = dataService.findExtraById(bId);
+                final Extra extra = tournament.getExtra(bId);
                 if (commonService.extraIsTipable(extra)) {
-                    final Team team = dataService.findTeamById(tId);
+                    final Team team = tournament.getTeam(tId);
                     dataService.saveExtraTip(extra, team, context.getAttribute(Constants.CONNECTEDUSER.asString(), User.class));
                     flashScope.success(i18nService.get("controller.tipps.bonussaved"));
                 }
             }
         }
 
-        return Results.redirect(TIPS_PLAYDAY + dataService.findCurrentPlayday().getNumber());
+        return Results.redirect(TIPS_PLAYDAY + tournament.getCurrentPlayday().getNumber());
     }
 
-    public Result standings() {
-        final List<User> users = dataService.findAllActiveUsersOrderedByPlace();
-        return Results.html().render("users", users);
+    public Result standings(Context context) {
+        final String etag = pageCacheService.getETag(context);
+        if (pageCacheService.isNotModified(context, etag)) {
+            return pageCacheService.notModified(etag);
+        }
+
+        final List<User> users = pageCacheService.get(pageCacheService.getLanguage(context), TIPS_STANDINGS, new PageCacheService.Loader<List<User>>() {
+            @Override
+            public List<User> load() {
+                return dataService.findAllActiveUsersOrderedByPlace();
+            }
+        });
+
+        return pageCacheService.revalidate(Results.html().render("users", users), etag);
     }
     
     public Result overview(@PathParam("number") long number) {
-        final Pagination pagination = commonService.getPagination(number, "/tips/overview/", dataService.findAllPlaydaysOrderByNumber().size());
+        final TournamentSnapshot tournament = tournamentService.getSnapshot();
+        final Pagination pagination = commonService.getPagination(number, "/tips/overview/", tournament.getPlaydays().size());
 
-        final Playday playday = dataService.findPlaydaybByNumber(pagination.getNumberAsInt());
-        final List<User> users = dataService.findActiveUsers(15);
+        final Playday playday = tournament.getPlayday(pagination.getNumberAsInt());
+        final List<User> users = dataService.findAllActiveUsersOrderedByPlace();
         final List<Map<User, List<GameTip>>> tips = dataService.findPlaydayTips(playday, users);
         final long usersCount = dataService.countAll(User.class);
 
@@ -165,7 +191,7 @@ public class TipController extends RootController {
 
     public Result extras() {
         final List<User> users = dataService.findAllActiveUsersOrderedByPlace();
-        final List<Extra> extras = dataService.findAllExtras();
+        final List<Extra> extras = tournamentService.getSnapshot().getExtras();
         final List<Map<User, List<ExtraTip>>> tips = dataService.findExtraTips(users, extras);
 
         return Results.html()
@@ -178,14 +204,35 @@ public class TipController extends RootController {
         return Results.html().render(settings);
     }
 
-    public Result statistics() {
-        final List<Map<String, String>> games = dataService.findGameStatistics();
-        final List<Map<String, String>> results = dataService.findResultsStatistic();
-        final List<GameTipStatistic> gameTipStatistics = dataService.findGameTipStatisticsOrderByPlayday();
+    public Result statistics(Context context) {
+        final String etag = pageCacheService.getETag(context);
+        if (pageCacheService.isNotModified(context, etag)) {
+            return pageCacheService.notModified(etag);
+        }
 
-        return Results.html()
+        final String language = pageCacheService.getLanguage(context);
+        final List<Map<String, String>> games = pageCacheService.get(language, TIPS_STATISTICS + "#games", new PageCacheService.Loader<List<Map<String, String>>>() {
+            @Override
+            public List<Map<String, String>> load() {
+                return dataService.findGameStatistics();
+            }
+        });
+        final List<Map<String, String>> results = pageCacheService.get(language, TIPS_STATISTICS + "#results", new PageCacheService.Loader<List<Map<String, String>>>() {
+            @Override
+            public List<Map<String, String>> load() {
+                return dataService.findResultsStatistic();
+            }
+        });
+        final List<GameTipStatistic> gameTipStatistics = pageCacheService.get(language, TIPS_STATISTICS + "#gameTipStatistics", new PageCacheService.Loader<List<GameTipStatistic>>() {
+            @Override
+            public List<GameTipStatistic> load() {
+                return dataService.findGameTipStatisticsOrderByPlayday();
+            }
+        });
+
+        return pageCacheService.revalidate(Results.html()
                 .render("results", results)
                 .render("gameTipStatistics", gameTipStatistics)
-                .render("games", games);
+                .render("games", games), etag);
     }
 }
\ No newline at end of file
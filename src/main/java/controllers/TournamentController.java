@@ -5,12 +5,15 @@ import java.util.List;
 import models.Bracket;
 import models.Game;
 import models.Playday;
+import models.TournamentSnapshot;
 import models.pagination.Pagination;
+import ninja.Context;
 import ninja.Result;
 import ninja.Results;
 import ninja.params.PathParam;
 import services.CommonService;
-import services.DataService;
+import services.PageCacheService;
+import services.TournamentService;
 
 import com.google.inject.Inject;
 
@@ -22,25 +25,39 @@ import com.google.inject.Inject;
 public class TournamentController extends RootController {
 
     @Inject
-    private DataService dataService;
+    private TournamentService tournamentService;
     
     @Inject
     private CommonService commonService;
 
-    public Result brackets() {
-        List<Bracket> brackets = dataService.findAllTournamentBrackets();
-        return Results.html().render("brackets", brackets);
+    @Inject
+    private PageCacheService pageCacheService;
+
+    public Result brackets(Context context) {
+        final String etag = pageCacheService.getETag(context);
+        if (pageCacheService.isNotModified(context, etag)) {
+            return pageCacheService.notModified(etag);
+        }
+
+        List<Bracket> brackets = tournamentService.getSnapshot().getBrackets();
+        return pageCacheService.revalidate(Results.html().render("brackets", brackets), etag);
     }
 
-    public Result playday(@PathParam("number") long number) {
-        final Pagination pagination = commonService.getPagination(number, "/tournament/playday/", dataService.findAllPlaydaysOrderByNumber().size());
-        final Playday playday = dataService.findPlaydaybByNumber(pagination.getNumberAsInt());
-        final List<Game> games = dataService.findGamesByPlayday(playday);
+    public Result playday(@PathParam("number") long number, Context context) {
+        final String etag = pageCacheService.getETag(context);
+        if (pageCacheService.isNotModified(context, etag)) {
+            return pageCacheService.notModified(etag);
+        }
+
+        final TournamentSnapshot tournament = tournamentService.getSnapshot();
+        final Pagination pagination = commonService.getPagination(number, "/tournament/playday/", tournament.getPlaydays().size());
+        final Playday playday = tournament.getPlayday(pagination.getNumberAsInt());
+        final List<Game> games = tournament.getGames(playday);
 
-        return Results
+        return pageCacheService.revalidate(Results
                 .html()
                 .render("playday", playday)
                 .render("games", games)
-                .render("pagination", pagination);
+                .render("pagination", pagination), etag);
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import models.Confirmation;
 import models.Extra;
@@ -32,6 +33,8 @@ import services.CommonService;
 import services.DataService;
 import services.I18nService;
 import services.MailService;
+import services.PageCacheService;
+import services.PrincipalService;
 import services.ValidationService;
 
 import com.google.inject.Inject;
@@ -65,6 +68,12 @@ public class UserController extends RootController {
     @Inject
     private CommonService commonService;
 
+    @Inject
+    private PrincipalService principalService;
+
+    @Inject
+    private PageCacheService pageCacheService;
+
     public Result show(@PathParam(USERNAME) String username) {
         final User user = dataService.findUserByUsername(username);
 
@@ -135,6 +144,8 @@ public class UserController extends RootController {
         user.setPicture(commonService.getUserPictureUrl(commonService.getAvatarFromString(avatar), user));
         user.setAvatar(commonService.getAvatarFromString(avatar));
         dataService.save(user);
+        principalService.invalidate(user);
+        pageCacheService.invalidate();
         
         return Results.redirect(USERS_PROFILE);
     }
@@ -150,6 +161,8 @@ public class UserController extends RootController {
             final User user = context.getAttribute(Constants.CONNECTEDUSER.asString(), User.class);
             user.setUsername(username);
             dataService.save(user);
+            principalService.invalidate(user);
+            pageCacheService.invalidate();
 
             flashScope.success(i18nService.get("controller.profile.updateusername"));
             LOG.info("username updated: " + user.getEmail() + " / " + username);
@@ -203,16 +216,21 @@ public class UserController extends RootController {
             final User user = context.getAttribute(Constants.CONNECTEDUSER.asString(), User.class);
             if (user != null) {
                 final ConfirmationType confirmationType = ConfirmationType.CHANGEUSERPASS;
-                final Confirmation confirm = new Confirmation();
-                confirm.setConfirmationType(confirmationType);
-                confirm.setConfirmValue(authService.encryptAES(authService.hashPassword(userpass, user.getSalt())));
-                confirm.setCreated(new Date());
-                confirm.setToken(token);
-                confirm.setUser(user);
-                dataService.save(confirm);
-                mailService.confirm(user, token, confirmationType);
-                flashScope.success(i18nService.get(CONFIRM_MESSAGE));
-                LOG.info("Password updated: " + user.getEmail());
+                try {
+                    final Confirmation confirm = new Confirmation();
+                    confirm.setConfirmationType(confirmationType);
+                    confirm.setConfirmValue(authService.encryptAES(authService.encodePassword(userpass, user.getSalt())));
+                    confirm.setCreated(new Date());
+                    confirm.setToken(token);
+                    confirm.setUser(user);
+                    dataService.save(confirm);
+                    mailService.confirm(user, token, confirmationType);
+                    flashScope.success(i18nService.get(CONFIRM_MESSAGE));
+                    LOG.info("Password updated: " + user.getEmail());
+                } catch (RejectedExecutionException e) {
+                    LOG.warn("Rejected password change of " + user.getEmail() + ", too many concurrent password hashes");
+                    flashScope.error(i18nService.get("controller.auth.busy"));
+                }
             }
         }
 
@@ -232,6 +250,7 @@ public class UserController extends RootController {
         user.setSendStandings(("1").equals(sendstandings));
         user.setSendGameTips(("1").equals(sendgametips));
         dataService.save(user);
+        principalService.invalidate(user);
 
         flashScope.success(i18nService.get("controller.profile.notifications"));
         LOG.info("Notifications updated: " + user.getEmail());
@@ -30,15 +30,14 @@ public class AppFilter implements Filter {
 
     @Override
     public Result filter(FilterChain filterChain, Context context) {
+        if (!dataService.appIsInizialized()) {
+            return Results.redirect("/system/setup");
+        }
+
         Result result = filterChain.next(context);
-        
         if (result.getRenderable() != null && !(result.getRenderable() instanceof NoHttpBody)) {
             lang.setLanguage(i18nService.getDefaultLanguage(), result);
         }
-        
-        if (!dataService.appIsInizialized()) {
-            return Results.redirect("/system/setup");
-        }
 
         return result;
     }
@@ -14,6 +14,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import services.AuthService;
 import services.DataService;
+import services.PrincipalService;
 import services.ViewService;
 
 import com.google.inject.Inject;
@@ -34,6 +35,9 @@ public class AuthenticationFilter implements Filter {
     @Inject
     private ViewService viewService;
 
+    @Inject
+    private PrincipalService principalService;
+
     @Override
     public Result filter(FilterChain filterChain, Context context) {
         Cookie cookie = context.getCookie(Constants.COOKIENAME.asString());
@@ -41,20 +45,21 @@ public class AuthenticationFilter implements Filter {
             final String sign = cookie.getValue().substring(0, cookie.getValue().indexOf("-"));
             final String username = cookie.getValue().substring(cookie.getValue().indexOf("-") + 1);
 
-            if (StringUtils.isNotBlank(sign) && StringUtils.isNotBlank(username) && authService.sign(username).equals(sign) && context.getSession() != null) {
+            if (StringUtils.isNotBlank(sign) && StringUtils.isNotBlank(username) && context.getSession() != null
+                    && !username.equals(context.getSession().get(Constants.USERNAME.asString())) && authService.verify(username, sign)) {
                 context.getSession().put(Constants.USERNAME.asString(), username);
             }
         }
 
         if (context.getSession() != null && context.getSession().get(Constants.USERNAME.asString()) != null) {
-            User connectedUser = dataService.findUserByUsernameOrEmail(context.getSession().get(Constants.USERNAME.asString()));
+            User connectedUser = principalService.findConnectedUser(context.getSession().get(Constants.USERNAME.asString()));
             context.setAttribute(Constants.CONNECTEDUSER.asString(), connectedUser);
 
             Result result = filterChain.next(context);
             if (result.getRenderable() != null && !(result.getRenderable() instanceof NoHttpBody)) {
                 result.render(Constants.CONNECTEDUSER.asString(), connectedUser);
                 result.render("ViewService", viewService);
-                result.render("currentPlayday", dataService.findCurrentPlayday()); 
+                result.render("currentPlayday", dataService.findCurrentPlayday());
                 result.render("location", context.getRequestPath());
             }
             
@@ -1,11 +1,15 @@
 package jobs;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import models.Game;
+import models.JobRun;
 import models.User;
 import models.enums.Constants;
 
+import org.joda.time.DateTime;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -14,7 +18,9 @@ import org.slf4j.LoggerFactory;
 
 import services.CommonService;
 import services.DataService;
+import services.JobRunService;
 import services.MailService;
+import services.TournamentService;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -37,6 +43,12 @@ public class GameTipJob implements Job {
     @Inject
     private CommonService commonService;
 
+    @Inject
+    private TournamentService tournamentService;
+
+    @Inject
+    private JobRunService jobRunService;
+
     public GameTipJob() {
     }
 
@@ -44,20 +56,37 @@ public class GameTipJob implements Job {
     public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
         if (commonService.isJobInstance()) {
             LOG.info("Started Job: " + Constants.GAMETIPJOB.asString());
-            final List<Game> games = dataService.findAllNotifiableGames();
-
-            if (games != null && !games.isEmpty()) {
-                final List<User> users = dataService.findAllNotifiableUsers();
-                for (final User user : users) {
-                    mailService.gametips(user, games);
-                }
+            final JobRun jobRun = jobRunService.start(Constants.GAMETIPJOB.asString());
+            try {
+                final List<Game> games = findAllNotifiableGames();
+                if (games != null && !games.isEmpty()) {
+                    final List<User> users = dataService.findAllNotifiableUsers();
+                    mailService.gametips(users, games);
 
-                for (final Game game : games) {
-                    game.setInformed(true);
-                    dataService.save(game);
+                    dataService.setGamesInformed(games);
+                    tournamentService.rebuild();
+                    jobRun.addItems("games", games.size());
+                    jobRun.addItems("mails", users.size());
                 }
+            } catch (final RuntimeException e) {
+                jobRunService.fail(jobRun, e);
+                throw e;
+            } finally {
+                jobRunService.finish(jobRun);
             }
             LOG.info("Finished Job: " + Constants.GAMETIPJOB.asString());
         }
     }
+
+    private List<Game> findAllNotifiableGames() {
+        final Date date = new DateTime().plusMinutes(1).toDate();
+        final List<Game> games = new ArrayList<Game>();
+        for (final Game game : tournamentService.getSnapshot().getGames()) {
+            if (!game.isInformed() && game.getKickoff() != null && !game.getKickoff().after(date)) {
+                games.add(game);
+            }
+        }
+
+        return games;
+    }
 }
\ No newline at end of file
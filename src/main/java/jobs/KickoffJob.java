@@ -1,115 +1,130 @@
 package jobs;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.TimeZone;
+import java.util.Map;
 
 import models.Game;
+import models.JobRun;
 import models.Playday;
 import models.enums.Constants;
+import models.ws.WSMatch;
 
 import org.apache.commons.lang.StringUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
 
 import services.CommonService;
 import services.DataService;
-import services.ResultService;
+import services.JobRunService;
+import services.TournamentService;
+import services.matchdata.MatchdataProvider;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 /**
- * 
+ *
  * @author svenkubiak
  *
  */
 @Singleton
 public class KickoffJob implements Job {
     private static final Logger LOG = LoggerFactory.getLogger(KickoffJob.class);
-    private static final String KICKOFF_FORMAT = "yyyy-MM-dd kk:mm:ss";
 
     @Inject
     private DataService dataService;
-    
+
     @Inject
     private CommonService commonService;
-    
+
+    private MatchdataProvider matchdataProvider;
+
+    @Inject
+    private TournamentService tournamentService;
+
     @Inject
-    private ResultService resultService;
+    private JobRunService jobRunService;
 
     public KickoffJob() {
     }
 
+    @Inject
+    public KickoffJob(final MatchdataProvider matchdataProvider) {
+        this.matchdataProvider = matchdataProvider;
+    }
+
     @Override
     public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
         if (commonService.isJobInstance()) {
             LOG.info("Started Job: " + Constants.KICKOFFJOB.asString());
-            List<Playday> playdays = dataService.findNextPlaydays();
-            for (Playday playday : playdays) {
-                for (final Game game : playday.getGames()) {
-                    updateKickoff(game, game.getWebserviceID());
+            final JobRun jobRun = jobRunService.start(Constants.KICKOFFJOB.asString());
+            try {
+                final Map<Game, Date> kickoffs = new LinkedHashMap<Game, Date>();
+                List<Playday> playdays = tournamentService.getSnapshot().getNextPlaydays(4);
+                for (Playday playday : playdays) {
+                    if (!commonService.isJobInstance()) {
+                        LOG.warn("Lost the job lease, skipping the remaining playdays");
+                        break;
+                    }
+                    addChangedKickoffs(playday, kickoffs);
+                }
+
+                if (!kickoffs.isEmpty()) {
+                    dataService.updateKickoffs(kickoffs);
+                    tournamentService.rebuild();
                 }
+                jobRun.addItems("playdays", playdays.size());
+                jobRun.addItems("kickoffs", kickoffs.size());
+            } catch (final RuntimeException e) {
+                jobRunService.fail(jobRun, e);
+                throw e;
+            } finally {
+                jobRunService.finish(jobRun);
             }
             LOG.info("Finished Job: " + Constants.KICKOFFJOB.asString());
         }
     }
 
-    private void updateKickoff(final Game game, final String matchID) {
-        if (StringUtils.isNotBlank(matchID) && game.isUpdatable()) {
-            final Document document = resultService.getDocumentFromWebService(matchID);
-            final String kickoff = getKickoffFromDocument(document);
-            
-            if (document != null && StringUtils.isNotBlank(kickoff)) {
-                final SimpleDateFormat df = new SimpleDateFormat(KICKOFF_FORMAT);
-                df.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-                try {
-                    Date newKickoff = df.parse(kickoff);
-                    if (isValidKickoff(newKickoff, game.getKickoff())) {
-                        game.setKickoff(newKickoff);
-                        dataService.save(game);
-
-                        LOG.info("Updated Kickoff of game number: " + game.getNumber() + " to " + newKickoff);  
-                    }
-                } catch (Exception e) {
-                    LOG.error("Failed to parse date from openligadb for kickoff update", e);
-                }
-            }
+    /**
+     * Fetches all matches of the playday with one request and collects the games whose
+     * kickoff differs from the stored one
+     */
+    private void addChangedKickoffs(final Playday playday, final Map<Game, Date> kickoffs) {
+        boolean updatable = false;
+        for (final Game game : playday.getGames()) {
+            updatable = updatable || (game.isUpdatable() && StringUtils.isNotBlank(game.getWebserviceID()));
         }
-    }
-    
-    private boolean isValidKickoff(Date newKickoff, Date currentKickoff) {
-        boolean valid = false;
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("YYYY");
-            if (sdf.format(newKickoff).equals(sdf.format(currentKickoff))) {
-                valid = true;
-            }
-        } catch (Exception e) {
-            LOG.error("Failed to check if new kickoff date is valid", e);
+        if (!updatable) {
+            return;
         }
-        
-        return valid;
-    }
 
-    private static String getKickoffFromDocument(final Document document) {
-        String kickoff = null;
-        if (document != null) {
-            final NodeList nodeList = document.getElementsByTagName("matchDateTimeUTC");
-            if ((nodeList != null) && (nodeList.getLength() > 0)) {
-                kickoff = nodeList.item(0).getTextContent();
-                kickoff = kickoff.replace("T", " ");
-                kickoff = kickoff.replace("Z", "");
+        final Map<String, Date> matches = new HashMap<String, Date>();
+        for (final WSMatch match : matchdataProvider.getMatches(playday.getNumber())) {
+            matches.put(match.getMatchID(), match.getKickoff());
+        }
+
+        for (final Game game : playday.getGames()) {
+            if (!game.isUpdatable() || StringUtils.isBlank(game.getWebserviceID())) {
+                continue;
+            }
+
+            final Date kickoff = matches.get(game.getWebserviceID());
+            if (kickoff != null && !kickoff.equals(game.getKickoff()) && isValidKickoff(kickoff, game.getKickoff())) {
+                kickoffs.put(game, kickoff);
+                LOG.info("Updating Kickoff of game number: " + game.getNumber() + " to " + kickoff);
             }
         }
+    }
 
-        return kickoff;
+    private static boolean isValidKickoff(Date newKickoff, Date currentKickoff) {
+        return currentKickoff != null && new DateTime(newKickoff, DateTimeZone.UTC).getYear() == new DateTime(currentKickoff, DateTimeZone.UTC).getYear();
     }
-}
\ No newline at end of file
+}
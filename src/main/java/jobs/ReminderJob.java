@@ -1,15 +1,17 @@
 package jobs;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
 import java.util.List;
 
 import models.Extra;
-import models.ExtraTip;
 import models.Game;
-import models.GameTip;
+import models.JobRun;
 import models.User;
 import models.enums.Constants;
 
+import org.joda.time.DateTime;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -18,7 +20,9 @@ import org.slf4j.LoggerFactory;
 
 import services.CommonService;
 import services.DataService;
+import services.JobRunService;
 import services.MailService;
+import services.TournamentService;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -30,7 +34,7 @@ import com.google.inject.Singleton;
  */
 @Singleton
 public class ReminderJob implements Job {
-    private static final Logger LOG = LoggerFactory.getLogger(GameTipJob.class);
+    private static final Logger LOG = LoggerFactory.getLogger(ReminderJob.class);
 
     @Inject
     private DataService dataService;
@@ -41,6 +45,12 @@ public class ReminderJob implements Job {
     @Inject
     private CommonService commonService;
 
+    @Inject
+    private TournamentService tournamentService;
+
+    @Inject
+    private JobRunService jobRunService;
+
     public ReminderJob() {
     }
 
@@ -48,52 +58,85 @@ public class ReminderJob implements Job {
     public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
         if (commonService.isJobInstance()) {
             LOG.info("Started Job: " + Constants.REMINDERJOB.asString());
-            final List<Extra> nextExtras = dataService.findAllExtrasEnding();
-            final List<Game> nextGames = dataService.findAllGamesEnding();
-            final List<User> users = dataService.findAllRemindableUsers();
-
-            for (final User user : users) {
-                final List<Game> reminderGames = new ArrayList<Game>();
-                final List<Extra> reminderBonus = new ArrayList<Extra>();
-
-                for (final Game game : nextGames) {
-                    final GameTip gameTip = dataService.findGameTipByGameAndUser(game, user);
-                    if (gameTip == null) {
-                        reminderGames.add(game);
-                    }
-                }
-
-                for (final Extra extra : nextExtras) {
-                    final ExtraTip extraTip = dataService.findExtraTipByExtraAndUser(extra, user);
-                    if (extraTip == null) {
-                        reminderBonus.add(extra);
+            final JobRun jobRun = jobRunService.start(Constants.REMINDERJOB.asString());
+            try {
+                final Date ending = new DateTime().plusDays(1).toDate();
+                final List<Extra> nextExtras = findAllExtrasEnding(ending);
+                final List<Game> nextGames = findAllGamesEnding(ending);
+                if (!nextGames.isEmpty() || !nextExtras.isEmpty()) {
+                    final List<User> users = dataService.findAllRemindableUsers();
+                    final BitSet placedGameTips = dataService.findPlacedGameTips(nextGames, users);
+                    final BitSet placedExtraTips = dataService.findPlacedExtraTips(nextExtras, users);
+
+                    int reminders = 0;
+                    for (int i = 0; i < users.size(); i++) {
+                        final List<Game> reminderGames = getMissing(nextGames, placedGameTips, i);
+                        final List<Extra> reminderBonus = getMissing(nextExtras, placedExtraTips, i);
+                        if (!reminderGames.isEmpty() || !reminderBonus.isEmpty()) {
+                            sendNotification(users.get(i), reminderGames, reminderBonus);
+                            reminders++;
+                        }
                     }
+                    LOG.info("Send " + reminders + " reminders to " + users.size() + " remindable users");
+                    disableReminder(nextExtras, nextGames);
+                    jobRun.addItems("games", nextGames.size());
+                    jobRun.addItems("extras", nextExtras.size());
+                    jobRun.addItems("mails", reminders);
                 }
-
-                sendNotification(user, reminderGames, reminderBonus);
+            } catch (final RuntimeException e) {
+                jobRunService.fail(jobRun, e);
+                throw e;
+            } finally {
+                jobRunService.finish(jobRun);
             }
-
-            disableReminder(nextExtras, nextGames);
             LOG.info("Finshed Job: " + Constants.REMINDERJOB.asString());
         }
     }
 
     private void sendNotification(final User user, final List<Game> reminderGames, final List<Extra> reminderBonus) {
-        if (!reminderGames.isEmpty() || !reminderBonus.isEmpty()) {
-            mailService.reminder(user, reminderGames, reminderBonus);
-            LOG.info("Reminder send to: " + user.getEmail());
+        mailService.reminder(user, reminderGames, reminderBonus);
+        LOG.info("Reminder send to: " + user.getEmail());
+    }
+
+    /**
+     * @return The entities for which bit (row * entities.size() + index) is not set
+     */
+    private static <T> List<T> getMissing(final List<T> entities, final BitSet placed, final int row) {
+        final List<T> missing = new ArrayList<T>();
+        final int offset = row * entities.size();
+        for (int i = placed.nextClearBit(offset); i < offset + entities.size(); i = placed.nextClearBit(i + 1)) {
+            missing.add(entities.get(i - offset));
         }
+
+        return missing;
     }
 
     private void disableReminder(final List<Extra> nextExtras, final List<Game> nextGames) {
-        for (final Game game : nextGames) {
-            game.setReminder(true);
-            dataService.save(game);
+        dataService.setGamesReminder(nextGames);
+        dataService.setExtrasReminder(nextExtras);
+
+        tournamentService.rebuild();
+    }
+
+    private List<Game> findAllGamesEnding(final Date ending) {
+        final List<Game> games = new ArrayList<Game>();
+        for (final Game game : tournamentService.getSnapshot().getGames()) {
+            if (!game.isReminder() && game.getKickoff() != null && !game.getKickoff().after(ending)) {
+                games.add(game);
+            }
         }
 
-        for (final Extra extra : nextExtras) {
-            extra.setReminder(true);
-            dataService.save(extra);
+        return games;
+    }
+
+    private List<Extra> findAllExtrasEnding(final Date ending) {
+        final List<Extra> extras = new ArrayList<Extra>();
+        for (final Extra extra : tournamentService.getSnapshot().getExtras()) {
+            if (!extra.isReminder() && extra.getEnding() != null && !extra.getEnding().after(ending)) {
+                extras.add(extra);
+            }
         }
+
+        return extras;
     }
 }
\ No newline at end of file
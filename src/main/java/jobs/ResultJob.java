@@ -1,21 +1,35 @@
 package jobs;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import models.Game;
+import models.JobRun;
 import models.enums.Constants;
 import models.ws.WSResults;
+import ninja.utils.NinjaProperties;
 
+import org.joda.time.DateTime;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import services.CalculationScheduler;
 import services.CalculationService;
 import services.CommonService;
-import services.DataService;
+import services.JobRunService;
 import services.ResultService;
+import services.TournamentService;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -27,20 +41,31 @@ import com.google.inject.Singleton;
  */
 @Singleton
 public class ResultJob implements Job {
-    private static final Logger LOG = LoggerFactory.getLogger(GameTipJob.class);
+    private static final Logger LOG = LoggerFactory.getLogger(ResultJob.class);
+    private static final int THREADS = 4;
+    private static final int TIMEOUT = 10000;
 
-    @Inject
-    private DataService dataService;
-    
     @Inject
     private CalculationService calculationService;
 
+    @Inject
+    private CalculationScheduler calculationScheduler;
+
     @Inject
     private CommonService commonService;
     
     @Inject
     private ResultService resultService;
 
+    @Inject
+    private TournamentService tournamentService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    @Inject
+    private JobRunService jobRunService;
+
     public ResultJob() {
     }
 
@@ -48,18 +73,105 @@ public class ResultJob implements Job {
     public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
         if (commonService.isJobInstance()) {
             LOG.info("Started Job: " + Constants.RESULTJOB.asString());
-            final List<Game> games = dataService.findAllGamesWithNoResult();
-            for (final Game game : games) {
-                setGameScore(game);
+            final JobRun jobRun = jobRunService.start(Constants.RESULTJOB.asString());
+            try {
+                final List<Game> games = findAllGamesWithNoResult();
+                if (!games.isEmpty()) {
+                    jobRun.addItems("games", games.size());
+                    jobRun.addItems("results", setGameScores(games));
+                }
+            } catch (final RuntimeException e) {
+                jobRunService.fail(jobRun, e);
+                throw e;
+            } finally {
+                jobRunService.finish(jobRun);
             }
             LOG.info("Finished Job: " + Constants.RESULTJOB.asString());
         }
     }
 
-    private void setGameScore(final Game game) {
-        final WSResults wsResults = resultService.getResultsFromWebService(game);
-        if (wsResults != null && wsResults.isUpdated()) {
-            calculationService.setGameScoreFromWebService(game, wsResults);
+    /**
+     * Fetches the results of all games concurrently, stores the finished ones and runs
+     * the calculations once for all of them. Every request is limited by the HTTP timeouts,
+     * the job gives up on requests which are still queued or running at the deadline.
+     * Leadership is checked again before every game, so a node which lost the job lease
+     * while waiting stores no further results. The results stored up to then are still
+     * calculated here, the calculations lease keeps that run apart from the new leader's.
+     *
+     * @return The number of games with a new result
+     */
+    private int setGameScores(final List<Game> games) {
+        final int threads = Math.min(games.size(), ninjaProperties.getIntegerWithDefault("rudeltippen.results.threads", THREADS));
+        final long timeout = ninjaProperties.getIntegerWithDefault("rudeltippen.results.timeout", TIMEOUT);
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final List<Future<WSResults>> futures = new ArrayList<Future<WSResults>>();
+        final List<Game> updated = new ArrayList<Game>();
+        try {
+            for (final Game game : games) {
+                futures.add(executorService.submit(new Callable<WSResults>() {
+                    @Override
+                    public WSResults call() {
+                        return resultService.getResultsFromWebService(game);
+                    }
+                }));
+            }
+
+            final long deadline = System.currentTimeMillis() + 2 * timeout * ((games.size() + threads - 1) / threads);
+            for (int i = 0; i < games.size(); i++) {
+                if (!commonService.isJobInstance()) {
+                    LOG.warn("Lost the job lease, skipping the results of " + (games.size() - i) + " games");
+                    break;
+                }
+
+                final Game game = games.get(i);
+                final WSResults wsResults = getResults(game, futures.get(i), deadline);
+                if (wsResults != null && wsResults.isUpdated()) {
+                    final Game updatedGame = calculationService.setGameScoreFromWebService(game, wsResults);
+                    if (updatedGame != null) {
+                        updated.add(updatedGame);
+                    }
+                }
+            }
+
+            if (!updated.isEmpty()) {
+                LOG.info("Received " + updated.size() + " new results, running calculations");
+                calculationScheduler.schedule(updated).await();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while waiting for the calculations", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return updated.size();
+    }
+
+    private WSResults getResults(final Game game, final Future<WSResults> future, final long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while fetching the result of " + game, e);
+        } catch (final ExecutionException e) {
+            LOG.error("Failed to fetch the result of " + game, e);
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            LOG.error("Timed out while fetching the result of " + game, e);
         }
+
+        return null;
+    }
+
+    private List<Game> findAllGamesWithNoResult() {
+        final Date date = new DateTime().minusMinutes(90).toDate();
+        final List<Game> games = new ArrayList<Game>();
+        for (final Game game : tournamentService.getSnapshot().getGames()) {
+            if (!game.isEnded() && game.getWebserviceID() != null && game.getKickoff() != null && !game.getKickoff().after(date)) {
+                games.add(game);
+            }
+        }
+
+        return games;
     }
 }
\ No newline at end of file
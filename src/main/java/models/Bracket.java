@@ -6,6 +6,8 @@ import java.util.List;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -13,6 +15,10 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "number", unique = true),
+    @Index("updatable")
+})
 @Entity(value = "brackets", noClassnameStored = true)
 public class Bracket extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = -7837267515132967024L;
@@ -8,6 +8,8 @@ import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Embedded;
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -15,6 +17,11 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "token", unique = true),
+    @Index("confirmationType, user"),
+    @Index("user")
+})
 @Entity(value = "confirmations", noClassnameStored = true)
 public class Confirmation extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = -5965149177345129285L;
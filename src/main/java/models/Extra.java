@@ -7,6 +7,8 @@ import java.util.List;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -14,6 +16,9 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index("reminder, ending")
+})
 @Entity(value = "extras", noClassnameStored = true)
 public class Extra extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = 4289210466754449470L;
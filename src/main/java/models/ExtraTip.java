@@ -5,6 +5,8 @@ import java.io.Serializable;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -12,6 +14,10 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "extra, user", unique = true),
+    @Index("user, points")
+})
 @Entity(value = "extratips", noClassnameStored = true)
 public class ExtraTip extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = -2648500340981679571L;
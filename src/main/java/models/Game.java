@@ -7,6 +7,8 @@ import java.util.List;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -14,6 +16,19 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index("ended, webserviceID, kickoff"),
+    @Index("informed, kickoff"),
+    @Index("reminder, kickoff"),
+    @Index("playday, kickoff, number"),
+    @Index("playoff, ended, bracket"),
+    @Index("number"),
+    @Index("bracket"),
+    @Index("homeTeam"),
+    @Index("awayTeam"),
+    @Index("homeReference"),
+    @Index("awayReference")
+})
 @Entity(value = "games", noClassnameStored = true)
 public class Game extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = -8249455429423822352L;
@@ -3,9 +3,12 @@ package models;
 import java.io.Serializable;
 import java.util.Date;
 
+import models.enums.TipOutcome;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -13,6 +16,10 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "game, user", unique = true),
+    @Index("user")
+})
 @Entity(value = "gametips", noClassnameStored = true)
 public class GameTip extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = -8038881739647141796L;
@@ -26,6 +33,7 @@ public class GameTip extends MorphiaModel implements Serializable {
     private int homeScore;
     private int awayScore;
     private int points;
+    private TipOutcome outcome;
 
     private Date placed;
 
@@ -76,4 +84,15 @@ public class GameTip extends MorphiaModel implements Serializable {
     public void setPoints(int points) {
         this.points = points;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return How the tip has been classified when its points were calculated, or null if it has not been scored yet
+     */
+    public TipOutcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(TipOutcome outcome) {
+        this.outcome = outcome;
+    }
+}
@@ -0,0 +1,131 @@
+package models;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import models.enums.JobOutcome;
+import morphia.MorphiaModel;
+
+import org.mongodb.morphia.annotations.CappedAt;
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
+
+/**
+ * A single execution of a job, stored in a capped collection which keeps the
+ * latest runs only
+ *
+ * @author svenkubiak
+ *
+ */
+@Indexes({
+    @Index("-started")
+})
+@Entity(value = "jobruns", noClassnameStored = true, cap = @CappedAt(value = 4194304, count = 10000))
+public class JobRun extends MorphiaModel implements Serializable {
+    private static final long serialVersionUID = -4302756236619716421L;
+
+    private String name;
+    private String owner;
+    private Date started;
+    private Date finished;
+    private long duration;
+    private Map<String, Integer> items = new LinkedHashMap<String, Integer>();
+    private JobOutcome outcome;
+    private String error;
+    private boolean overlapped;
+
+    public JobRun() {
+    }
+
+    public JobRun(String name, String owner, Date started) {
+        this.name = name;
+        this.owner = owner;
+        this.started = started;
+    }
+
+    /**
+     * Adds the given number to the count of processed items of the given kind
+     *
+     * @param item The kind of item, e.g. games or mails
+     * @param count The number of items processed
+     */
+    public void addItems(String item, int count) {
+        final Integer current = this.items.get(item);
+        this.items.put(item, (current == null) ? count : current + count);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Date getStarted() {
+        return started;
+    }
+
+    public void setStarted(Date started) {
+        this.started = started;
+    }
+
+    public Date getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Date finished) {
+        this.finished = finished;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public Map<String, Integer> getItems() {
+        return items;
+    }
+
+    public void setItems(Map<String, Integer> items) {
+        this.items = items;
+    }
+
+    public JobOutcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(JobOutcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public boolean isOverlapped() {
+        return overlapped;
+    }
+
+    public void setOverlapped(boolean overlapped) {
+        this.overlapped = overlapped;
+    }
+}
@@ -0,0 +1,163 @@
+package models;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+import models.enums.OutboxStatus;
+import morphia.MorphiaModel;
+
+import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
+
+/**
+ * A mail waiting in the outbox to be sent by the OutboxService
+ *
+ * @author svenkubiak
+ *
+ */
+@Indexes({
+    @Index("status, nextAttempt"),
+    @Index("status, claimed")
+})
+@Entity(value = "outbox", noClassnameStored = true)
+public class OutboxMail extends MorphiaModel implements Serializable {
+    private static final long serialVersionUID = 3870926480712475603L;
+
+    private String from;
+    private List<String> replyTo;
+    private List<String> to;
+    private List<String> bcc;
+    private String subject;
+    private String charset;
+    private String bodyText;
+    private String bodyHtml;
+    private OutboxStatus status;
+    private int attempts;
+    private Date created;
+    private Date nextAttempt;
+    private Date claimed;
+    private Date sent;
+    private String lastError;
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public List<String> getReplyTo() {
+        return replyTo;
+    }
+
+    public void setReplyTo(List<String> replyTo) {
+        this.replyTo = replyTo;
+    }
+
+    public List<String> getTo() {
+        return to;
+    }
+
+    public void setTo(List<String> to) {
+        this.to = to;
+    }
+
+    public List<String> getBcc() {
+        return bcc;
+    }
+
+    public void setBcc(List<String> bcc) {
+        this.bcc = bcc;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getCharset() {
+        return charset;
+    }
+
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
+    public String getBodyText() {
+        return bodyText;
+    }
+
+    public void setBodyText(String bodyText) {
+        this.bodyText = bodyText;
+    }
+
+    public String getBodyHtml() {
+        return bodyHtml;
+    }
+
+    public void setBodyHtml(String bodyHtml) {
+        this.bodyHtml = bodyHtml;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+
+    public Date getNextAttempt() {
+        return nextAttempt;
+    }
+
+    public void setNextAttempt(Date nextAttempt) {
+        this.nextAttempt = nextAttempt;
+    }
+
+    public Date getClaimed() {
+        return claimed;
+    }
+
+    public void setClaimed(Date claimed) {
+        this.claimed = claimed;
+    }
+
+    public Date getSent() {
+        return sent;
+    }
+
+    public void setSent(Date sent) {
+        this.sent = sent;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
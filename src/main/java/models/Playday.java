@@ -9,6 +9,8 @@ import models.statistic.UserStatistic;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -16,6 +18,10 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "number", unique = true),
+    @Index("current")
+})
 @Entity(value = "playdays", noClassnameStored = true)
 public class Playday extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = -7329808092314093714L;
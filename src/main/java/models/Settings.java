@@ -5,12 +5,17 @@ import java.io.Serializable;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 
 /**
  * 
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "appName", unique = true)
+})
 @Entity(value = "settings", noClassnameStored = true)
 public class Settings extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = 864836696835606862L;
@@ -31,12 +36,14 @@ public class Settings extends MorphiaModel implements Serializable {
     private boolean informOnNewTipper;
     private boolean playoffs;
     private boolean enableRegistration;
-    
+    private transient boolean frozen;
+
     public String getAppSalt() {
         return appSalt;
     }
 
     public void setAppSalt(final String appSalt) {
+        checkFrozen();
         this.appSalt = appSalt;
     }
 
@@ -45,6 +52,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setGameName(final String gameName) {
+        checkFrozen();
         this.gameName = gameName;
     }
 
@@ -53,6 +61,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setPointsGameWin(final int pointsGameWin) {
+        checkFrozen();
         this.pointsGameWin = pointsGameWin;
     }
 
@@ -61,6 +70,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setPointsGameDraw(final int pointsGameDraw) {
+        checkFrozen();
         this.pointsGameDraw = pointsGameDraw;
     }
 
@@ -69,6 +79,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setPointsTip(final int pointsTip) {
+        checkFrozen();
         this.pointsTip = pointsTip;
     }
 
@@ -77,6 +88,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setPointsTipDiff(final int pointsTipDiff) {
+        checkFrozen();
         this.pointsTipDiff = pointsTipDiff;
     }
 
@@ -85,6 +97,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setPointsTipTrend(final int pointsTipTrend) {
+        checkFrozen();
         this.pointsTipTrend = pointsTipTrend;
     }
 
@@ -93,6 +106,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setMinutesBeforeTip(final int minutesBeforeTip) {
+        checkFrozen();
         this.minutesBeforeTip = minutesBeforeTip;
     }
 
@@ -101,6 +115,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setNumPrePlayoffGames(final int numPrePlayoffGames) {
+        checkFrozen();
         this.numPrePlayoffGames = numPrePlayoffGames;
     }
 
@@ -109,6 +124,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setNumPlayoffTeams(final int numPlayoffTeams) {
+        checkFrozen();
         this.numPlayoffTeams = numPlayoffTeams;
     }
 
@@ -117,6 +133,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setInformOnNewTipper(final boolean informOnNewTipper) {
+        checkFrozen();
         this.informOnNewTipper = informOnNewTipper;
     }
 
@@ -125,6 +142,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setPlayoffs(final boolean playoffs) {
+        checkFrozen();
         this.playoffs = playoffs;
     }
 
@@ -133,6 +151,7 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setEnableRegistration(final boolean enableRegistration) {
+        checkFrozen();
         this.enableRegistration = enableRegistration;
     }
 
@@ -141,6 +160,48 @@ public class Settings extends MorphiaModel implements Serializable {
     }
 
     public void setAppName(final String appName) {
+        checkFrozen();
         this.appName = appName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Makes these settings read-only, every setter throws afterwards. Used for the shared
+     * settings snapshot, use copy() to get a modifiable instance.
+     *
+     * @return These settings
+     */
+    public Settings freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    private void checkFrozen() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException("The shared settings are read-only, modify a copy");
+        }
+    }
+
+    /**
+     * @return A modifiable copy of these settings which refers to the same document
+     */
+    public Settings copy() {
+        final Settings settings = new Settings();
+        settings.objectId = this.objectId;
+        settings.appSalt = this.appSalt;
+        settings.appName = this.appName;
+        settings.gameName = this.gameName;
+        settings.pointsGameWin = this.pointsGameWin;
+        settings.pointsGameDraw = this.pointsGameDraw;
+        settings.pointsTip = this.pointsTip;
+        settings.pointsTipDiff = this.pointsTipDiff;
+        settings.pointsTipTrend = this.pointsTipTrend;
+        settings.minutesBeforeTip = this.minutesBeforeTip;
+        settings.numPrePlayoffGames = this.numPrePlayoffGames;
+        settings.numPlayoffTeams = this.numPlayoffTeams;
+        settings.informOnNewTipper = this.informOnNewTipper;
+        settings.playoffs = this.playoffs;
+        settings.enableRegistration = this.enableRegistration;
+
+        return settings;
+    }
+}
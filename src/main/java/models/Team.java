@@ -5,6 +5,8 @@ import java.io.Serializable;
 import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -12,6 +14,10 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index("bracket, -points, -goalsDiff, -goalsFor"),
+    @Index("bracket, place")
+})
 @Entity(value = "teams", noClassnameStored = true)
 public class Team extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = -4180104576028390547L;
@@ -0,0 +1,291 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import morphia.MorphiaModel;
+
+/**
+ * Snapshot of the tournament structure (playdays, games, teams, brackets and extras).
+ * The snapshot holds the live Morphia entities it was built from and re-links their
+ * references to each other on construction, so navigating the graph never touches the
+ * database. The entities are shared by all readers and are therefore not copied or
+ * wrapped: callers must neither modify nor save them. Update the entity by id through
+ * DataService instead and rebuild the snapshot through TournamentService afterwards.
+ *
+ * @author svenkubiak
+ *
+ */
+public final class TournamentSnapshot {
+    private static final Game[] NO_GAMES = new Game[0];
+    private final Map<String, Playday> playdaysById;
+    private final Map<String, Game> games;
+    private final Map<String, Team> teams;
+    private final Map<String, Bracket> brackets;
+    private final Map<String, Extra> extras;
+    private final Map<Integer, Playday> playdays;
+    private final Map<Integer, Game[]> playdayGames;
+    private final List<Playday> orderedPlaydays;
+    private final List<Game> orderedGames;
+    private final List<Bracket> orderedBrackets;
+    private final List<Extra> orderedExtras;
+    private final long version;
+
+    public TournamentSnapshot(final List<Playday> playdays, final List<Game> games, final List<Team> teams, final List<Bracket> brackets, final List<Extra> extras, final long version) {
+        this.version = version;
+        this.playdaysById = index(playdays);
+        this.games = index(games);
+        this.teams = index(teams);
+        this.brackets = index(brackets);
+        this.extras = index(extras);
+
+        for (final Team team : this.teams.values()) {
+            team.setBracket(resolve(this.brackets, team.getBracket()));
+        }
+
+        final Map<Integer, List<Game>> gamesByPlayday = new HashMap<Integer, List<Game>>();
+        final Map<String, List<Game>> gamesByBracket = new HashMap<String, List<Game>>();
+        final Map<String, List<Team>> teamsByBracket = new HashMap<String, List<Team>>();
+        for (final Game game : this.games.values()) {
+            game.setHomeTeam(resolve(this.teams, game.getHomeTeam()));
+            game.setAwayTeam(resolve(this.teams, game.getAwayTeam()));
+            game.setBracket(resolve(this.brackets, game.getBracket()));
+            game.setPlayday(resolve(this.playdaysById, game.getPlayday()));
+
+            if (game.getPlayday() != null) {
+                add(gamesByPlayday, game.getPlayday().getNumber(), game);
+            }
+            if (game.getBracket() != null) {
+                add(gamesByBracket, key(game.getBracket()), game);
+            }
+        }
+
+        for (final Team team : this.teams.values()) {
+            if (team.getBracket() != null) {
+                add(teamsByBracket, key(team.getBracket()), team);
+            }
+        }
+
+        this.playdays = new HashMap<Integer, Playday>();
+        this.playdayGames = new HashMap<Integer, Game[]>();
+        for (final Playday playday : this.playdaysById.values()) {
+            final List<Game> playdayGameList = gamesByPlayday.containsKey(playday.getNumber()) ? gamesByPlayday.get(playday.getNumber()) : new ArrayList<Game>();
+            Collections.sort(playdayGameList, new KickoffComparator());
+
+            final Game[] gameArray = playdayGameList.toArray(new Game[playdayGameList.size()]);
+            playday.setGames(Collections.unmodifiableList(Arrays.asList(gameArray)));
+            this.playdays.put(playday.getNumber(), playday);
+            this.playdayGames.put(playday.getNumber(), gameArray);
+        }
+
+        for (final Bracket bracket : this.brackets.values()) {
+            final List<Team> bracketTeams = teamsByBracket.containsKey(key(bracket)) ? teamsByBracket.get(key(bracket)) : new ArrayList<Team>();
+            Collections.sort(bracketTeams, new PlaceComparator());
+            bracket.setTeams(Collections.unmodifiableList(bracketTeams));
+
+            final List<Game> bracketGames = gamesByBracket.containsKey(key(bracket)) ? gamesByBracket.get(key(bracket)) : new ArrayList<Game>();
+            Collections.sort(bracketGames, new NumberComparator());
+            bracket.setGames(Collections.unmodifiableList(bracketGames));
+        }
+
+        for (final Extra extra : this.extras.values()) {
+            extra.setAnswer(resolve(this.teams, extra.getAnswer()));
+            extra.setAnswers(resolveAll(this.teams, extra.getAnswers()));
+            extra.setGameReferences(resolveAll(this.games, extra.getGameReferences()));
+        }
+
+        final List<Playday> playdayList = new ArrayList<Playday>(this.playdaysById.values());
+        Collections.sort(playdayList, new Comparator<Playday>() {
+            @Override
+            public int compare(final Playday a, final Playday b) {
+                return Integer.compare(a.getNumber(), b.getNumber());
+            }
+        });
+        this.orderedPlaydays = Collections.unmodifiableList(playdayList);
+
+        final List<Game> gameList = new ArrayList<Game>(this.games.values());
+        Collections.sort(gameList, new NumberComparator());
+        this.orderedGames = Collections.unmodifiableList(gameList);
+
+        final List<Bracket> bracketList = new ArrayList<Bracket>(this.brackets.values());
+        Collections.sort(bracketList, new Comparator<Bracket>() {
+            @Override
+            public int compare(final Bracket a, final Bracket b) {
+                return Integer.compare(a.getNumber(), b.getNumber());
+            }
+        });
+        this.orderedBrackets = Collections.unmodifiableList(bracketList);
+        this.orderedExtras = Collections.unmodifiableList(new ArrayList<Extra>(this.extras.values()));
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public List<Playday> getPlaydays() {
+        return this.orderedPlaydays;
+    }
+
+    public Playday getPlayday(final int number) {
+        return this.playdays.get(number);
+    }
+
+    /**
+     * @return The playday marked as current or the first playday if none is marked
+     */
+    public Playday getCurrentPlayday() {
+        for (final Playday playday : this.orderedPlaydays) {
+            if (playday.isCurrent()) {
+                return playday;
+            }
+        }
+
+        return this.playdays.get(1);
+    }
+
+    /**
+     * @param count The maximum number of playdays
+     * @return The current playday followed by the next playdays, up to count playdays
+     */
+    public List<Playday> getNextPlaydays(final int count) {
+        final List<Playday> nextPlaydays = new ArrayList<Playday>();
+        final Playday current = getCurrentPlayday();
+        if (current != null) {
+            for (int i = 0; i < count; i++) {
+                final Playday playday = this.playdays.get(current.getNumber() + i);
+                if (playday != null) {
+                    nextPlaydays.add(playday);
+                }
+            }
+        }
+
+        return nextPlaydays;
+    }
+
+    /**
+     * @return All games ordered by number
+     */
+    public List<Game> getGames() {
+        return this.orderedGames;
+    }
+
+    /**
+     * @return The games of the given playday ordered by kickoff and number
+     */
+    public List<Game> getGames(final Playday playday) {
+        if (playday == null) {
+            return Collections.emptyList();
+        }
+
+        final Game[] gameArray = this.playdayGames.get(playday.getNumber());
+        return Collections.unmodifiableList(Arrays.asList((gameArray == null) ? NO_GAMES : gameArray));
+    }
+
+    public Game getGame(final String id) {
+        return this.games.get(id);
+    }
+
+    public Team getTeam(final String id) {
+        return this.teams.get(id);
+    }
+
+    public Bracket getBracket(final String id) {
+        return this.brackets.get(id);
+    }
+
+    /**
+     * @return All brackets ordered by number, with their teams ordered by place
+     */
+    public List<Bracket> getBrackets() {
+        return this.orderedBrackets;
+    }
+
+    public Extra getExtra(final String id) {
+        return this.extras.get(id);
+    }
+
+    public List<Extra> getExtras() {
+        return this.orderedExtras;
+    }
+
+    private static <T extends MorphiaModel> Map<String, T> index(final List<T> entities) {
+        final Map<String, T> index = new HashMap<String, T>();
+        if (entities != null) {
+            for (final T entity : entities) {
+                if (entity != null && entity.getId() != null) {
+                    index.put(key(entity), entity);
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static <T extends MorphiaModel> T resolve(final Map<String, T> index, final T entity) {
+        if (entity == null || entity.getId() == null) {
+            return entity;
+        }
+
+        final T resolved = index.get(key(entity));
+        return (resolved == null) ? entity : resolved;
+    }
+
+    private static <T extends MorphiaModel> List<T> resolveAll(final Map<String, T> index, final List<T> entities) {
+        if (entities == null) {
+            return null;
+        }
+
+        final List<T> resolved = new ArrayList<T>(entities.size());
+        for (final T entity : entities) {
+            resolved.add(resolve(index, entity));
+        }
+
+        return Collections.unmodifiableList(resolved);
+    }
+
+    private static String key(final MorphiaModel entity) {
+        return String.valueOf(entity.getId());
+    }
+
+    private static <K, V> void add(final Map<K, List<V>> map, final K key, final V value) {
+        List<V> values = map.get(key);
+        if (values == null) {
+            values = new ArrayList<V>();
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+
+    private static final class KickoffComparator implements Comparator<Game> {
+        @Override
+        public int compare(final Game a, final Game b) {
+            if (a.getKickoff() != null && b.getKickoff() != null) {
+                final int result = a.getKickoff().compareTo(b.getKickoff());
+                if (result != 0) {
+                    return result;
+                }
+            }
+
+            return Integer.compare(a.getNumber(), b.getNumber());
+        }
+    }
+
+    private static final class NumberComparator implements Comparator<Game> {
+        @Override
+        public int compare(final Game a, final Game b) {
+            return Integer.compare(a.getNumber(), b.getNumber());
+        }
+    }
+
+    private static final class PlaceComparator implements Comparator<Team> {
+        @Override
+        public int compare(final Team a, final Team b) {
+            return Integer.compare(a.getPlace(), b.getPlace());
+        }
+    }
+}
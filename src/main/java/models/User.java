@@ -11,6 +11,8 @@ import morphia.MorphiaModel;
 
 import org.mongodb.morphia.annotations.Embedded;
 import org.mongodb.morphia.annotations.Entity;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -18,6 +20,19 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "username", unique = true),
+    @Index(value = "email", unique = true),
+    @Index("active, place"),
+    @Index("active, username"),
+    @Index("active, points, correctResults, correctDifferences, correctTrends, correctExtraTips"),
+    @Index("active, notification"),
+    @Index("active, reminder"),
+    @Index("active, sendGameTips"),
+    @Index("place"),
+    @Index("admin"),
+    @Index("sendStandings")
+})
 @Entity(value = "users", noClassnameStored = true)
 public class User extends MorphiaModel implements Serializable {
     private static final long serialVersionUID = 5381913315282528298L;
@@ -280,4 +295,41 @@ public class User extends MorphiaModel implements Serializable {
     public void setSendGameTips(boolean sendGameTips) {
         this.sendGameTips = sendGameTips;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return A copy of this user which refers to the same document
+     */
+    public User copy() {
+        final User user = new User();
+        user.objectId = this.objectId;
+        user.gameTips = this.gameTips;
+        user.extraTips = this.extraTips;
+        user.confirmations = this.confirmations;
+        user.userStatistics = this.userStatistics;
+        user.resultStatistic = this.resultStatistic;
+        user.avatar = this.avatar;
+        user.userpass = this.userpass;
+        user.username = this.username;
+        user.email = this.email;
+        user.salt = this.salt;
+        user.picture = this.picture;
+        user.registered = this.registered;
+        user.reminder = this.reminder;
+        user.admin = this.admin;
+        user.active = this.active;
+        user.notification = this.notification;
+        user.sendStandings = this.sendStandings;
+        user.sendGameTips = this.sendGameTips;
+        user.tipPoints = this.tipPoints;
+        user.extraPoints = this.extraPoints;
+        user.points = this.points;
+        user.place = this.place;
+        user.previousPlace = this.previousPlace;
+        user.correctResults = this.correctResults;
+        user.correctDifferences = this.correctDifferences;
+        user.correctTrends = this.correctTrends;
+        user.correctExtraTips = this.correctExtraTips;
+
+        return user;
+    }
+}
@@ -0,0 +1,11 @@
+package models.enums;
+
+/**
+ * 
+ * @author svenkubiak
+ *
+ */
+public enum JobOutcome {
+    SUCCESS,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package models.enums;
+
+/**
+ * 
+ * @author svenkubiak
+ *
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
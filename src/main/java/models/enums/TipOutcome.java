@@ -0,0 +1,13 @@
+package models.enums;
+
+/**
+ * 
+ * @author svenkubiak
+ *
+ */
+public enum TipOutcome {
+    RESULT,
+    DIFFERENCE,
+    TREND,
+    MISS
+}
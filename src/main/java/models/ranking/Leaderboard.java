@@ -0,0 +1,293 @@
+package models.ranking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Ranked set of users, ordered by a composite score. Scores are compared key by key in
+ * descending order, remaining ties are broken by name and id, so every entry has a
+ * distinct rank. Backed by a treap with subtree sizes, so insert, remove, rank and
+ * select are O(log n).
+ *
+ * Not thread-safe.
+ *
+ * @author svenkubiak
+ *
+ */
+public class Leaderboard {
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+    private final Random random;
+    private Node root;
+
+    public Leaderboard() {
+        this(0);
+    }
+
+    public Leaderboard(final long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Adds an entry or replaces the entry with the same id
+     *
+     * @param id The id of the user
+     * @param name The name of the user, used as tie-breaker when all scores are equal
+     * @param scores The score keys in order of precedence, higher is better
+     * @param place The place currently persisted for the user
+     */
+    public void put(final String id, final String name, final int[] scores, final int place) {
+        remove(id);
+
+        final Entry entry = new Entry(id, name, scores.clone(), place);
+        this.entries.put(id, entry);
+
+        final Node[] parts = split(this.root, entry);
+        this.root = merge(merge(parts[0], new Node(entry, this.random.nextInt())), parts[1]);
+    }
+
+    /**
+     * @param id The id of the user
+     * @return True if an entry has been removed
+     */
+    public boolean remove(final String id) {
+        final Entry entry = this.entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+
+        this.root = remove(this.root, entry);
+        return true;
+    }
+
+    public boolean contains(final String id) {
+        return this.entries.containsKey(id);
+    }
+
+    public int size() {
+        return size(this.root);
+    }
+
+    /**
+     * @param id The id of the user
+     * @return The 1-based rank of the user or 0 if the user is not ranked
+     */
+    public int getRank(final String id) {
+        final Entry entry = this.entries.get(id);
+        if (entry == null) {
+            return 0;
+        }
+
+        int rank = 0;
+        Node node = this.root;
+        while (node != null) {
+            final int result = compare(entry, node.entry);
+            if (result < 0) {
+                node = node.left;
+            } else {
+                rank = rank + size(node.left) + 1;
+                if (result == 0) {
+                    break;
+                }
+                node = node.right;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * @param rank The 1-based rank
+     * @return The entry at the given rank or null if out of range
+     */
+    public Entry getEntry(final int rank) {
+        int index = rank;
+        Node node = this.root;
+        while (node != null) {
+            final int leftSize = size(node.left);
+            if (index <= leftSize) {
+                node = node.left;
+            } else if (index == leftSize + 1) {
+                return node.entry;
+            } else {
+                index = index - leftSize - 1;
+                node = node.right;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return All entries in rank order
+     */
+    public List<Entry> getEntries() {
+        final List<Entry> result = new ArrayList<Entry>(size());
+        collect(this.root, 1, Integer.MAX_VALUE, 1, result);
+
+        return result;
+    }
+
+    private static void collect(final Node node, final int from, final int to, final int offset, final List<Entry> result) {
+        if (node == null) {
+            return;
+        }
+
+        final int rank = offset + size(node.left);
+        if (from < rank) {
+            collect(node.left, from, to, offset, result);
+        }
+        if (from <= rank && rank <= to) {
+            result.add(node.entry);
+        }
+        if (to > rank) {
+            collect(node.right, from, to, rank + 1, result);
+        }
+    }
+
+    private static Node remove(final Node node, final Entry entry) {
+        if (node == null) {
+            return null;
+        }
+
+        final int result = compare(entry, node.entry);
+        if (result == 0) {
+            return merge(node.left, node.right);
+        } else if (result < 0) {
+            node.left = remove(node.left, entry);
+        } else {
+            node.right = remove(node.right, entry);
+        }
+        node.update();
+
+        return node;
+    }
+
+    /**
+     * Splits the tree into the entries ranked before the given entry and all others
+     */
+    private static Node[] split(final Node node, final Entry entry) {
+        if (node == null) {
+            return new Node[2];
+        }
+
+        if (compare(node.entry, entry) < 0) {
+            final Node[] parts = split(node.right, entry);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        }
+
+        final Node[] parts = split(node.left, entry);
+        node.left = parts[1];
+        node.update();
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(final Node left, final Node right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(final Node node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    private static int compare(final Entry a, final Entry b) {
+        final int length = Math.min(a.scores.length, b.scores.length);
+        for (int i = 0; i < length; i++) {
+            if (a.scores[i] != b.scores[i]) {
+                return (a.scores[i] > b.scores[i]) ? -1 : 1;
+            }
+        }
+
+        int result = compareStrings(a.name, b.name);
+        if (result == 0) {
+            result = compareStrings(a.id, b.id);
+        }
+
+        return result;
+    }
+
+    private static int compareStrings(final String a, final String b) {
+        if (a == null) {
+            return (b == null) ? 0 : 1;
+        } else if (b == null) {
+            return -1;
+        }
+
+        return a.compareTo(b);
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size;
+
+        Node(final Entry entry, final int priority) {
+            this.entry = entry;
+            this.priority = priority;
+            this.size = 1;
+        }
+
+        void update() {
+            this.size = 1 + Leaderboard.size(this.left) + Leaderboard.size(this.right);
+        }
+    }
+
+    public static final class Entry {
+        private final String id;
+        private final String name;
+        private final int[] scores;
+        private int place;
+
+        Entry(final String id, final String name, final int[] scores, final int place) {
+            this.id = id;
+            this.name = name;
+            this.scores = scores;
+            this.place = place;
+        }
+
+        public String getId() {
+            return this.id;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public int getScore(final int index) {
+            return this.scores[index];
+        }
+
+        /**
+         * @return The place last persisted for this user
+         */
+        public int getPlace() {
+            return this.place;
+        }
+
+        public void setPlace(final int place) {
+            this.place = place;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package models.ranking;
+
+/**
+ * The new place of a user in the standings and the place it had before the calculation
+ *
+ * @author svenkubiak
+ *
+ */
+public final class PlaceChange {
+    private final String userId;
+    private final int previousPlace;
+    private final int place;
+
+    public PlaceChange(final String userId, final int previousPlace, final int place) {
+        this.userId = userId;
+        this.previousPlace = previousPlace;
+        this.place = place;
+    }
+
+    public String getUserId() {
+        return this.userId;
+    }
+
+    public int getPreviousPlace() {
+        return this.previousPlace;
+    }
+
+    public int getPlace() {
+        return this.place;
+    }
+}
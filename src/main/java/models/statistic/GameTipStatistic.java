@@ -7,6 +7,8 @@ import models.Playday;
 import org.bson.types.ObjectId;
 import org.mongodb.morphia.annotations.Entity;
 import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -14,6 +16,9 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "playday", unique = true)
+})
 @Entity(value = "gametipstatistics", noClassnameStored = true)
 public class GameTipStatistic implements Serializable {
     private static final long serialVersionUID = 8371256438048352782L;
@@ -7,6 +7,8 @@ import models.User;
 import org.bson.types.ObjectId;
 import org.mongodb.morphia.annotations.Entity;
 import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -14,6 +16,9 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "user, result", unique = true)
+})
 @Entity(value = "resultstatistics", noClassnameStored = true)
 public class ResultStatistic implements Serializable {
     private static final long serialVersionUID = -8915315063073633008L;
@@ -8,6 +8,8 @@ import models.User;
 import org.bson.types.ObjectId;
 import org.mongodb.morphia.annotations.Entity;
 import org.mongodb.morphia.annotations.Id;
+import org.mongodb.morphia.annotations.Index;
+import org.mongodb.morphia.annotations.Indexes;
 import org.mongodb.morphia.annotations.Reference;
 
 /**
@@ -15,6 +17,12 @@ import org.mongodb.morphia.annotations.Reference;
  * @author svenkubiak
  *
  */
+@Indexes({
+    @Index(value = "playday, user", unique = true),
+    @Index("playday, playdayPoints"),
+    @Index("playday, points"),
+    @Index("user, playday")
+})
 @Entity(value = "userstatistics", noClassnameStored = true)
 public class UserStatistic implements Serializable {
     private static final long serialVersionUID = -1721254237172590008L;
@@ -0,0 +1,29 @@
+package models.ws;
+
+import java.util.Date;
+
+/**
+ * 
+ * @author svenkubiak
+ *
+ */
+public class WSMatch {
+    private String matchID;
+    private Date kickoff;
+
+    public String getMatchID() {
+        return matchID;
+    }
+
+    public void setMatchID(String matchID) {
+        this.matchID = matchID;
+    }
+
+    public Date getKickoff() {
+        return kickoff;
+    }
+
+    public void setKickoff(Date kickoff) {
+        this.kickoff = kickoff;
+    }
+}
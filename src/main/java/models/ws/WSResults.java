@@ -1,5 +1,6 @@
 package models.ws;
 
+import java.util.Date;
 import java.util.Map;
 
 /**
@@ -9,7 +10,11 @@ import java.util.Map;
  */
 public class WSResults {
     private boolean updated;
-    
+
+    private boolean finished;
+
+    private Date kickoff;
+
     private Map<String, WSResult> wsResult;
 
     public Map<String, WSResult> getWsResult() {
@@ -27,4 +32,20 @@ public class WSResults {
     public void setUpdated(boolean updated) {
         this.updated = updated;
     }
-}
\ No newline at end of file
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
+
+    public Date getKickoff() {
+        return kickoff;
+    }
+
+    public void setKickoff(Date kickoff) {
+        this.kickoff = kickoff;
+    }
+}
@@ -1,6 +1,14 @@
 package services;
 
-import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.crypto.Cipher;
 import javax.crypto.Mac;
@@ -8,15 +16,18 @@ import javax.crypto.spec.SecretKeySpec;
 
 import models.User;
 import models.enums.Constants;
+import ninja.lifecycle.Dispose;
 import ninja.utils.NinjaProperties;
 
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.Charsets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import services.password.PasswordHasher;
+import services.password.Sha512PasswordHasher;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.mchange.v1.util.UnexpectedException;
@@ -34,6 +45,43 @@ public class AuthService {
     private static final String HMAC_SHA1 = "HmacSHA1";
     private static final String AES = "AES";
     private static final String APPLICATION_SECRET = "application.secret";
+    private static final int HASH_THREADS = 2;
+    private static final int HASH_QUEUE = 16;
+    private static final PasswordHasher LEGACY_HASHER = new Sha512PasswordHasher();
+    private ThreadPoolExecutor hashExecutor;
+    private volatile byte[] secret;
+    private volatile SecretKeySpec aesKey;
+
+    /**
+     * Mac and Cipher instances are not thread-safe, so every thread keeps its own instances,
+     * initialized once with the application secret. doFinal resets them for the next call.
+     */
+    private final ThreadLocal<Mac> signingMac = new ThreadLocal<Mac>() {
+        @Override
+        protected Mac initialValue() {
+            try {
+                final Mac mac = Mac.getInstance(HMAC_SHA1);
+                mac.init(new SecretKeySpec(getSecret(), HMAC_SHA1));
+                return mac;
+            } catch (final GeneralSecurityException e) {
+                throw new UnexpectedException(e);
+            }
+        }
+    };
+
+    private final ThreadLocal<Cipher> encryptCipher = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            return createCipher(Cipher.ENCRYPT_MODE);
+        }
+    };
+
+    private final ThreadLocal<Cipher> decryptCipher = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            return createCipher(Cipher.DECRYPT_MODE);
+        }
+    };
 
     @Inject
     private NinjaProperties ninjaProperties;
@@ -42,7 +90,7 @@ public class AuthService {
     private DataService dataService;
 
     @Inject
-    private AuthService authService;
+    private PasswordHasher passwordHasher;
 
     /**
      * Encrypt a String with the AES encryption standard using the application secret
@@ -50,7 +98,12 @@ public class AuthService {
      * @return An hexadecimal encrypted string
      */
     public String encryptAES(String value) {
-        return encryptAES(value, ninjaProperties.get(APPLICATION_SECRET).substring(0, 16));
+        try {
+            return byteToHexString(this.encryptCipher.get().doFinal(value.getBytes(Charsets.UTF_8)));
+        } catch (Exception ex) {
+            this.encryptCipher.remove();
+            throw new UnexpectedException(ex);
+        }
     }
 
     /**
@@ -77,7 +130,12 @@ public class AuthService {
      * @return The decrypted String
      */
     public String decryptAES(String value) {
-        return decryptAES(value, ninjaProperties.get(APPLICATION_SECRET).substring(0, 16));
+        try {
+            return new String(this.decryptCipher.get().doFinal(hexStringToByte(value)), Charsets.UTF_8);
+        } catch (Exception ex) {
+            this.decryptCipher.remove();
+            throw new UnexpectedException(ex);
+        }
     }
 
     /**
@@ -110,28 +168,124 @@ public class AuthService {
         return String.valueOf(Hex.encodeHex(bytes));
     }
 
-    public boolean authenticate(String username, String userpass) {
-        boolean authenticated = false;
-        User user = dataService.findUserByUsernameOrEmail(username);
-        if (user != null && user.getUserpass().equals(authService.hashPassword(userpass, user.getSalt()))) {
-            authenticated = true;
+    /**
+     * Verifies the password of the user on the hashing executor. If the stored hash was
+     * created with a former algorithm or other parameters, it is replaced by a hash of
+     * the current PasswordHasher.
+     *
+     * @param username The username or email
+     * @param userpass The clear-text password
+     * @return True if an active user with the given password exists
+     * @throws java.util.concurrent.RejectedExecutionException If too many passwords are being hashed
+     */
+    public boolean authenticate(String username, final String userpass) {
+        final User user = dataService.findUserByUsernameOrEmail(username);
+        if (user == null || user.getUserpass() == null) {
+            return false;
         }
 
-        return authenticated;
+        return execute(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                final String stored = user.getUserpass();
+                final PasswordHasher hasher = passwordHasher.supports(stored) ? passwordHasher : LEGACY_HASHER;
+                if (!hasher.supports(stored) || !hasher.verify(userpass, user.getSalt(), stored)) {
+                    return false;
+                }
+
+                if (passwordHasher.needsRehash(stored)) {
+                    dataService.updateUserpass(user, stored, passwordHasher.hash(userpass, user.getSalt()));
+                    LOG.info("Upgraded password hash of " + user.getEmail());
+                }
+
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Hashes a clear-text password with the current PasswordHasher on the hashing executor
+     *
+     * @param userpass The password
+     * @param usersalt The salt
+     * @return The versioned hash to store as userpass
+     * @throws java.util.concurrent.RejectedExecutionException If too many passwords are being hashed
+     */
+    public String encodePassword(final String userpass, final String usersalt) {
+        return execute(new Callable<String>() {
+            @Override
+            public String call() {
+                return passwordHasher.hash(userpass, usersalt);
+            }
+        });
+    }
+
+    @Dispose
+    public synchronized void shutdown() {
+        if (this.hashExecutor != null) {
+            this.hashExecutor.shutdownNow();
+        }
+    }
+
+    private <T> T execute(final Callable<T> callable) {
+        try {
+            return getHashExecutor().submit(callable).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Failed to hash password", e.getCause());
+        }
+    }
+
+    /**
+     * Passwords are hashed by a few dedicated threads with a short queue, so a burst of
+     * logins is rejected early instead of blocking all request threads
+     */
+    private synchronized ThreadPoolExecutor getHashExecutor() {
+        if (this.hashExecutor == null) {
+            final int threads = ninjaProperties.getIntegerWithDefault("rudeltippen.password.threads", HASH_THREADS);
+            final AtomicInteger count = new AtomicInteger();
+            this.hashExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(ninjaProperties.getIntegerWithDefault("rudeltippen.password.queue", HASH_QUEUE)),
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(final Runnable runnable) {
+                            final Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    }, new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        return this.hashExecutor;
     }
 
     /**
      * Sign a message using the application secret key (HMAC-SHA1)
-     * @throws UnsupportedEncodingException
      */
     public String sign(String message) {
-        try {
-            return sign(message, ninjaProperties.get(APPLICATION_SECRET).getBytes(Constants.ENCODING.asString()));
-        } catch (UnsupportedEncodingException e) {
-            LOG.error("Failed to sign message", e);
+        if (getSecret().length == 0) {
+            return message;
         }
 
-        return null;
+        return toHex(this.signingMac.get().doFinal(message.getBytes(Charsets.UTF_8)));
+    }
+
+    /**
+     * Checks the signature of a message signed with the application secret key, comparing
+     * in constant time so the time taken does not reveal how much of the signature matched
+     *
+     * @param message The message
+     * @param signature The signature to check (in hexadecimal)
+     * @return True if the signature is valid
+     */
+    public boolean verify(String message, String signature) {
+        if (message == null || signature == null) {
+            return false;
+        }
+
+        return MessageDigest.isEqual(sign(message).getBytes(Charsets.UTF_8), signature.getBytes(Charsets.UTF_8));
     }
 
     /**
@@ -150,17 +304,7 @@ public class AuthService {
             SecretKeySpec signingKey = new SecretKeySpec(key, HMAC_SHA1);
             mac.init(signingKey);
             byte[] messageBytes = message.getBytes(Constants.ENCODING.asString());
-            byte[] result = mac.doFinal(messageBytes);
-            int len = result.length;
-            char[] hexChars = new char[len * 2];
-
-
-            for (int charIndex = 0, startIndex = 0; charIndex < hexChars.length;) {
-                int bite = result[startIndex++] & 0xff;
-                hexChars[charIndex++] = HEX_CHARS[bite >> 4];
-                hexChars[charIndex++] = HEX_CHARS[bite & 0xf];
-            }
-            return new String(hexChars);
+            return toHex(mac.doFinal(messageBytes));
         } catch (Exception e) {
             LOG.error("Failed to sign message with key", e);
         }
@@ -168,19 +312,49 @@ public class AuthService {
         return null;
     }
 
+    private static String toHex(byte[] bytes) {
+        char[] hexChars = new char[bytes.length * 2];
+        for (int charIndex = 0, startIndex = 0; charIndex < hexChars.length;) {
+            int bite = bytes[startIndex++] & 0xff;
+            hexChars[charIndex++] = HEX_CHARS[bite >> 4];
+            hexChars[charIndex++] = HEX_CHARS[bite & 0xf];
+        }
+
+        return new String(hexChars);
+    }
+
+    private byte[] getSecret() {
+        if (this.secret == null) {
+            this.secret = ninjaProperties.get(APPLICATION_SECRET).getBytes(Charsets.UTF_8);
+        }
+
+        return this.secret;
+    }
+
+    private Cipher createCipher(int mode) {
+        if (this.aesKey == null) {
+            this.aesKey = new SecretKeySpec(ninjaProperties.get(APPLICATION_SECRET).substring(0, 16).getBytes(Charsets.UTF_8), AES);
+        }
+
+        try {
+            final Cipher cipher = Cipher.getInstance(AES);
+            cipher.init(mode, this.aesKey);
+            return cipher;
+        } catch (final GeneralSecurityException e) {
+            throw new UnexpectedException(e);
+        }
+    }
+
     /**
-     * Hashes a given clear-text password with a given salt using 100000 rounds
+     * Hashes a given clear-text password with a given salt using 100000 rounds of the
+     * former, unversioned SHA512 hash. Only kept to create legacy hashes in the tests and
+     * the AuthBenchmark, the application hashes passwords with encodePassword.
      *
      * @param userpass The password
      * @param usersalt The salt
      * @return SHA512 hashed string
      */
     public String hashPassword(final String userpass, final String usersalt) {
-        String hash = "";
-        for (int i = 1; i <= 100000; i++) {
-            hash = DigestUtils.sha512Hex(hash + userpass + usersalt);
-        }
-
-        return hash;
+        return LEGACY_HASHER.hash(userpass, usersalt);
     }
 }
\ No newline at end of file
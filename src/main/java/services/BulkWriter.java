@@ -0,0 +1,63 @@
+package services;
+
+import java.util.List;
+
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.mapping.Mapper;
+
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBObject;
+
+/**
+ * Collects entity writes and flushes them as unordered bulk upserts. Entities
+ * without an id get one assigned when they are added, so they can be referenced
+ * before the batch is flushed. Queries do not see pending writes, call flush()
+ * before reading data which has been added to the writer and finish() at the
+ * end of a run.
+ *
+ * Instances are not thread-safe and are obtained from DataService.getBulkWriter()
+ *
+ * @author svenkubiak
+ *
+ */
+public class BulkWriter extends DocumentWriter {
+    private final Datastore datastore;
+    private int roundTrips;
+
+    BulkWriter(final Datastore datastore, final Mapper mapper, final String name, final int batchSize) {
+        super(mapper, name, batchSize);
+        this.datastore = datastore;
+    }
+
+    /**
+     * Adds a partial update of the first document matching the query to the current batch
+     *
+     * @param clazz The mapped entity class
+     * @param query The query selecting the document
+     * @param update The update operators, e.g. $set
+     */
+    public void update(final Class<?> clazz, final DBObject query, final DBObject update) {
+        add(getMapper().getCollectionName(clazz), new Operation(query, update, false));
+    }
+
+    @Override
+    public int getRoundTrips() {
+        return this.roundTrips;
+    }
+
+    @Override
+    int write(final String collection, final List<Operation> operations) {
+        final BulkWriteOperation bulkWriteOperation = this.datastore.getDB().getCollection(collection).initializeUnorderedBulkOperation();
+        for (final Operation operation : operations) {
+            if (operation.replace) {
+                bulkWriteOperation.find(operation.query).upsert().replaceOne(operation.document);
+            } else {
+                bulkWriteOperation.find(operation.query).updateOne(operation.document);
+            }
+        }
+        bulkWriteOperation.execute();
+        this.roundTrips++;
+
+        return operations.size();
+    }
+}
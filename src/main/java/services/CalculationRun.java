@@ -0,0 +1,101 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import models.Game;
+
+/**
+ * A calculation run of the CalculationScheduler. All trigger requests received within
+ * the debounce window are merged into the same run: the games of incremental requests
+ * are collected, a single full request turns the run into a full calculation.
+ *
+ * @author svenkubiak
+ *
+ */
+public class CalculationRun {
+    private final Map<Object, Game> games = new LinkedHashMap<Object, Game>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final long number;
+    private boolean full;
+    private boolean verify;
+    private int requests;
+    private volatile boolean failed;
+
+    CalculationRun(final long number) {
+        this.number = number;
+    }
+
+    public long getNumber() {
+        return this.number;
+    }
+
+    /**
+     * @return The number of trigger requests merged into this run
+     */
+    public synchronized int getRequests() {
+        return this.requests;
+    }
+
+    public synchronized boolean isFull() {
+        return this.full;
+    }
+
+    public boolean isDone() {
+        return this.done.getCount() == 0;
+    }
+
+    /**
+     * @return True if the run has finished with an error
+     */
+    public boolean isFailed() {
+        return this.failed;
+    }
+
+    /**
+     * Waits until the run has finished
+     *
+     * @throws InterruptedException If the current thread is interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        this.done.await();
+    }
+
+    /**
+     * Waits until the run has finished or the timeout has elapsed
+     *
+     * @return True if the run has finished
+     * @throws InterruptedException If the current thread is interrupted while waiting
+     */
+    public boolean await(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return this.done.await(timeout, unit);
+    }
+
+    synchronized void add(final List<Game> changedGames, final boolean fullRun, final boolean verifyRun) {
+        if (changedGames != null) {
+            for (final Game game : changedGames) {
+                this.games.put(game.getId(), game);
+            }
+        }
+        this.full = this.full || fullRun || verifyRun;
+        this.verify = this.verify || verifyRun;
+        this.requests++;
+    }
+
+    synchronized List<Game> getGames() {
+        return new ArrayList<Game>(this.games.values());
+    }
+
+    synchronized boolean isVerify() {
+        return this.verify;
+    }
+
+    void finish(final boolean error) {
+        this.failed = error;
+        this.done.countDown();
+    }
+}
@@ -0,0 +1,213 @@
+package services;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import models.Game;
+import ninja.lifecycle.Dispose;
+import ninja.utils.NinjaProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Runs the calculations in the background. The debounce window slides: a run starts once
+ * no further request has been received for rudeltippen.calculations.debounce milliseconds,
+ * but at the latest rudeltippen.calculations.maxwait milliseconds after the first request
+ * merged into it, so a steady stream of requests can not postpone it forever. Runs are
+ * executed one after another on a single thread, so two calculations never overlap.
+ * Requests arriving while a run is executing are merged into the next run.
+ *
+ * Calculations can be requested on every node, e.g. by an administrator, so each run holds
+ * the calculations lease for its duration and waits for it while another node calculates.
+ * A run taking longer than rudeltippen.calculations.lease milliseconds loses this guarantee.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class CalculationScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(CalculationScheduler.class);
+    private static final int DEBOUNCE = 2000;
+    private static final int MAX_WAIT = 10000;
+    private static final int LEASE = 600000;
+    private static final long LEASE_POLL = 1000;
+    private static final String CALCULATIONS = "calculations";
+    private final ScheduledExecutorService executorService;
+    private final Clock clock;
+    private CalculationRun pending;
+    private ScheduledFuture<?> timer;
+    private long deadline;
+    private long runs;
+
+    @Inject
+    private CalculationService calculationService;
+
+    @Inject
+    private LeaseService leaseService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    public CalculationScheduler() {
+        this(Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "calculations");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }), Clock.SYSTEM);
+    }
+
+    /**
+     * @param executorService The executor running the timers, must run one task at a time
+     * @param clock The clock the debounce window is measured with
+     */
+    CalculationScheduler(final ScheduledExecutorService executorService, final Clock clock) {
+        this.executorService = executorService;
+        this.clock = clock;
+    }
+
+    /**
+     * Requests a full calculation
+     *
+     * @return The run the request has been merged into
+     */
+    public CalculationRun schedule() {
+        return schedule(null, true, false);
+    }
+
+    /**
+     * Requests an incremental calculation for the given games
+     *
+     * @param games The games whose score has been set or changed
+     * @return The run the request has been merged into
+     */
+    public CalculationRun schedule(final List<Game> games) {
+        return schedule(games, false, false);
+    }
+
+    /**
+     * Requests a full calculation which is compared with the current values, see
+     * CalculationService.verifyCalculations()
+     *
+     * @return The run the request has been merged into
+     */
+    public CalculationRun verify() {
+        return schedule(null, true, true);
+    }
+
+    /**
+     * @return The run collecting requests which has not been started yet, or null
+     */
+    public synchronized CalculationRun getPending() {
+        return this.pending;
+    }
+
+    @Dispose(order = 80)
+    public void shutdown() {
+        this.executorService.shutdown();
+    }
+
+    private synchronized CalculationRun schedule(final List<Game> games, final boolean full, final boolean verify) {
+        final long now = this.clock.now();
+        if (this.pending == null) {
+            this.runs++;
+            this.pending = new CalculationRun(this.runs);
+            this.deadline = now + ninjaProperties.getIntegerWithDefault("rudeltippen.calculations.maxwait", MAX_WAIT);
+        }
+        this.pending.add(games, full, verify);
+
+        if (this.timer != null) {
+            this.timer.cancel(false);
+        }
+
+        final CalculationRun run = this.pending;
+        final long delay = Math.min(ninjaProperties.getIntegerWithDefault("rudeltippen.calculations.debounce", DEBOUNCE), Math.max(0, this.deadline - now));
+        this.timer = this.executorService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                execute(take(run));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+
+        return run;
+    }
+
+    /**
+     * Takes the given run if it is still pending. A timer which has been replaced by a later
+     * request but could not be cancelled anymore may fire after the run has been taken.
+     */
+    private synchronized CalculationRun take(final CalculationRun run) {
+        if (this.pending != run) {
+            return null;
+        }
+
+        this.pending = null;
+        this.timer = null;
+
+        return run;
+    }
+
+    private void execute(final CalculationRun run) {
+        if (run == null) {
+            return;
+        }
+
+        if (!lock(ninjaProperties.getIntegerWithDefault("rudeltippen.calculations.lease", LEASE))) {
+            LOG.error("Calculation run " + run.getNumber() + " failed to acquire the calculations lease");
+            run.finish(true);
+            return;
+        }
+
+        boolean error = true;
+        try {
+            final long start = this.clock.now();
+            if (run.isVerify()) {
+                calculationService.verifyCalculations();
+            } else if (run.isFull()) {
+                calculationService.calculations();
+            } else {
+                calculationService.calculations(run.getGames());
+            }
+            error = false;
+
+            LOG.info("Calculation run " + run.getNumber() + " (" + run.getRequests() + " requests, " + (run.isFull() ? "full" : run.getGames().size() + " games") + ") took " + (this.clock.now() - start) + " ms");
+        } catch (final RuntimeException e) {
+            LOG.error("Calculation run " + run.getNumber() + " failed", e);
+        } finally {
+            leaseService.release(CALCULATIONS);
+            run.finish(error);
+        }
+    }
+
+    /**
+     * Acquires the calculations lease, waiting at most one lease duration for another node
+     * to finish or its lease to expire
+     */
+    private boolean lock(final long duration) {
+        final long until = this.clock.now() + duration;
+        while (!leaseService.acquire(CALCULATIONS, duration)) {
+            if (this.clock.now() >= until) {
+                return false;
+            }
+
+            try {
+                Thread.sleep(LEASE_POLL);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -1,6 +1,8 @@
 package services;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,14 +15,21 @@ import models.Playday;
 import models.Settings;
 import models.Team;
 import models.User;
+import models.enums.TipOutcome;
+import models.ranking.PlaceChange;
 import models.ws.WSResult;
 import models.ws.WSResults;
 
+import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import services.events.PlaydayCompleted;
+import services.events.StandingsChanged;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.mongodb.BasicDBObject;
 
 /**
  * 
@@ -30,18 +39,20 @@ import com.google.inject.Singleton;
 @Singleton
 public class CalculationService {
     private static final Logger LOG = LoggerFactory.getLogger(CalculationService.class);
+    private long settingsVersion = -1;
+    private String standingsVersion = "";
 
     @Inject
     private DataService dataService;
     
     @Inject
-    private ResultService resultService;
+    private ScoringService scoringService;
 
     @Inject
     private StatisticService statisticService;
 
     @Inject
-    private NotificationService notificationService;
+    private EventBus eventBus;
 
     @Inject
     private ValidationService validationService;
@@ -49,107 +60,401 @@ public class CalculationService {
     @Inject
     private CommonService commonService;
 
-    public void calculations() {
-        calculateBrackets();
-        setTeamPlaces();
+    @Inject
+    private TournamentService tournamentService;
+
+    @Inject
+    private LeaderboardService leaderboardService;
+
+    @Inject
+    private PageCacheService pageCacheService;
+
+    @Inject
+    private VersionService versionService;
+
+    /**
+     * Recomputes brackets, team places, extra answers, user points and places,
+     * playoff teams and the current playday from scratch. The statistics of all playdays
+     * are recomputed afterwards by the StandingsChanged subscriber. Calculations never
+     * run concurrently, use the CalculationScheduler to run them in the background.
+     */
+    public synchronized void calculations() {
+        this.settingsVersion = dataService.getSettingsVersion();
+        final BulkWriter bulkWriter = dataService.getBulkWriter("calculations");
+        calculateBrackets(bulkWriter);
+        bulkWriter.flush();
+        setTeamPlaces(bulkWriter);
+        bulkWriter.flush();
         setExtraAnswers();
-        calculateUserPoints();
+        final List<User> users = calculateUserPoints(bulkWriter);
+        bulkWriter.finish();
+        leaderboardService.rebuild(users);
         setUserPlaces();
         setPlayoffTeams();
-        calculateStatistics();
         setCurrentPlayday();
+        tournamentService.rebuild();
+        pageCacheService.invalidate();
+        eventBus.publish(new StandingsChanged(dataService.findAllPlaydaysOrderByNumber(), users));
     }
 
-    private void calculateStatistics() {
-        final List<Playday> playdays = dataService.findAllPlaydaysOrderByNumber();
-        final List<User> users = dataService.findAllActiveUsers();
+    /**
+     * Incrementally applies the results of the given games. Only the tips of these games,
+     * the totals of the users who tipped them and the brackets of the involved teams are
+     * recomputed, the statistics of the involved playdays follow through StandingsChanged.
+     *
+     * The outcome is the same as running calculations() only as long as the point settings
+     * and the active users are unchanged since the last full run. A full run is done instead
+     * if the settings have changed since, no full run has been done since the start or
+     * another node has calculated since the last run on this node, as the leaderboard of
+     * this node would be outdated. Activating a user schedules a full run.
+     *
+     * @param games The games whose score has been set or changed
+     */
+    public synchronized void calculations(final List<Game> games) {
+        if (games == null || games.isEmpty()) {
+            return;
+        }
+
+        if (this.settingsVersion != dataService.getSettingsVersion()) {
+            LOG.info("Settings changed since the last full calculation, running a full calculation instead of an incremental one");
+            calculations();
+            return;
+        }
+
+        versionService.refresh();
+        if (!this.standingsVersion.equals(versionService.get(VersionService.STANDINGS))) {
+            LOG.info("Standings have been calculated on another node, running a full calculation instead of an incremental one");
+            calculations();
+            return;
+        }
+
+        final Settings settings = dataService.findSettings();
+        final BulkWriter bulkWriter = dataService.getBulkWriter("incremental calculations");
+        final Map<Object, Team> teams = new LinkedHashMap<Object, Team>();
+        final Map<Object, Playday> playdays = new LinkedHashMap<Object, Playday>();
+        for (final Game game : games) {
+            addTeam(teams, game.getHomeTeam());
+            addTeam(teams, game.getAwayTeam());
+            if (game.getPlayday() != null) {
+                playdays.put(game.getPlayday().getId(), game.getPlayday());
+            }
+        }
+
+        final Map<Object, Bracket> brackets = new LinkedHashMap<Object, Bracket>();
+        for (final Team team : teams.values()) {
+            calculateBracket(team, settings.getPointsGameWin(), settings.getPointsGameDraw(), bulkWriter);
+            final Bracket bracket = team.getBracket();
+            if (bracket != null && bracket.isUpdatable()) {
+                brackets.put(bracket.getId(), bracket);
+            }
+        }
+
+        bulkWriter.flush();
+
+        for (final Bracket bracket : brackets.values()) {
+            setTeamPlaces(bracket, bulkWriter);
+        }
+        bulkWriter.flush();
+
+        List<User> users;
+        if (setExtraAnswers()) {
+            users = calculateUserPoints(bulkWriter);
+            bulkWriter.finish();
+            leaderboardService.rebuild(users);
+        } else {
+            users = calculateUserPoints(games, settings, bulkWriter);
+            bulkWriter.finish();
+            leaderboardService.update(users);
+        }
+
+        setUserPlaces();
+        setPlayoffTeams();
+        setCurrentPlayday();
+        tournamentService.rebuild();
+        pageCacheService.invalidate();
+        eventBus.publish(new StandingsChanged(new ArrayList<Playday>(playdays.values()), users));
+    }
+
+    /**
+     * Runs a full recompute and logs every active user whose totals or place differ
+     * from the values the previous (incremental) calculations left behind
+     *
+     * @return The number of users with differing values
+     */
+    public synchronized int verifyCalculations() {
+        final Map<Object, String> before = new HashMap<Object, String>();
+        for (final User user : dataService.findAllActiveUsers()) {
+            before.put(user.getId(), getTotals(user));
+        }
+
+        calculations();
+
+        int mismatches = 0;
+        for (final User user : dataService.findAllActiveUsers()) {
+            final String expected = getTotals(user);
+            final String actual = before.get(user.getId());
+            if (actual != null && !actual.equals(expected)) {
+                LOG.warn("Calculation mismatch for " + user.getEmail() + " - incremental: " + actual + " - full: " + expected);
+                mismatches++;
+            }
+        }
+        LOG.info("Verified calculations with " + mismatches + " mismatches");
+
+        return mismatches;
+    }
+
+    private static String getTotals(final User user) {
+        return user.getPoints() + "/" + user.getTipPoints() + "/" + user.getExtraPoints() + "/" + user.getCorrectResults() + "/" + user.getCorrectDifferences() + "/" + user.getCorrectTrends() + "/" + user.getCorrectExtraTips() + "/" + user.getPlace();
+    }
+
+    private static void addTeam(final Map<Object, Team> teams, final Team team) {
+        if (team != null) {
+            teams.put(team.getId(), team);
+        }
+    }
+
+    /**
+     * Recomputes the statistics of the given playdays and the result statistics of the
+     * given users. Subscribed to StandingsChanged, so the statistics are updated in the
+     * background after the calculations have been written, the cached pages are
+     * invalidated again once the statistics are stored.
+     *
+     * @param playdays The playdays whose games have changed
+     * @param users The users whose points have changed
+     */
+    public synchronized void calculateStatistics(final List<Playday> playdays, final List<User> users) {
+        final List<User> activeUsers = dataService.findAllActiveUsers();
         for (final Playday playday : playdays) {
-            if (commonService.allGamesEnded(playday)) {
-                final Map<String, Integer> scores = getScores(playday);
-                statisticService.setPlaydayStatistics(playday, scores);
+            calculateStatistics(dataService.findPlaydaybByNumber(playday.getNumber()), activeUsers);
+        }
+
+        statisticService.setResultStatistics(users);
+        pageCacheService.invalidate();
+    }
+
+    private void calculateStatistics(final Playday playday, final List<User> users) {
+        if (playday != null && commonService.allGamesEnded(playday)) {
+            final Map<String, Integer> scores = getScores(playday);
+            statisticService.setPlaydayStatistics(playday, scores);
+
+            statisticService.setPlaydayPoints(playday, users);
+
+            statisticService.setPlaydayPlaces(playday);
+            statisticService.setGameTipStatistics(playday);
+            statisticService.setGameStatistic(playday);
+        }
+    }
+
+    /**
+     * Scores the tips of the given games and applies the difference to the
+     * stored totals of the users who placed them. The points and outcomes of the tips
+     * of games which are no longer ended, because their result has been cleared, are
+     * taken back.
+     *
+     * @return The users whose totals have been updated
+     */
+    private List<User> calculateUserPoints(final List<Game> games, final Settings settings, final BulkWriter bulkWriter) {
+        final Map<Object, User> users = new LinkedHashMap<Object, User>();
+        for (final Game game : games) {
+            final boolean ended = game.isEnded();
+            final List<GameTip> gameTips = new ArrayList<GameTip>();
+            for (final GameTip gameTip : dataService.findGameTipByGame(game)) {
+                final User tipper = gameTip.getUser();
+                if (tipper != null && tipper.isActive()) {
+                    gameTips.add(gameTip);
+                }
+            }
+
+            final int count = gameTips.size();
+            final int[] homeTips = new int[count];
+            final int[] awayTips = new int[count];
+            final int[] points = new int[count];
+            for (int i = 0; i < count; i++) {
+                homeTips[i] = gameTips.get(i).getHomeScore();
+                awayTips[i] = gameTips.get(i).getAwayScore();
+            }
+            if (ended) {
+                scoringService.score(game, homeTips, awayTips, points, count);
+            }
 
-                for (final User user : users) {
-                    statisticService.setPlaydayPoints(playday, user);
+            for (int i = 0; i < count; i++) {
+                final GameTip gameTip = gameTips.get(i);
+                User user = users.get(gameTip.getUser().getId());
+                if (user == null) {
+                    user = gameTip.getUser();
+                    users.put(user.getId(), user);
                 }
 
-                statisticService.setPlaydayPlaces(playday);
-                statisticService.setGameTipStatistics(playday);
-                statisticService.setGameStatistic(playday);
+                final int oldPoints = gameTip.getPoints();
+                final int newPoints = points[i];
+                final TipOutcome oldOutcome = (gameTip.getOutcome() == null && oldPoints > 0) ? classify(oldPoints, settings) : gameTip.getOutcome();
+                final TipOutcome newOutcome = ended ? classify(newPoints, settings) : null;
+                if (oldPoints != newPoints || gameTip.getOutcome() != newOutcome) {
+                    gameTip.setPoints(newPoints);
+                    gameTip.setOutcome(newOutcome);
+                    bulkWriter.save(gameTip);
+
+                    user.setTipPoints(user.getTipPoints() - oldPoints + newPoints);
+                    user.setPoints(user.getTipPoints() + user.getExtraPoints());
+                    countTip(user, oldOutcome, -1);
+                    countTip(user, newOutcome, 1);
+                }
             }
         }
 
-        for (final User user : users) {
-            statisticService.setResultStatistic(user);
+        for (final User user : users.values()) {
+            bulkWriter.save(user);
         }
+
+        return new ArrayList<User>(users.values());
     }
 
-    private void calculateUserPoints() {
-        final List<User> users = dataService.findAllActiveUsers();
-        for (final User user : users) {
-            int correctResults = 0;
-            int correctDifferences = 0;
-            int correctTrends = 0;
-            int correctExtraTips = 0;
-            int userTipPoints = 0;
+    /**
+     * Applies a tip outcome to the counters of the given user. The outcome stored with
+     * the tip is used for the decrement, so a tip scored under different point settings
+     * is still taken off the counter it has been added to. Tips without an outcome have
+     * not been scored and are not counted.
+     */
+    private static void countTip(final User user, final TipOutcome outcome, final int delta) {
+        if (outcome == null) {
+            return;
+        }
 
-            final List<GameTip> gameTips = dataService.findGameTipsByUser(user);
-            for (final GameTip gameTip : gameTips) {
-                final Game game = gameTip.getGame();
+        switch (outcome) {
+        case RESULT:
+            user.setCorrectResults(user.getCorrectResults() + delta);
+            break;
+        case DIFFERENCE:
+            user.setCorrectDifferences(user.getCorrectDifferences() + delta);
+            break;
+        case TREND:
+            user.setCorrectTrends(user.getCorrectTrends() + delta);
+            break;
+        default:
+            break;
+        }
+    }
 
-                if (!game.isEnded()) {
-                    continue;
-                }
+    private static TipOutcome classify(final int points, final Settings settings) {
+        return classify(points, settings.getPointsTip(), settings.getPointsTipDiff(), settings.getPointsTipTrend());
+    }
 
-                int pointsForTipp = 0;
-                if (game.isOvertime()) {
-                    pointsForTipp = resultService.getTipPointsOvertime(Integer.parseInt(game.getHomeScore()), Integer.parseInt(game.getAwayScore()), Integer.parseInt(game.getHomeScoreOT()), Integer.parseInt(game.getAwayScoreOT()), gameTip.getHomeScore(), gameTip.getAwayScore());
-                } else {
-                    pointsForTipp = resultService.getTipPoints(Integer.parseInt(game.getHomeScore()), Integer.parseInt(game.getAwayScore()), gameTip.getHomeScore(), gameTip.getAwayScore());
+    private static TipOutcome classify(final int points, final int pointsTip, final int pointsDiff, final int pointsTrend) {
+        if (points == pointsTip) {
+            return TipOutcome.RESULT;
+        } else if (points == pointsDiff) {
+            return TipOutcome.DIFFERENCE;
+        } else if (points == pointsTrend) {
+            return TipOutcome.TREND;
+        }
+
+        return TipOutcome.MISS;
+    }
+
+    private List<User> calculateUserPoints(final BulkWriter bulkWriter) {
+        final Settings settings = dataService.findSettings();
+        final int pointsTip = settings.getPointsTip();
+        final int pointsDiff = settings.getPointsTipDiff();
+        final int pointsTrend = settings.getPointsTipTrend();
+        final List<Extra> extras = dataService.findAllExtras();
+        final List<User> users = dataService.findAllActiveUsers();
+        final List<Game> games = new ArrayList<Game>();
+        final List<Game> openGames = new ArrayList<Game>();
+        for (final Game game : dataService.findAllGames()) {
+            if (game.isEnded()) {
+                games.add(game);
+            } else {
+                openGames.add(game);
+            }
+        }
+        dataService.resetGameTips(openGames);
+
+        final int size = users.size();
+        final int[] tipPoints = new int[size];
+        final int[] correctResults = new int[size];
+        final int[] correctDifferences = new int[size];
+        final int[] correctTrends = new int[size];
+        final int[] rows = new int[size];
+        final int[] homeTips = new int[size];
+        final int[] awayTips = new int[size];
+        final int[] points = new int[size];
+        final GameTip[][] gameTips = dataService.findGameTipMatrix(games, users);
+        for (int column = 0; column < games.size(); column++) {
+            final Game game = games.get(column);
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                final GameTip gameTip = gameTips[row][column];
+                if (gameTip != null) {
+                    rows[count] = row;
+                    homeTips[count] = gameTip.getHomeScore();
+                    awayTips[count] = gameTip.getAwayScore();
+                    count++;
                 }
-                gameTip.setPoints(pointsForTipp);
-                dataService.save(gameTip);
-
-                final Settings settings = dataService.findSettings();
-                if (pointsForTipp == settings.getPointsTip()) {
-                    correctResults++;
-                } else if (pointsForTipp == settings.getPointsTipDiff()) {
-                    correctDifferences++;
-                } else if (pointsForTipp == settings.getPointsTipTrend()) {
-                    correctTrends++;
+            }
+
+            scoringService.score(game, homeTips, awayTips, points, count);
+
+            for (int i = 0; i < count; i++) {
+                final int row = rows[i];
+                final int pointsForTipp = points[i];
+                final TipOutcome outcome = classify(pointsForTipp, pointsTip, pointsDiff, pointsTrend);
+                if (gameTips[row][column].getPoints() != pointsForTipp || gameTips[row][column].getOutcome() != outcome) {
+                    bulkWriter.update(GameTip.class, dataService.getGameTipQuery(game, users.get(row)),
+                            new BasicDBObject("$set", new BasicDBObject("points", pointsForTipp).append("outcome", outcome.name())));
                 }
 
-                userTipPoints = userTipPoints + pointsForTipp;
+                if (TipOutcome.RESULT.equals(outcome)) {
+                    correctResults[row]++;
+                } else if (TipOutcome.DIFFERENCE.equals(outcome)) {
+                    correctDifferences[row]++;
+                } else if (TipOutcome.TREND.equals(outcome)) {
+                    correctTrends[row]++;
+                }
+                tipPoints[row] = tipPoints[row] + pointsForTipp;
             }
+        }
+
+        final ExtraTip[][] extraTips = dataService.findExtraTipMatrix(extras, users);
+        for (int row = 0; row < size; row++) {
+            final User user = users.get(row);
+            final int userTipPoints = tipPoints[row];
+            int correctExtraTips = 0;
             user.setTipPoints(userTipPoints);
-            user.setCorrectResults(correctResults);
-            user.setCorrectDifferences(correctDifferences);
-            user.setCorrectTrends(correctTrends);
+            user.setCorrectResults(correctResults[row]);
+            user.setCorrectDifferences(correctDifferences[row]);
+            user.setCorrectTrends(correctTrends[row]);
 
             int bonusPoints = 0;
-            List<Extra> extras = dataService.findAllExtras();
-            for (final Extra extra : extras) {
-                final ExtraTip extraTip = dataService.findExtraTipByExtraAndUser(extra, user);
+            for (int column = 0; column < extras.size(); column++) {
+                final Extra extra = extras.get(column);
+                final ExtraTip extraTip = extraTips[row][column];
                 if (extraTip != null) {
                     final Team bonusAnswer = extra.getAnswer();
                     final Team userAnswer = extraTip.getAnswer();
-                    if (bonusAnswer != null && userAnswer != null && bonusAnswer.equals(userAnswer)) {
-                        final int bPoints = extra.getPoints();
-                        extraTip.setPoints(bPoints);
+                    int bPoints = 0;
+                    if (bonusAnswer != null && userAnswer != null && bonusAnswer.getId().equals(userAnswer.getId())) {
+                        bPoints = extra.getPoints();
                         correctExtraTips++;
-                        dataService.save(extraTip);
                         bonusPoints = bonusPoints + bPoints;
                     }
+
+                    if (extraTip.getPoints() != bPoints) {
+                        bulkWriter.update(ExtraTip.class, dataService.getExtraTipQuery(extra, user), new BasicDBObject("$set", new BasicDBObject("points", bPoints)));
+                    }
                 }
             }
 
             user.setExtraPoints(bonusPoints);
             user.setPoints(bonusPoints + userTipPoints);
             user.setCorrectExtraTips(correctExtraTips);
-            dataService.save(user);
+            bulkWriter.save(user);
         }
+
+        return users;
     }
 
-    private void setExtraAnswers() {
+    private boolean setExtraAnswers() {
+        boolean changed = false;
         List<Extra> extras = dataService.findAllExtras();
         for (final Extra extra : extras) {
             if (extra.getAnswer() == null && commonService.allReferencedGamesEnded(extra.getGameReferences())) {
@@ -157,85 +462,92 @@ public class CalculationService {
                 if (team != null) {
                     extra.setAnswer(team);
                     dataService.save(extra);
+                    changed = true;
                 }
             }
         }
+
+        return changed;
     }
 
-    private void calculateBrackets() {
+    private void calculateBrackets(final BulkWriter bulkWriter) {
         final Settings settings = dataService.findSettings();
         final int pointsWin = settings.getPointsGameWin();
         final int pointsDraw = settings.getPointsGameDraw();
 
         final List<Team> teams = dataService.findAllTeams();
         for (final Team team : teams) {
-            final List<Game> homeGames = dataService.findGamesByHomeTeam(team);
-            final List<Game> awayGames = dataService.findGamesByAwayTeam(team);
-
-            int homePoints = 0;
-            int awayPoints = 0;
-            int gamesPlayed = 0;
-            int gamesWon = 0;
-            int gamesDraw = 0;
-            int gamesLost = 0;
-            int goalsFor = 0;
-            int goalsAgainst = 0;
-            for (final Game game : homeGames) {
-                if (!game.isPlayoff() && validationService.isValidScore(game.getHomeScore(), game.getAwayScore())) {
-                    final int points = game.getHomePoints();
-                    homePoints = homePoints + points;
-                    gamesPlayed++;
-
-                    if (points == pointsWin) {
-                        gamesWon++;
-                    } else if (points == pointsDraw) {
-                        gamesDraw++;
-                    } else if (points == 0) {
-                        gamesLost++;
-                    }
-                    goalsFor = goalsFor + Integer.parseInt(game.getHomeScore());
-                    goalsAgainst = goalsAgainst + Integer.parseInt(game.getAwayScore());
+            calculateBracket(team, pointsWin, pointsDraw, bulkWriter);
+        }
+    }
+
+    private void calculateBracket(final Team team, final int pointsWin, final int pointsDraw, final BulkWriter bulkWriter) {
+        final List<Game> homeGames = dataService.findGamesByHomeTeam(team);
+        final List<Game> awayGames = dataService.findGamesByAwayTeam(team);
+
+        int homePoints = 0;
+        int awayPoints = 0;
+        int gamesPlayed = 0;
+        int gamesWon = 0;
+        int gamesDraw = 0;
+        int gamesLost = 0;
+        int goalsFor = 0;
+        int goalsAgainst = 0;
+        for (final Game game : homeGames) {
+            if (!game.isPlayoff() && validationService.isValidScore(game.getHomeScore(), game.getAwayScore())) {
+                final int points = game.getHomePoints();
+                homePoints = homePoints + points;
+                gamesPlayed++;
+
+                if (points == pointsWin) {
+                    gamesWon++;
+                } else if (points == pointsDraw) {
+                    gamesDraw++;
+                } else if (points == 0) {
+                    gamesLost++;
                 }
+                goalsFor = goalsFor + Integer.parseInt(game.getHomeScore());
+                goalsAgainst = goalsAgainst + Integer.parseInt(game.getAwayScore());
             }
+        }
 
-            for (final Game game : awayGames) {
-                if (!game.isPlayoff() && validationService.isValidScore(game.getHomeScore(), game.getAwayScore())) {
-                    final int points = game.getAwayPoints();
-                    awayPoints = awayPoints + points;
-                    gamesPlayed++;
-
-                    if (points == pointsWin) {
-                        gamesWon++;
-                    } else if (points == pointsDraw) {
-                        gamesDraw++;
-                    } else if (points == 0) {
-                        gamesLost++;
-                    }
-                    goalsFor = goalsFor + Integer.parseInt(game.getAwayScore());
-                    goalsAgainst = goalsAgainst + Integer.parseInt(game.getHomeScore());
+        for (final Game game : awayGames) {
+            if (!game.isPlayoff() && validationService.isValidScore(game.getHomeScore(), game.getAwayScore())) {
+                final int points = game.getAwayPoints();
+                awayPoints = awayPoints + points;
+                gamesPlayed++;
+
+                if (points == pointsWin) {
+                    gamesWon++;
+                } else if (points == pointsDraw) {
+                    gamesDraw++;
+                } else if (points == 0) {
+                    gamesLost++;
                 }
+                goalsFor = goalsFor + Integer.parseInt(game.getAwayScore());
+                goalsAgainst = goalsAgainst + Integer.parseInt(game.getHomeScore());
             }
-            team.setPoints(homePoints + awayPoints);
-            team.setGamesDraw(gamesDraw);
-            team.setGamesLost(gamesLost);
-            team.setGamesWon(gamesWon);
-            team.setGamesPlayed(gamesPlayed);
-            team.setGoalsFor(goalsFor);
-            team.setGoalsAgainst(goalsAgainst);
-            team.setGoalsDiff(goalsFor - goalsAgainst);
-            dataService.save(team);
         }
+        team.setPoints(homePoints + awayPoints);
+        team.setGamesDraw(gamesDraw);
+        team.setGamesLost(gamesLost);
+        team.setGamesWon(gamesWon);
+        team.setGamesPlayed(gamesPlayed);
+        team.setGoalsFor(goalsFor);
+        team.setGoalsAgainst(goalsAgainst);
+        team.setGoalsDiff(goalsFor - goalsAgainst);
+        bulkWriter.save(team);
     }
 
+    /**
+     * Writes place and previous place of every ranked user and advances the shared standings
+     * version, so the other nodes know their leaderboard is outdated
+     */
     private void setUserPlaces() {
-        int place = 1;
-        final List<User> users = dataService.findAllActiveUsersOrdered();
-        for (final User user : users) {
-            user.setPreviousPlace(user.getPlace());
-            user.setPlace(place);
-            dataService.save(user);
-            place++;
-        }
+        final List<PlaceChange> changes = leaderboardService.getPlaceChanges();
+        dataService.updatePlaces(changes);
+        this.standingsVersion = versionService.advance(VersionService.STANDINGS);
+        LOG.info("Updated places of " + changes.size() + " users");
     }
 
     private boolean setCurrentPlayday() {
@@ -253,9 +565,9 @@ public class CalculationService {
             }
         }
 
-        if (currentPlayday.getNumber() != dataService.findCurrentPlayday().getNumber()) {
+        if (currentPlayday.getNumber() != dataService.refreshCurrentPlayday().getNumber()) {
             changed = true;
-            notificationService.sendTopThree(currentPlayday);
+            eventBus.publish(new PlaydayCompleted(currentPlayday));
         }
 
         return changed;
@@ -294,27 +606,45 @@ public class CalculationService {
         }
     }
 
-    private void setTeamPlaces() {
+    private void setTeamPlaces(final BulkWriter bulkWriter) {
         final List<Bracket> brackets = dataService.findAllUpdatableBrackets();
         for (final Bracket bracket : brackets) {
-            final List<Team> teams = dataService.findTeamsByBracketOrdered(bracket);
-            int place = 1;
-            for (final Team team : teams) {
-                team.setPreviousPlace(team.getPlace());
-                team.setPlace(place);
-                dataService.save(team);
-                place++;
-            }
+            setTeamPlaces(bracket, bulkWriter);
+        }
+    }
+
+    private void setTeamPlaces(final Bracket bracket, final BulkWriter bulkWriter) {
+        final List<Team> teams = dataService.findTeamsByBracketOrdered(bracket);
+        int place = 1;
+        for (final Team team : teams) {
+            team.setPreviousPlace(team.getPlace());
+            team.setPlace(place);
+            bulkWriter.save(team);
+            place++;
         }
     }
 
-    public void setGameScore(final String gameId, final String homeScore, final String awayScore, final String extratime, final String homeScoreExtratime, final String awayScoreExtratime) {
+    /**
+     * Stores the given score for a game. Two blank scores clear the result of an ended game.
+     *
+     * @return The updated game or null if the score was invalid, the game was not found or there was no result to clear
+     */
+    public Game setGameScore(final String gameId, final String homeScore, final String awayScore, final String extratime, final String homeScoreExtratime, final String awayScoreExtratime) {
         if (validationService.isValidScore(homeScore, awayScore)) {
             final Game game = dataService.findGameById(gameId);
             if (game != null) {
                 dataService.saveScore(game, homeScore, awayScore, extratime, homeScoreExtratime, awayScoreExtratime);
+                return game;
+            }
+        } else if (StringUtils.isBlank(homeScore) && StringUtils.isBlank(awayScore)) {
+            final Game game = dataService.findGameById(gameId);
+            if (game != null && game.isEnded()) {
+                dataService.clearScore(game);
+                return game;
             }
         }
+
+        return null;
     }
 
     public Map<String, Integer> getScores(final Playday playday) {
@@ -335,7 +665,13 @@ public class CalculationService {
         return scores;
     }
 
-    public void setGameScoreFromWebService(final Game game, final WSResults wsResults) {
+    /**
+     * Stores the score received from the WebService for a game without running the
+     * calculations, so several results can be applied with a single calculations run
+     *
+     * @return The updated game or null if the score was invalid or the game was not found
+     */
+    public Game setGameScoreFromWebService(final Game game, final WSResults wsResults) {
         final Map<String, WSResult> wsResult = wsResults.getWsResult();
 
         String homeScore = null;
@@ -362,8 +698,7 @@ public class CalculationService {
         LOG.info("Recieved from WebService - HomeScore: " + homeScore + " AwayScore: " + awayScore);
         LOG.info("Recieved from WebService - HomeScoreExtra: " + homeScoreExtratime + " AwayScoreExtra: " + awayScoreExtratime + " (" + extratime + ")");
         LOG.info("Updating results from WebService. " + game);
-        setGameScore(String.valueOf(game.getId()), homeScore, awayScore, extratime, homeScoreExtratime, awayScoreExtratime);
-        calculations();
+        return setGameScore(String.valueOf(game.getId()), homeScore, awayScore, extratime, homeScoreExtratime, awayScoreExtratime);
     }
 
     public int getPointsToFirstPlace(User connectedUser) {
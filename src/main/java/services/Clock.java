@@ -0,0 +1,22 @@
+package services;
+
+/**
+ * Source of the current time for the services which work with deadlines, replaced in
+ * the tests so they can let time pass without waiting for it
+ *
+ * @author svenkubiak
+ *
+ */
+interface Clock {
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long now() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * @return The current time in milliseconds
+     */
+    long now();
+}
@@ -17,6 +17,7 @@ import models.Playday;
 import models.Team;
 import models.User;
 import models.enums.Avatar;
+import models.enums.Constants;
 import models.pagination.Pagination;
 import ninja.utils.NinjaProperties;
 
@@ -55,6 +56,11 @@ public class CommonService extends ViewService {
     @Inject
     private NinjaProperties ninjaProperties;
 
+    @Inject
+    private LeaseService leaseService;
+
+    private final Configuration configuration = createConfiguration();
+
     /**
      * Checks if all games in given list have ended
      *
@@ -120,12 +126,18 @@ public class CommonService extends ViewService {
         return map;
     }
 
+    /**
+     * Renders a mail template from /views/mails/. The templates are parsed once and
+     * cached by the shared FreeMarker configuration.
+     *
+     * @param name The name of the template
+     * @param content The data model
+     * @return The rendered template or the part rendered before an error occured
+     */
     public String getProcessedTemplate(String name, Map<String, Object> content) {
         Writer writer = new StringWriter();
-        Configuration configuration = new Configuration();
-        configuration.setClassForTemplateLoading(this.getClass(), "/views/mails/");
         try {
-            Template template = configuration.getTemplate(name);
+            Template template = this.configuration.getTemplate(name);
             template.process(content, writer);
         } catch (Exception e) {
             LOG.error("Failed to create template for: " + name, e);
@@ -424,13 +436,38 @@ public class CommonService extends ViewService {
         return avatar;
     }
 
+    /**
+     * Checks if this node runs the jobs, either because rudeltippen.jobinstance is true
+     * or, if it is set to lease or not set at all, because this node currently holds the
+     * job lease
+     *
+     * @return true if this node runs the jobs, false otherwise
+     */
     public boolean isJobInstance() {
         boolean isInstance = false;
-        final String jobInstance = ninjaProperties.get("rudeltippen.jobinstance");
+        final String jobInstance = getJobInstance();
         if (("true").equalsIgnoreCase(jobInstance)) {
             isInstance = true;
+        } else if (("lease").equalsIgnoreCase(jobInstance)) {
+            isInstance = leaseService.isLeader();
         }
 
         return isInstance;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return The value of rudeltippen.jobinstance, lease if not set
+     */
+    public String getJobInstance() {
+        return ninjaProperties.getWithDefault("rudeltippen.jobinstance", "lease");
+    }
+
+    private static Configuration createConfiguration() {
+        final Configuration configuration = new Configuration();
+        configuration.setClassForTemplateLoading(CommonService.class, "/views/mails/");
+        configuration.setDefaultEncoding(Constants.ENCODING.asString());
+        configuration.setTemplateUpdateDelay(Integer.MAX_VALUE);
+
+        return configuration;
+    }
+}
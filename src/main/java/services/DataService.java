@@ -1,11 +1,19 @@
 package services;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
 import models.Bracket;
@@ -14,33 +22,53 @@ import models.Extra;
 import models.ExtraTip;
 import models.Game;
 import models.GameTip;
+import models.JobRun;
+import models.OutboxMail;
 import models.Playday;
 import models.Settings;
 import models.Team;
 import models.User;
 import models.enums.ConfirmationType;
 import models.enums.Constants;
+import models.enums.OutboxStatus;
+import models.ranking.PlaceChange;
 import models.statistic.GameStatistic;
 import models.statistic.GameTipStatistic;
 import models.statistic.PlaydayStatistic;
 import models.statistic.ResultStatistic;
 import models.statistic.UserStatistic;
 import mongodb.MongoDB;
+import morphia.MorphiaModel;
+import ninja.utils.NinjaProperties;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.LineIterator;
+import org.bson.types.ObjectId;
 import org.joda.time.DateTime;
 import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Key;
+import org.mongodb.morphia.mapping.Mapper;
+import org.mongodb.morphia.mapping.cache.EntityCache;
 import org.mongodb.morphia.query.Query;
+import org.mongodb.morphia.query.UpdateOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import services.events.GameEnded;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.mongodb.AggregationOutput;
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
+import com.mongodb.DBRef;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+import com.mongodb.util.JSON;
 
 /**
  * 
@@ -54,12 +82,14 @@ public class DataService {
     private static final String ID = "_id";
     private static final String TOTAL = "total";
     private static final String POINTS = "points";
+    private static final String OUTCOME = "outcome";
     private static final String GAME_RESULT = "gameResult";
     private static final String KICKOFF = "kickoff";
     private static final String ENDED = "ended";
     private static final String CURRENT = "current";
     private static final String GAME = "game";
     private static final String REMINDER = "reminder";
+    private static final String INFORMED = "informed";
     private static final String PLAYOFF = "playoff";
     private static final String USERNAME = "username";
     private static final String PLACE = "place";
@@ -69,6 +99,23 @@ public class DataService {
     private static final String USER = "user";
     private static final String PLAYDAY = "playday";
     private static final String ACTIVE = "active";
+    private static final String EXTRA = "extra";
+    private static final String IN = "$in";
+    private static final String STATUS = "status";
+    private static final String NEXT_ATTEMPT = "nextAttempt";
+    private static final String CLAIMED = "claimed";
+    private static final String USERPASS = "userpass";
+    private static final String LEASES = "leases";
+    private static final String OWNER = "owner";
+    private static final String EXPIRES = "expires";
+    private static final String VERSIONS = "versions";
+    private static final String VERSION = "version";
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int BULK_BATCH_SIZE = 1000;
+    private final AtomicReference<SettingsSnapshot> settings = new AtomicReference<SettingsSnapshot>();
+    private final AtomicLong settingsVersion = new AtomicLong();
+    private final AtomicReference<Playday> currentPlayday = new AtomicReference<Playday>();
+    private final AtomicBoolean initialized = new AtomicBoolean();
     private Datastore datastore;
     private MongoDB mongoDB;
 
@@ -76,7 +123,7 @@ public class DataService {
     private ResultService resultService;
 
     @Inject
-    private NotificationService notificationService;
+    private EventBus eventBus;
 
     @Inject
     private ValidationService validationService;
@@ -84,6 +131,21 @@ public class DataService {
     @Inject
     private CommonService commonService;
 
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    @Inject
+    private TournamentService tournamentService;
+
+    @Inject
+    private PrincipalService principalService;
+
+    @Inject
+    private PageCacheService pageCacheService;
+
+    @Inject
+    private VersionService versionService;
+
     @Inject
     private DataService(MongoDB mongoDB) {
         this.mongoDB = mongoDB;
@@ -93,6 +155,9 @@ public class DataService {
     public void setMongoClient(MongoClient mongoClient) {
         this.mongoDB.setMongoClient(mongoClient);
         this.datastore = this.mongoDB.getDatastore();
+        invalidateSettings();
+        this.versionService.refresh();
+        this.tournamentService.invalidate();
     }
 
     public List<User> findAllNotifiableUsers() {
@@ -155,7 +220,7 @@ public class DataService {
     }
 
     public ExtraTip findExtraTipByExtraAndUser(Extra extra, User user) {
-        return this.datastore.find(ExtraTip.class).field("extra").equal(extra).field(USER).equal(user).get();
+        return this.datastore.find(ExtraTip.class).field(EXTRA).equal(extra).field(USER).equal(user).get();
     }
 
     public List<User> findAllAdmins() {
@@ -226,10 +291,75 @@ public class DataService {
         return this.datastore.find(Confirmation.class).asList();
     }
 
+    /**
+     * Returns the in-memory settings snapshot, which is shared between all callers and
+     * read-only. The snapshot is reloaded from the database whenever the shared settings
+     * version has been advanced, on this or any other node. To change the settings use
+     * loadSettings() or copy(), and saveSettings() to write them back.
+     *
+     * @return The current settings or null if the application is not initialized
+     */
     public Settings findSettings() {
+        final SettingsSnapshot snapshot = getSettingsSnapshot();
+        return (snapshot == null) ? null : snapshot.settings;
+    }
+
+    private SettingsSnapshot getSettingsSnapshot() {
+        final String version = versionService.get(VersionService.SETTINGS);
+        final SettingsSnapshot snapshot = this.settings.get();
+        if (snapshot != null && snapshot.version.equals(version)) {
+            return snapshot;
+        }
+
+        final Settings loaded = loadSettings();
+        if (loaded == null) {
+            this.settings.set(null);
+            return null;
+        }
+
+        final SettingsSnapshot created = new SettingsSnapshot(loaded.freeze(), version, this.settingsVersion.incrementAndGet());
+        this.settings.set(created);
+
+        return created;
+    }
+
+    /**
+     * Loads a fresh, modifiable settings instance from the database, bypassing the snapshot
+     *
+     * @return The settings or null if the application is not initialized
+     */
+    public Settings loadSettings() {
         return this.datastore.find(Settings.class).field("appName").equal(Constants.APPNAME.asString()).get();
     }
 
+    /**
+     * Persists the given settings, swaps a copy of them in as the new snapshot and
+     * advances the shared settings version, so the other nodes reload their snapshot
+     *
+     * @param settings The settings to save
+     */
+    public void saveSettings(final Settings settings) {
+        this.datastore.save(settings);
+        final String version = versionService.advance(VersionService.SETTINGS);
+        this.settings.set(new SettingsSnapshot(settings.copy().freeze(), version, this.settingsVersion.incrementAndGet()));
+    }
+
+    /**
+     * Drops the settings snapshot, forcing the next call to findSettings() to reload it
+     */
+    public void invalidateSettings() {
+        this.settings.set(null);
+        this.settingsVersion.incrementAndGet();
+    }
+
+    /**
+     * @return The local version of the settings snapshot, which changes whenever the snapshot is replaced
+     */
+    public long getSettingsVersion() {
+        final SettingsSnapshot snapshot = getSettingsSnapshot();
+        return (snapshot == null) ? this.settingsVersion.get() : snapshot.number;
+    }
+
     public User findUserByPlace(int place) {
         return this.datastore.find(User.class).field(PLACE).equal(place).get();
     }
@@ -257,20 +387,45 @@ public class DataService {
             game.setOvertime(false);
         }
 
-        if (!game.isEnded()) {
-            notificationService.sendNotfications(game);
-            game.setEnded(true);
+        final boolean ended = game.isEnded();
+        game.setEnded(true);
+        this.datastore.save(game);
+
+        if (!ended) {
+            eventBus.publish(new GameEnded(game));
         }
-        
+    }
+
+    /**
+     * Removes the result of the given game, so it is treated as not played by the next
+     * calculation
+     *
+     * @param game The game to reset
+     */
+    public void clearScore(final Game game) {
+        game.setHomeScore(null);
+        game.setAwayScore(null);
+        game.setHomePoints(0);
+        game.setAwayPoints(0);
+        game.setOvertime(false);
+        game.setOvertimeType(null);
+        game.setHomeScoreOT(null);
+        game.setAwayScoreOT(null);
+        game.setEnded(false);
         this.datastore.save(game);
     }
 
+    /**
+     * Saves the tip of the given user. Whether the game can still be tipped is checked
+     * against the stored game, as the given game may come from an outdated snapshot.
+     */
     public void saveGameTip(final Game game, final int homeScore, final int awayScore, User user) {
-        GameTip gameTip = findGameTipByGameAndUser(game, user);
-        if (commonService.gameIsTippable(game) && validationService.isValidScore(String.valueOf(homeScore), String.valueOf(awayScore))) {
+        final Game storedGame = findGameById(game.getId().toString());
+        if (storedGame != null && commonService.gameIsTippable(storedGame) && validationService.isValidScore(String.valueOf(homeScore), String.valueOf(awayScore))) {
+            GameTip gameTip = findGameTipByGameAndUser(storedGame, user);
             if (gameTip == null) {
                 gameTip = new GameTip();
-                gameTip.setGame(game);
+                gameTip.setGame(storedGame);
                 gameTip.setUser(user);
             }
             gameTip.setPlaced(new Date());
@@ -282,45 +437,343 @@ public class DataService {
     }
 
     public List<Map<User, List<GameTip>>> findPlaydayTips(final Playday playday, final List<User> users) {
+        final List<Game> games = playday.getGames();
+        final GameTip[][] matrix = findGameTipMatrix(games, users);
         final List<Map<User, List<GameTip>>> tips = new ArrayList<Map<User, List<GameTip>>>();
 
-        for (final User user : users) {
+        for (int i = 0; i < users.size(); i++) {
             final Map<User, List<GameTip>> userTips = new HashMap<User, List<GameTip>>();
-            final List<GameTip> gameTips = new ArrayList<GameTip>();
-            for (final Game game : playday.getGames()) {
-                GameTip gameTip = findGameTipByGameAndUser(game, user);
+            final List<GameTip> gameTips = new ArrayList<GameTip>(games.size());
+            for (int j = 0; j < games.size(); j++) {
+                GameTip gameTip = matrix[i][j];
                 if (gameTip == null) {
                     gameTip = new GameTip();
                 }
                 gameTips.add(gameTip);
             }
-            userTips.put(user, gameTips);
+            userTips.put(users.get(i), gameTips);
             tips.add(userTips);
         }
 
         return tips;
     }
+
     public List<Map<User, List<ExtraTip>>> findExtraTips(final List<User> users, final List<Extra> extras) {
+        final ExtraTip[][] matrix = findExtraTipMatrix(extras, users);
         final List<Map<User, List<ExtraTip>>> tips = new ArrayList<Map<User, List<ExtraTip>>>();
 
-        for (final User user : users) {
+        for (int i = 0; i < users.size(); i++) {
             final Map<User, List<ExtraTip>> userTips = new HashMap<User, List<ExtraTip>>();
-            final List<ExtraTip> extraTips = new ArrayList<ExtraTip>();
-            for (final Extra extra : extras) {
-                ExtraTip extraTip = findExtraTipByExtraAndUser(extra, user);
+            final List<ExtraTip> extraTips = new ArrayList<ExtraTip>(extras.size());
+            for (int j = 0; j < extras.size(); j++) {
+                ExtraTip extraTip = matrix[i][j];
                 if (extraTip == null) {
                     extraTip = new ExtraTip();
                 }
                 extraTips.add(extraTip);
             }
-            userTips.put(user, extraTips);
+            userTips.put(users.get(i), extraTips);
             tips.add(userTips);
         }
 
         return tips;
     }
 
-    public Playday findCurrentPlayday () {
+    /**
+     * Loads all tips for the given games and users with a single $in query and
+     * arranges them in a user x game matrix. The tips are mapped by Morphia, with the
+     * given game and user instances in the entity cache, so their references resolve
+     * to these instances without further queries and the tips can be saved as usual.
+     *
+     * @param games The games (columns)
+     * @param users The users (rows)
+     * @return Matrix of tips indexed by [user][game], null where no tip was placed
+     */
+    public GameTip[][] findGameTipMatrix(final List<Game> games, final List<User> users) {
+        final GameTip[][] matrix = new GameTip[users.size()][games.size()];
+        if (games.isEmpty() || users.isEmpty()) {
+            return matrix;
+        }
+
+        final Map<Object, Integer> gameIndex = indexById(games);
+        final Map<Object, Integer> userIndex = indexById(users);
+        final DBObject query = getTipsQuery(GAME, toReferences(Game.class, games), toReferences(User.class, users));
+
+        final Mapper mapper = this.mongoDB.getMorphia().getMapper();
+        final EntityCache cache = mapper.createEntityCache();
+        putEntities(cache, Game.class, games);
+        putEntities(cache, User.class, users);
+
+        final DBCursor cursor = this.datastore.getCollection(GameTip.class).find(query);
+        try {
+            while (cursor.hasNext()) {
+                final DBObject dbObject = cursor.next();
+                final Integer row = userIndex.get(referenceId(dbObject.get(USER)));
+                final Integer column = gameIndex.get(referenceId(dbObject.get(GAME)));
+                if (row != null && column != null) {
+                    matrix[row][column] = mapper.fromDBObject(GameTip.class, dbObject, cache);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Loads all extra tips for the given extras and users with a single $in query and
+     * arranges them in a user x extra matrix, mapped like the tips of findGameTipMatrix.
+     * The answers are resolved from all teams, loaded once if any tip has an answer.
+     *
+     * @param extras The extras (columns)
+     * @param users The users (rows)
+     * @return Matrix of extra tips indexed by [user][extra], null where no tip was placed
+     */
+    public ExtraTip[][] findExtraTipMatrix(final List<Extra> extras, final List<User> users) {
+        final ExtraTip[][] matrix = new ExtraTip[users.size()][extras.size()];
+        if (extras.isEmpty() || users.isEmpty()) {
+            return matrix;
+        }
+
+        final Map<Object, Integer> extraIndex = indexById(extras);
+        final Map<Object, Integer> userIndex = indexById(users);
+        final DBObject query = getTipsQuery(EXTRA, toReferences(Extra.class, extras), toReferences(User.class, users));
+
+        final Mapper mapper = this.mongoDB.getMorphia().getMapper();
+        final EntityCache cache = mapper.createEntityCache();
+        putEntities(cache, Extra.class, extras);
+        putEntities(cache, User.class, users);
+
+        boolean teams = false;
+        final DBCursor cursor = this.datastore.getCollection(ExtraTip.class).find(query);
+        try {
+            while (cursor.hasNext()) {
+                final DBObject dbObject = cursor.next();
+                final Integer row = userIndex.get(referenceId(dbObject.get(USER)));
+                final Integer column = extraIndex.get(referenceId(dbObject.get(EXTRA)));
+                if (row != null && column != null) {
+                    if (!teams && dbObject.get("answer") != null) {
+                        putEntities(cache, Team.class, findAllTeams());
+                        teams = true;
+                    }
+                    matrix[row][column] = mapper.fromDBObject(ExtraTip.class, dbObject, cache);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Determines which of the given users have placed a tip for which of the given games.
+     * The tips are selected by game only and projected to their references, so the
+     * query is answered from the game/user index regardless of the number of users.
+     *
+     * @param games The games
+     * @param users The users
+     * @return Bit (user index * games.size() + game index) is set if the tip has been placed
+     */
+    public BitSet findPlacedGameTips(final List<Game> games, final List<User> users) {
+        return findPlacedTips(GameTip.class, GAME, Game.class, games, users);
+    }
+
+    /**
+     * Determines which of the given users have placed a tip for which of the given extras,
+     * see findPlacedGameTips
+     *
+     * @param extras The extras
+     * @param users The users
+     * @return Bit (user index * extras.size() + extra index) is set if the tip has been placed
+     */
+    public BitSet findPlacedExtraTips(final List<Extra> extras, final List<User> users) {
+        return findPlacedTips(ExtraTip.class, EXTRA, Extra.class, extras, users);
+    }
+
+    private BitSet findPlacedTips(final Class tipClass, final String field, final Class clazz, final List<? extends MorphiaModel> entities, final List<User> users) {
+        final BitSet placed = new BitSet(entities.size() * users.size());
+        if (entities.isEmpty() || users.isEmpty()) {
+            return placed;
+        }
+
+        final Map<Object, Integer> entityIndex = indexById(entities);
+        final Map<Object, Integer> userIndex = indexById(users);
+        final DBObject query = getTipsQuery(field, toReferences(clazz, entities), null);
+        final DBObject fields = new BasicDBObject(field, 1).append(USER, 1).append(ID, 0);
+
+        final DBCursor cursor = this.datastore.getCollection(tipClass).find(query, fields);
+        try {
+            while (cursor.hasNext()) {
+                final DBObject dbObject = cursor.next();
+                final Integer row = userIndex.get(referenceId(dbObject.get(USER)));
+                final Integer column = entityIndex.get(referenceId(dbObject.get(field)));
+                if (row != null && column != null) {
+                    placed.set(row * entities.size() + column);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return placed;
+    }
+
+    /**
+     * Builds the query of the tip matrix and placed tips lookups, also used by IndexService
+     * to explain them
+     *
+     * @param field The referenced field of the tip, game or extra
+     * @param references The references to the games or extras
+     * @param users The references to the users or null to select the tips of all users
+     * @return The query
+     */
+    DBObject getTipsQuery(final String field, final List<DBRef> references, final List<DBRef> users) {
+        final BasicDBObject query = new BasicDBObject(field, new BasicDBObject(IN, references));
+        if (users != null) {
+            query.append(USER, new BasicDBObject(IN, users));
+        }
+
+        return query;
+    }
+
+    /**
+     * Builds the query of resetGameTips, also used by IndexService to explain it
+     *
+     * @param games The references to the games
+     * @return The query selecting all scored tips of the given games
+     */
+    DBObject getResetGameTipsQuery(final List<DBRef> games) {
+        final List<DBObject> scored = new ArrayList<DBObject>();
+        scored.add(new BasicDBObject(POINTS, new BasicDBObject("$ne", 0)));
+        scored.add(new BasicDBObject(OUTCOME, new BasicDBObject("$exists", true)));
+
+        return new BasicDBObject(GAME, new BasicDBObject(IN, games)).append("$or", scored);
+    }
+
+    private static <T extends MorphiaModel> void putEntities(final EntityCache cache, final Class<T> clazz, final List<? extends T> entities) {
+        for (final T entity : entities) {
+            cache.putEntity(new Key<T>(clazz, entity.getId()), entity);
+        }
+    }
+
+    private Map<Object, Integer> indexById(final List<? extends MorphiaModel> entities) {
+        final Map<Object, Integer> index = new HashMap<Object, Integer>(entities.size() * 2);
+        for (int i = 0; i < entities.size(); i++) {
+            index.put(entities.get(i).getId(), i);
+        }
+
+        return index;
+    }
+
+    private List<DBRef> toReferences(final Class clazz, final List<? extends MorphiaModel> entities) {
+        final List<DBRef> references = new ArrayList<DBRef>(entities.size());
+        for (final MorphiaModel entity : entities) {
+            references.add(getReference(clazz, entity.getId()));
+        }
+
+        return references;
+    }
+
+    /**
+     * @return A query selecting the tip of the given user for the given game
+     */
+    public DBObject getGameTipQuery(final Game game, final User user) {
+        return new BasicDBObject(GAME, getReference(Game.class, game.getId())).append(USER, getReference(User.class, user.getId()));
+    }
+
+    public DBObject getExtraTipQuery(final Extra extra, final User user) {
+        return new BasicDBObject(EXTRA, getReference(Extra.class, extra.getId())).append(USER, getReference(User.class, user.getId()));
+    }
+
+    /**
+     * Takes back the points and outcomes of all tips of the given games, e.g. after their
+     * results have been cleared, with a single update
+     *
+     * @param games The games which are not ended
+     */
+    public void resetGameTips(final List<Game> games) {
+        if (games.isEmpty()) {
+            return;
+        }
+
+        final DBObject query = getResetGameTipsQuery(toReferences(Game.class, games));
+        final DBObject update = new BasicDBObject("$set", new BasicDBObject(POINTS, 0)).append("$unset", new BasicDBObject(OUTCOME, ""));
+        this.datastore.getCollection(GameTip.class).update(query, update, false, true);
+    }
+
+    /**
+     * Sets a flag on the given entities by id with a single update, so callers holding
+     * entities of the TournamentSnapshot never have to modify them
+     *
+     * @param clazz The entity class
+     * @param entities The entities to update
+     * @param field The boolean field to set
+     */
+    private void setFlag(final Class clazz, final List<? extends MorphiaModel> entities, final String field) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        final List<Object> ids = new ArrayList<Object>(entities.size());
+        for (final MorphiaModel entity : entities) {
+            ids.add(entity.getId());
+        }
+        final DBObject query = new BasicDBObject(ID, new BasicDBObject(IN, ids));
+        this.datastore.getCollection(clazz).update(query, new BasicDBObject("$set", new BasicDBObject(field, true)), false, true);
+    }
+
+    public void setGamesInformed(final List<Game> games) {
+        setFlag(Game.class, games, INFORMED);
+    }
+
+    public void setGamesReminder(final List<Game> games) {
+        setFlag(Game.class, games, REMINDER);
+    }
+
+    public void setExtrasReminder(final List<Extra> extras) {
+        setFlag(Extra.class, extras, REMINDER);
+    }
+
+    public DBRef getReference(final Class clazz, final Object id) {
+        return new DBRef(this.datastore.getDB(), this.datastore.getCollection(clazz).getName(), id);
+    }
+
+    private static Object referenceId(final Object reference) {
+        if (reference instanceof DBRef) {
+            return ((DBRef) reference).getId();
+        }
+
+        return reference;
+    }
+
+    /**
+     * Returns the shared current playday, loading it from the database on first access.
+     * The returned instance must be treated as read-only; it is only replaced when
+     * refreshCurrentPlayday() is called after the current playday has changed.
+     *
+     * @return The current playday or null if the application is not initialized
+     */
+    public Playday findCurrentPlayday() {
+        Playday playday = this.currentPlayday.get();
+        if (playday == null) {
+            playday = loadCurrentPlayday();
+            if (playday != null && !this.currentPlayday.compareAndSet(null, playday)) {
+                playday = this.currentPlayday.get();
+            }
+        }
+
+        return playday;
+    }
+
+    /**
+     * Loads the playday marked as current, or the first playday if none is marked,
+     * from the database, bypassing the shared current playday
+     *
+     * @return The current playday or null if the application is not initialized
+     */
+    public Playday loadCurrentPlayday() {
         Playday playday = this.datastore.find(Playday.class).field(CURRENT).equal(true).get();
         if (playday == null) {
             playday = this.datastore.find(Playday.class).field(NUMBER).equal(1).get();
@@ -329,6 +782,18 @@ public class DataService {
         return playday;
     }
 
+    /**
+     * Reloads the shared current playday from the database
+     *
+     * @return The new current playday
+     */
+    public Playday refreshCurrentPlayday() {
+        final Playday playday = loadCurrentPlayday();
+        this.currentPlayday.set(playday);
+
+        return playday;
+    }
+
     public void saveExtraTip(final Extra extra, final Team team, User user) {
         if (team != null) {
             ExtraTip extraTip = findExtraTipByExtraAndUser(extra, user);
@@ -344,14 +809,228 @@ public class DataService {
         }
     }
 
+    /**
+     * Checks if the initial data has been loaded. Once the application is initialized the
+     * result is kept in memory, but re-checked against the settings snapshot, which follows
+     * the shared settings version. If the settings are gone, e.g. because the database has
+     * been dropped on another node, the application is uninitialized again.
+     *
+     * @return true if the application is initialized, false otherwise
+     */
     public boolean appIsInizialized() {
-        return findSettings() != null ? true : false;
+        if (this.initialized.get()) {
+            if (getSettingsSnapshot() != null) {
+                return true;
+            }
+
+            this.initialized.set(false);
+            return false;
+        }
+
+        if (findSettings() != null) {
+            this.initialized.set(true);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Marks the application as initialized after the initial data has been loaded
+     */
+    public void markInitialized() {
+        this.initialized.set(true);
     }
 
     public List<User> findAllActiveUsers() {
         return this.datastore.find(User.class).field(ACTIVE).equal(true).asList();
     }
 
+    /**
+     * Sets place and previous place of the given users with one unordered bulk update
+     *
+     * @param changes The new and previous places of all ranked users
+     */
+    public void updatePlaces(final List<PlaceChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        final BulkWriteOperation operation = this.datastore.getCollection(User.class).initializeUnorderedBulkOperation();
+        for (final PlaceChange change : changes) {
+            operation.find(new BasicDBObject(ID, new ObjectId(change.getUserId())))
+                .updateOne(new BasicDBObject("$set", new BasicDBObject(PLACE, change.getPlace()).append("previousPlace", change.getPreviousPlace())));
+        }
+        operation.execute();
+    }
+
+    /**
+     * Sets the kickoff of the given games with one unordered bulk update
+     *
+     * @param kickoffs The new kickoff of each game
+     */
+    public void updateKickoffs(final Map<Game, Date> kickoffs) {
+        if (kickoffs.isEmpty()) {
+            return;
+        }
+
+        final BulkWriteOperation operation = this.datastore.getCollection(Game.class).initializeUnorderedBulkOperation();
+        for (final Map.Entry<Game, Date> entry : kickoffs.entrySet()) {
+            operation.find(new BasicDBObject(ID, entry.getKey().getId()))
+                .updateOne(new BasicDBObject("$set", new BasicDBObject(KICKOFF, entry.getValue())));
+        }
+        operation.execute();
+    }
+
+    /**
+     * Atomically claims pending mails of the outbox whose next attempt is due, so
+     * concurrent workers never send the same mail twice
+     *
+     * @param limit The maximum number of mails to claim
+     * @return The claimed mails, marked as SENDING
+     */
+    public List<OutboxMail> claimOutboxMails(final int limit) {
+        final List<OutboxMail> mails = new ArrayList<OutboxMail>();
+        final Date now = new Date();
+        final Query<OutboxMail> query = this.datastore.createQuery(OutboxMail.class)
+                .field(STATUS).equal(OutboxStatus.PENDING)
+                .field(NEXT_ATTEMPT).lessThanOrEq(now)
+                .order(NEXT_ATTEMPT);
+        final UpdateOperations<OutboxMail> operations = this.datastore.createUpdateOperations(OutboxMail.class)
+                .set(STATUS, OutboxStatus.SENDING)
+                .set(CLAIMED, now);
+
+        while (mails.size() < limit) {
+            final OutboxMail mail = this.datastore.findAndModify(query, operations);
+            if (mail == null) {
+                break;
+            }
+            mails.add(mail);
+        }
+
+        return mails;
+    }
+
+    /**
+     * Returns mails which have been claimed before the given date but were never marked as
+     * sent or failed, e.g. because the instance sending them was stopped, to the outbox
+     *
+     * @param claimedBefore The date before which the mails have been claimed
+     */
+    public void releaseOutboxMails(final Date claimedBefore) {
+        final Query<OutboxMail> query = this.datastore.createQuery(OutboxMail.class)
+                .field(STATUS).equal(OutboxStatus.SENDING)
+                .field(CLAIMED).lessThan(claimedBefore);
+        this.datastore.update(query, this.datastore.createUpdateOperations(OutboxMail.class).set(STATUS, OutboxStatus.PENDING));
+    }
+
+    /**
+     * Sets the given fields of a single outbox mail
+     *
+     * @param mail The mail to update
+     * @param fields The fields to set, e.g. the status after an attempt to send the mail
+     */
+    public void updateOutboxMail(final OutboxMail mail, final DBObject fields) {
+        this.datastore.getCollection(OutboxMail.class).update(new BasicDBObject(ID, mail.getId()), new BasicDBObject("$set", fields));
+    }
+
+    public OutboxMail findOutboxMailById(String id) {
+        return this.mongoDB.findById(id, OutboxMail.class);
+    }
+
+    public long countOutboxMails(final OutboxStatus status) {
+        return this.datastore.find(OutboxMail.class).field(STATUS).equal(status).countAll();
+    }
+
+    /**
+     * Acquires or renews the lease with the given name. The lease document is only
+     * modified if the lease is held by the given owner or has expired; if another owner
+     * holds a valid lease the upsert fails on the unique _id and false is returned.
+     *
+     * @param name The name of the lease
+     * @param owner The node requesting the lease
+     * @param time The current time of the requesting node in milliseconds
+     * @param duration The duration of the lease in milliseconds
+     * @return True if the given owner holds the lease
+     */
+    public boolean acquireLease(final String name, final String owner, final long time, final long duration) {
+        final Date now = new Date(time);
+        final List<DBObject> or = new ArrayList<DBObject>();
+        or.add(new BasicDBObject(OWNER, owner));
+        or.add(new BasicDBObject(EXPIRES, new BasicDBObject("$lt", now)));
+
+        final DBObject query = new BasicDBObject(ID, name).append("$or", or);
+        final DBObject update = new BasicDBObject("$set", new BasicDBObject(OWNER, owner)
+                .append(EXPIRES, new Date(now.getTime() + duration))
+                .append("renewed", now));
+        try {
+            final DBObject lease = this.datastore.getDB().getCollection(LEASES).findAndModify(query, null, null, false, update, true, true);
+            return lease != null && owner.equals(lease.get(OWNER));
+        } catch (final MongoException e) {
+            if (e.getCode() != DUPLICATE_KEY && !String.valueOf(e.getMessage()).contains("E11000")) {
+                LOG.warn("Failed to acquire lease " + name, e);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Releases the lease with the given name if it is held by the given owner
+     */
+    public void releaseLease(final String name, final String owner) {
+        this.datastore.getDB().getCollection(LEASES).remove(new BasicDBObject(ID, name).append(OWNER, owner));
+    }
+
+    /**
+     * @return The owner of the lease with the given name or null if it is not held or has expired
+     */
+    public String findLeaseOwner(final String name) {
+        final DBObject lease = this.datastore.getDB().getCollection(LEASES).findOne(new BasicDBObject(ID, name).append(EXPIRES, new BasicDBObject("$gte", new Date())));
+        return (lease == null) ? null : (String) lease.get(OWNER);
+    }
+
+    /**
+     * Advances the shared version with the given name to a new, unique value. The values
+     * are compared for equality only, so they stay unique even after the database has
+     * been dropped and the versions start over.
+     *
+     * @param name The name of the version
+     * @return The new version
+     */
+    public String advanceVersion(final String name) {
+        final String version = new ObjectId().toString();
+        this.datastore.getDB().getCollection(VERSIONS).update(new BasicDBObject(ID, name),
+                new BasicDBObject("$set", new BasicDBObject(VERSION, version).append("advanced", new Date())), true, false);
+
+        return version;
+    }
+
+    /**
+     * @return All shared versions, keyed by name
+     */
+    public Map<String, String> findVersions() {
+        final Map<String, String> versions = new HashMap<String, String>();
+        final DBCursor cursor = this.datastore.getDB().getCollection(VERSIONS).find();
+        try {
+            while (cursor.hasNext()) {
+                final DBObject dbObject = cursor.next();
+                versions.put(String.valueOf(dbObject.get(ID)), String.valueOf(dbObject.get(VERSION)));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return versions;
+    }
+
+    /**
+     * @return The latest job runs, most recent first
+     */
+    public List<JobRun> findRecentJobRuns(final int limit) {
+        return this.datastore.find(JobRun.class).order("-started").limit(limit).asList();
+    }
+
     public List<Playday> findAllPlaydaysOrderByNumber() {
         return this.datastore.find(Playday.class).order(NUMBER).asList();
     }
@@ -367,7 +1046,7 @@ public class DataService {
     public List<User> findAllActiveUsersOrdered() {
         return this.datastore.find(User.class)
                 .field(ACTIVE).equal(true)
-                .order("points, correctResults, correctDifferences, correctTrends, correctExtraTips")
+                .order("-points, -correctResults, -correctDifferences, -correctTrends, -correctExtraTips")
                 .asList();
     }
 
@@ -423,6 +1102,20 @@ public class DataService {
         return this.datastore.find(Confirmation.class).field("token").equal(token).get();
     }
 
+    /**
+     * Replaces the password hash of the user, unless it has been changed since it was read
+     *
+     * @param user The user
+     * @param expected The hash the user was authenticated with
+     * @param userpass The new hash
+     */
+    public void updateUserpass(final User user, final String expected, final String userpass) {
+        final Query<User> query = this.datastore.createQuery(User.class)
+                .field(ID).equal(user.getId())
+                .field(USERPASS).equal(expected);
+        this.datastore.update(query, this.datastore.createUpdateOperations(User.class).set(USERPASS, userpass));
+    }
+
     public User findUserByEmailAndActive(String email) {
         return this.datastore.find(User.class).field(ACTIVE).equal(true).field(EMAIL).equal(email).get();
     }
@@ -552,14 +1245,136 @@ public class DataService {
         return brackets;
     }
     
+    /**
+     * Creates the indexes declared on the mapped entities, if not already present
+     */
+    public void ensureIndexes() {
+        this.datastore.ensureCaps();
+        this.datastore.ensureIndexes();
+    }
+
+    /**
+     * Returns the query plan MongoDB chooses for the given query shape
+     *
+     * @param clazz The entity class to query
+     * @param query The query
+     * @param sort The sort order, may be null
+     * @return The explain output
+     */
+    public DBObject explain(final Class clazz, final DBObject query, final DBObject sort) {
+        final DBCursor cursor = this.datastore.getCollection(clazz).find(query);
+        if (sort != null) {
+            cursor.sort(sort);
+        }
+
+        return cursor.explain();
+    }
+
     public void dropDatabase() {
+        this.initialized.set(false);
         this.datastore.getDB().dropDatabase();
+        invalidateSettings();
+        this.versionService.refresh();
+        this.versionService.advance(VersionService.SETTINGS);
+        this.versionService.advance(VersionService.TOURNAMENT);
+        this.currentPlayday.set(null);
+        this.tournamentService.invalidate();
+        this.principalService.invalidateAll();
+        this.pageCacheService.invalidate();
     }
 
     public void save(final Object object) {
         this.mongoDB.getDatastore().save(object);
     }
 
+    /**
+     * Creates a writer which saves entities with unordered bulk operations, using the
+     * batch size configured in rudeltippen.bulk.batchsize
+     *
+     * @param name The name of the run, used when logging the counters
+     * @return A new BulkWriter
+     */
+    public BulkWriter getBulkWriter(final String name) {
+        final int batchSize = this.ninjaProperties.getIntegerWithDefault("rudeltippen.bulk.batchsize", BULK_BATCH_SIZE);
+        return new BulkWriter(this.datastore, this.mongoDB.getMorphia().getMapper(), name, batchSize);
+    }
+
+    /**
+     * Creates a writer which appends entities to one NDJSON file per collection in the
+     * given directory instead of saving them
+     *
+     * @param name The name of the run, used when logging the counters
+     * @param directory The existing target directory
+     * @return A new NdjsonWriter
+     */
+    public NdjsonWriter getNdjsonWriter(final String name, final File directory) {
+        final int batchSize = this.ninjaProperties.getIntegerWithDefault("rudeltippen.bulk.batchsize", BULK_BATCH_SIZE);
+        return new NdjsonWriter(this.mongoDB.getMorphia().getMapper(), name, batchSize, directory);
+    }
+
+    /**
+     * Loads the NDJSON files written by an NdjsonWriter into the collections named after
+     * the files. Documents are upserted by id in file order, so loading is idempotent.
+     *
+     * @param directory The directory containing the .json files
+     * @return The number of loaded documents
+     */
+    public int importDocuments(final File directory) {
+        final int batchSize = this.ninjaProperties.getIntegerWithDefault("rudeltippen.bulk.batchsize", BULK_BATCH_SIZE);
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            LOG.warn("Can not read documents from " + directory);
+            return 0;
+        }
+        Arrays.sort(files);
+
+        int documents = 0;
+        for (final File file : files) {
+            final String fileName = file.getName();
+            if (!file.isFile() || !fileName.endsWith(".json")) {
+                continue;
+            }
+
+            final DBCollection collection = this.datastore.getDB().getCollection(fileName.substring(0, fileName.length() - ".json".length()));
+            InputStream inputStream = null;
+            try {
+                inputStream = new FileInputStream(file);
+                final LineIterator lineIterator = IOUtils.lineIterator(inputStream, Constants.ENCODING.asString());
+                BulkWriteOperation bulkWriteOperation = collection.initializeOrderedBulkOperation();
+                int size = 0;
+                while (lineIterator.hasNext()) {
+                    final String line = lineIterator.nextLine();
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+
+                    final DBObject document = (DBObject) JSON.parse(line);
+                    bulkWriteOperation.find(new BasicDBObject(ID, document.get(ID))).upsert().replaceOne(document);
+                    size++;
+                    if (size == batchSize) {
+                        bulkWriteOperation.execute();
+                        bulkWriteOperation = collection.initializeOrderedBulkOperation();
+                        documents = documents + size;
+                        size = 0;
+                    }
+                }
+                if (size > 0) {
+                    bulkWriteOperation.execute();
+                    documents = documents + size;
+                }
+            } catch (IOException e) {
+                LOG.error("Failed to import documents from " + file, e);
+            } finally {
+                IOUtils.closeQuietly(inputStream);
+            }
+        }
+        invalidateSettings();
+        this.versionService.advance(VersionService.SETTINGS);
+        this.tournamentService.invalidate();
+
+        return documents;
+    }
+
     public void deleteUser(User user) {
         this.datastore.delete(this.datastore.find(GameTip.class).field("user").equal(user));
         this.datastore.delete(this.datastore.find(ExtraTip.class).field("user").equal(user));
@@ -631,4 +1446,16 @@ public class DataService {
     public List<Game> findAllGamesOrderByNumber() {
         return this.datastore.find(Game.class).order("number").asList();
     }
-}
\ No newline at end of file
+
+    private static final class SettingsSnapshot {
+        private final Settings settings;
+        private final String version;
+        private final long number;
+
+        SettingsSnapshot(final Settings settings, final String version, final long number) {
+            this.settings = settings;
+            this.version = version;
+            this.number = number;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package services;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.bson.types.ObjectId;
+import org.mongodb.morphia.mapping.MappedClass;
+import org.mongodb.morphia.mapping.Mapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Collects entity writes in batches and hands them to the concrete writer once a batch
+ * is full or flush() is called. Entities without an id get one assigned when they are
+ * added, so they can be referenced before the batch is written.
+ *
+ * Instances are not thread-safe.
+ *
+ * @author svenkubiak
+ *
+ */
+public abstract class DocumentWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(DocumentWriter.class);
+    private static final String ID = "_id";
+    private final Map<String, List<Operation>> pending = new LinkedHashMap<String, List<Operation>>();
+    private final Mapper mapper;
+    private final String name;
+    private final int batchSize;
+    private int size;
+    private int documents;
+
+    DocumentWriter(final Mapper mapper, final String name, final int batchSize) {
+        this.mapper = mapper;
+        this.name = name;
+        this.batchSize = (batchSize > 0) ? batchSize : 1;
+    }
+
+    /**
+     * Adds an entity to the current batch, writing the batch if it is full
+     *
+     * @param entity The entity to save
+     */
+    public void save(final Object entity) {
+        if (entity == null) {
+            return;
+        }
+
+        if (this.mapper.getId(entity) == null) {
+            setId(entity);
+        }
+
+        final DBObject object = this.mapper.toDBObject(entity);
+        add(this.mapper.getCollectionName(entity), new Operation(new BasicDBObject(ID, object.get(ID)), object, true));
+    }
+
+    /**
+     * Writes all pending entities and logs the counters of this writer
+     */
+    public void finish() {
+        flush();
+        LOG.info("Bulk write '" + this.name + "' saved " + this.documents + " documents in " + getRoundTrips() + " round-trips");
+    }
+
+    public int getDocuments() {
+        return this.documents;
+    }
+
+    /**
+     * @return The number of round-trips to the database, 0 for writers not writing to it
+     */
+    public int getRoundTrips() {
+        return 0;
+    }
+
+    /**
+     * Writes all pending entities with one write per collection
+     */
+    public void flush() {
+        for (final Entry<String, List<Operation>> entry : this.pending.entrySet()) {
+            final List<Operation> operations = entry.getValue();
+            if (!operations.isEmpty()) {
+                this.documents = this.documents + write(entry.getKey(), operations);
+            }
+        }
+        this.pending.clear();
+        this.size = 0;
+    }
+
+    /**
+     * Writes the operations of one collection
+     *
+     * @param collection The name of the collection
+     * @param operations The pending operations
+     * @return The number of written documents
+     */
+    abstract int write(String collection, List<Operation> operations);
+
+    Mapper getMapper() {
+        return this.mapper;
+    }
+
+    void add(final String collection, final Operation operation) {
+        List<Operation> operations = this.pending.get(collection);
+        if (operations == null) {
+            operations = new ArrayList<Operation>();
+            this.pending.put(collection, operations);
+        }
+        operations.add(operation);
+        this.size++;
+
+        if (this.size >= this.batchSize) {
+            flush();
+        }
+    }
+
+    private void setId(final Object entity) {
+        final MappedClass mappedClass = this.mapper.getMappedClass(entity);
+        final Field field = mappedClass.getIdField();
+        try {
+            field.setAccessible(true);
+            field.set(entity, new ObjectId());
+        } catch (IllegalAccessException e) {
+            LOG.error("Failed to set id of " + entity.getClass().getName(), e);
+        }
+    }
+
+    static final class Operation {
+        final DBObject query;
+        final DBObject document;
+        final boolean replace;
+
+        Operation(final DBObject query, final DBObject document, final boolean replace) {
+            this.query = query;
+            this.document = document;
+            this.replace = replace;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package services;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ninja.lifecycle.Dispose;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import services.events.Subscriber;
+
+import com.google.inject.Singleton;
+
+/**
+ * In-process bus for domain events. Every subscription has its own bounded executor, so
+ * a slow subscriber, e.g. one sending mails, neither delays the publisher nor the other
+ * subscribers. If the queue of a subscription is full, the event is handled on the
+ * publishing thread, which slows the publisher down instead of dropping events.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class EventBus {
+    private static final Logger LOG = LoggerFactory.getLogger(EventBus.class);
+    private static final int TIMEOUT = 30;
+    private static final int IDLE_POLL = 10;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+
+    /**
+     * Registers a subscriber for all events of the given type and its subtypes
+     *
+     * @param type The type of event
+     * @param name The name of the subscription, used for its threads and in the log
+     * @param threads The number of threads handling the events
+     * @param capacity The number of events which may be queued before the publisher handles them itself
+     * @param subscriber The subscriber
+     */
+    public <T> void subscribe(final Class<T> type, final String name, final int threads, final int capacity, final Subscriber<? super T> subscriber) {
+        this.subscriptions.add(new Subscription(type, name, threads, capacity, subscriber));
+    }
+
+    /**
+     * Hands the event to the executors of all matching subscriptions and returns immediately
+     *
+     * @param event The event
+     */
+    public void publish(final Object event) {
+        for (final Subscription subscription : this.subscriptions) {
+            if (subscription.type.isInstance(event)) {
+                subscription.dispatch(event);
+            }
+        }
+    }
+
+    /**
+     * Waits until all events published so far have been handled, e.g. to keep the
+     * subscribers out of a measurement
+     *
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return True if all subscriptions are idle, false if the timeout has elapsed
+     * @throws InterruptedException If the current thread is interrupted while waiting
+     */
+    public boolean awaitIdle(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (final Subscription subscription : this.subscriptions) {
+            while (subscription.pending.get() > 0) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(IDLE_POLL);
+            }
+        }
+
+        return true;
+    }
+
+    @Dispose(order = 70)
+    public void shutdown() {
+        for (final Subscription subscription : this.subscriptions) {
+            subscription.executor.shutdown();
+        }
+
+        for (final Subscription subscription : this.subscriptions) {
+            try {
+                if (!subscription.executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS)) {
+                    LOG.warn("Subscription '" + subscription.name + "' did not finish its events within " + TIMEOUT + " seconds");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LOG.info("Subscription '" + subscription.name + "' handled " + subscription.handled.get() + " events, " + subscription.failed.get() + " failed");
+        }
+    }
+
+    private static final class Subscription {
+        private final Class<?> type;
+        private final String name;
+        private final Subscriber subscriber;
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong handled = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong pending = new AtomicLong();
+
+        Subscription(final Class<?> type, final String name, final int threads, final int capacity, final Subscriber<?> subscriber) {
+            this.type = type;
+            this.name = name;
+            this.subscriber = subscriber;
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(capacity), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "events-" + name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+
+        @SuppressWarnings("unchecked")
+        void dispatch(final Object event) {
+            this.pending.incrementAndGet();
+            try {
+                this.executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            subscriber.on(event);
+                            handled.incrementAndGet();
+                        } catch (final RuntimeException e) {
+                            failed.incrementAndGet();
+                            LOG.error("Subscription '" + name + "' failed to handle " + event.getClass().getSimpleName(), e);
+                        } finally {
+                            pending.decrementAndGet();
+                        }
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                this.pending.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+}
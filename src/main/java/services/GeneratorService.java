@@ -0,0 +1,437 @@
+package services;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import models.Bracket;
+import models.Extra;
+import models.ExtraTip;
+import models.Game;
+import models.GameTip;
+import models.Playday;
+import models.Team;
+import models.User;
+import models.enums.Avatar;
+
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import services.generator.GeneratorOptions;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Generates a complete tournament with users, tips and extra tips without any network
+ * access. Brackets, teams, games, results and tips only depend on the options and the
+ * seed, kickoffs and timestamps are relative to the time of generation.
+ *
+ * All generated users share the password "rudeltippen".
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class GeneratorService {
+    private static final Logger LOG = LoggerFactory.getLogger(GeneratorService.class);
+    private static final String USERPASS = "rudeltippen";
+    private static final int POINTS_GAME_WIN = 3;
+    private static final int POINTS_GAME_DRAW = 1;
+    private static final int DAYS_BETWEEN_PLAYDAYS = 3;
+    private static final int MINUTES_BETWEEN_KICKOFFS = 150;
+    private static final int KICKOFFS_PER_DAY = 3;
+    private static final int GAMES_PER_KICKOFF = 3;
+    private static final int FIRST_KICKOFF_HOUR = 15;
+    private static final int MINUTES_BEFORE_TIP = 5;
+    private static final int DAYS_AHEAD = 7;
+    private static final int MAX_GOALS = 9;
+    private static final double HOME_GOALS = 1.5;
+    private static final double AWAY_GOALS = 1.1;
+    private static final double TIP_HOME_GOALS = 1.7;
+    private static final double TIP_AWAY_GOALS = 1.0;
+    private static final double TIP_HOURS_BEFORE_KICKOFF = 30;
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private ImportService importService;
+
+    @Inject
+    private CalculationService calculationService;
+
+    @Inject
+    private AuthService authService;
+
+    /**
+     * Generates a tournament into the empty database, creates the settings and the admin
+     * user and runs the calculations
+     *
+     * @param options The shape and size of the tournament
+     */
+    public void generate(final GeneratorOptions options) {
+        final BulkWriter bulkWriter = dataService.getBulkWriter("generator");
+        new Run(options, bulkWriter).generate();
+        bulkWriter.finish();
+        initialize();
+    }
+
+    /**
+     * Writes a tournament as one NDJSON file per collection. The files can be loaded
+     * with load(), settings and the admin user are created when loading.
+     *
+     * @param options The shape and size of the tournament
+     * @param directory An existing, empty directory
+     */
+    public void generate(final GeneratorOptions options, final File directory) {
+        final NdjsonWriter ndjsonWriter = dataService.getNdjsonWriter("generator", directory);
+        new Run(options, ndjsonWriter).generate();
+        ndjsonWriter.finish();
+    }
+
+    /**
+     * Loads a tournament written by generate(options, directory) into the empty database,
+     * creates the settings and the admin user and runs the calculations
+     *
+     * @param directory The directory containing the NDJSON files
+     */
+    public void load(final File directory) {
+        final int documents = dataService.importDocuments(directory);
+        LOG.info("Loaded " + documents + " generated documents from " + directory);
+        initialize();
+    }
+
+    private void initialize() {
+        importService.loadSettingsAndAdmin();
+        calculationService.calculations();
+    }
+
+    private static int getGoals(final Random random, final double mean) {
+        final double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int goals = 0;
+        while (product > limit && goals < MAX_GOALS) {
+            product = product * random.nextDouble();
+            goals++;
+        }
+
+        return goals;
+    }
+
+    private static boolean isPowerOfTwo(final int number) {
+        return number > 1 && Integer.bitCount(number) == 1;
+    }
+
+    /**
+     * State of a single generation run
+     */
+    private final class Run {
+        private final GeneratorOptions options;
+        private final DocumentWriter bulkWriter;
+        private final Random random;
+        private final DateTime now = new DateTime();
+        private final DateTime start;
+        private final List<Bracket> brackets = new ArrayList<Bracket>();
+        private final List<Team> teams = new ArrayList<Team>();
+        private final List<Playday> playdays = new ArrayList<Playday>();
+        private final List<Game> games = new ArrayList<Game>();
+        private final List<Extra> extras = new ArrayList<Extra>();
+
+        Run(final GeneratorOptions options, final DocumentWriter bulkWriter) {
+            this.options = options;
+            this.bulkWriter = bulkWriter;
+            this.random = new Random(options.getSeed());
+            this.start = this.now.withTimeAtStartOfDay().plusHours(FIRST_KICKOFF_HOUR).minusDays(options.getEndedPlaydays() * DAYS_BETWEEN_PLAYDAYS);
+        }
+
+        void generate() {
+            createTeams();
+            createGroupStage();
+            if (this.options.isPlayoffs() && isPowerOfTwo(this.options.getGroups())) {
+                createPlayoffs();
+            }
+            createExtras();
+
+            this.bulkWriter.flush();
+            getCurrentPlayday().setCurrent(true);
+            for (final Bracket bracket : this.brackets) {
+                this.bulkWriter.save(bracket);
+            }
+            for (final Playday playday : this.playdays) {
+                this.bulkWriter.save(playday);
+            }
+
+            createUsers();
+            LOG.info("Generated " + this.teams.size() + " teams, " + this.games.size() + " games on " + this.playdays.size() + " playdays and " + this.options.getUsers() + " users");
+        }
+
+        private void createTeams() {
+            for (int i = 0; i < this.options.getGroups(); i++) {
+                final Bracket bracket = new Bracket();
+                bracket.setName((this.options.getGroups() == 1) ? "league" : "group" + (char) ('a' + i));
+                bracket.setNumber(i + 1);
+                bracket.setUpdatable(true);
+                bracket.setGames(new ArrayList<Game>());
+                this.bulkWriter.save(bracket);
+                this.brackets.add(bracket);
+
+                final List<Team> bracketTeams = new ArrayList<Team>();
+                for (int j = 1; j <= this.options.getTeamsPerGroup(); j++) {
+                    final Team team = new Team();
+                    team.setName("team" + (i + 1) + "-" + j);
+                    team.setFlag("team" + (i + 1) + "-" + j + ".png");
+                    team.setBracket(bracket);
+                    this.bulkWriter.save(team);
+                    bracketTeams.add(team);
+                }
+                bracket.setTeams(bracketTeams);
+                this.teams.addAll(bracketTeams);
+            }
+        }
+
+        /**
+         * Round robin of each group, using the circle method. With an odd number of teams
+         * one team per group and round has a bye.
+         */
+        private void createGroupStage() {
+            final int size = this.options.getTeamsPerGroup() + this.options.getTeamsPerGroup() % 2;
+            final int rounds = size - 1;
+            for (int leg = 0; leg < this.options.getLegs(); leg++) {
+                for (int round = 0; round < rounds; round++) {
+                    final Playday playday = createPlayday(false);
+                    final boolean ended = this.playdays.size() <= this.options.getEndedPlaydays();
+
+                    int slot = 0;
+                    for (final Bracket bracket : this.brackets) {
+                        final List<Team> bracketTeams = bracket.getTeams();
+                        for (int i = 0; i < size / 2; i++) {
+                            final int home = (round + i) % rounds;
+                            final int away = (i == 0) ? rounds : (round + rounds - i) % rounds;
+                            if (home >= bracketTeams.size() || away >= bracketTeams.size()) {
+                                continue;
+                            }
+
+                            final boolean swap = (leg % 2 == 1) ^ (i == 0 && round % 2 == 1);
+                            final Game game = createGame(playday, bracket, slot);
+                            game.setHomeTeam(bracketTeams.get(swap ? away : home));
+                            game.setAwayTeam(bracketTeams.get(swap ? home : away));
+                            if (ended) {
+                                setResult(game);
+                            }
+                            this.bulkWriter.save(game);
+                            bracket.getGames().add(game);
+                            slot++;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Knockout stage of the two best teams of each group, e.g. B-1-1 against B-2-2 in
+         * the first round and G-49-W against G-50-W in the next, with a game for third
+         * place before the final
+         */
+        private void createPlayoffs() {
+            List<Game> round = new ArrayList<Game>();
+            Playday playday = createPlayday(true);
+            for (int i = 1; i < this.options.getGroups(); i = i + 2) {
+                round.add(createPlayoffGame(playday, round.size(), "B-" + i + "-1", "B-" + (i + 1) + "-2"));
+                round.add(createPlayoffGame(playday, round.size(), "B-" + (i + 1) + "-1", "B-" + i + "-2"));
+            }
+
+            while (round.size() > 1) {
+                playday = createPlayday(true);
+                final List<Game> next = new ArrayList<Game>();
+                int slot = 0;
+                if (round.size() == 2) {
+                    createPlayoffGame(playday, slot, getReference(round.get(0), "L"), getReference(round.get(1), "L"));
+                    slot++;
+                }
+                for (int i = 0; i < round.size(); i = i + 2) {
+                    next.add(createPlayoffGame(playday, slot, getReference(round.get(i), "W"), getReference(round.get(i + 1), "W")));
+                    slot++;
+                }
+                round = next;
+            }
+        }
+
+        private void createExtras() {
+            final Date ending = this.games.get(0).getKickoff();
+            final Game last = this.games.get(this.games.size() - 1);
+            if (last.isPlayoff()) {
+                createExtra("WhowillbeMaster", "WorldChampion", getReference(last, "W"), Collections.singletonList(last), 10, ending);
+            } else {
+                final List<Game> lastGames = this.playdays.get(this.playdays.size() - 1).getGames();
+                createExtra("WhowillbeMaster", "WorldChampion", "B-1-1", lastGames, 10, ending);
+                if (this.options.getGroups() == 1) {
+                    createExtra("Whowillbedowngraded", "WorldChampion", "B-1-" + this.options.getTeamsPerGroup(), lastGames, 2, ending);
+                }
+            }
+        }
+
+        /**
+         * Users have an individual activity which decides how many games they tip. Games more
+         * than a week ahead are rarely tipped. Tips are placed about a day before kickoff
+         * and cluster around the usual results.
+         */
+        private void createUsers() {
+            final String salt = USERPASS;
+            final String userpass = authService.encodePassword(USERPASS, salt);
+            final Date latest = this.now.minusMinutes(1).toDate();
+            for (int i = 1; i <= this.options.getUsers(); i++) {
+                final double activity = 0.5 + this.random.nextDouble() / 2;
+                final DateTime registered = this.start.minusDays(1 + this.random.nextInt(30)).plusMinutes(this.random.nextInt(24 * 60));
+
+                final User user = new User();
+                user.setUsername("user" + i);
+                user.setEmail("user" + i + "@foo.bar");
+                user.setSalt(salt);
+                user.setUserpass(userpass);
+                user.setRegistered(registered.toDate());
+                user.setActive(true);
+                user.setReminder(this.random.nextBoolean());
+                user.setNotification(this.random.nextBoolean());
+                user.setSendGameTips(this.random.nextBoolean());
+                user.setSendStandings(this.random.nextBoolean());
+                user.setAvatar(Avatar.GRAVATAR);
+                this.bulkWriter.save(user);
+
+                for (final Game game : this.games) {
+                    if (game.getHomeTeam() == null || game.getAwayTeam() == null) {
+                        continue;
+                    }
+
+                    final DateTime kickoff = new DateTime(game.getKickoff());
+                    final double chance = kickoff.isAfter(this.now.plusDays(DAYS_AHEAD)) ? activity / 4 : activity;
+                    if (this.random.nextDouble() >= chance) {
+                        continue;
+                    }
+
+                    final int minutesBefore = MINUTES_BEFORE_TIP + (int) (-Math.log(1 - this.random.nextDouble()) * TIP_HOURS_BEFORE_KICKOFF * 60);
+                    Date placed = kickoff.minusMinutes(minutesBefore).toDate();
+                    if (placed.before(user.getRegistered())) {
+                        placed = user.getRegistered();
+                    }
+                    if (placed.after(latest)) {
+                        placed = latest;
+                    }
+
+                    final GameTip gameTip = new GameTip();
+                    gameTip.setGame(game);
+                    gameTip.setUser(user);
+                    gameTip.setHomeScore(getGoals(this.random, TIP_HOME_GOALS));
+                    gameTip.setAwayScore(getGoals(this.random, TIP_AWAY_GOALS));
+                    gameTip.setPlaced(placed);
+                    this.bulkWriter.save(gameTip);
+                }
+
+                for (final Extra extra : this.extras) {
+                    if (this.random.nextDouble() < activity) {
+                        final int favourite = Math.min(this.random.nextInt(this.teams.size()), this.random.nextInt(this.teams.size()));
+                        final ExtraTip extraTip = new ExtraTip();
+                        extraTip.setExtra(extra);
+                        extraTip.setUser(user);
+                        extraTip.setAnswer(this.teams.get(favourite));
+                        this.bulkWriter.save(extraTip);
+                    }
+                }
+            }
+        }
+
+        private Playday createPlayday(final boolean playoff) {
+            final Playday playday = new Playday();
+            playday.setNumber(this.playdays.size() + 1);
+            playday.setName(playday.getNumber() + "spieltag");
+            playday.setPlayoff(playoff);
+            playday.setGames(new ArrayList<Game>());
+            this.bulkWriter.save(playday);
+            this.playdays.add(playday);
+
+            return playday;
+        }
+
+        /**
+         * Games of a playday kick off in groups of GAMES_PER_KICKOFF at KICKOFFS_PER_DAY
+         * times per day, starting on the day of the playday
+         */
+        private Game createGame(final Playday playday, final Bracket bracket, final int slot) {
+            final DateTime kickoff = this.start
+                    .plusDays((playday.getNumber() - 1) * DAYS_BETWEEN_PLAYDAYS + slot / (KICKOFFS_PER_DAY * GAMES_PER_KICKOFF))
+                    .plusMinutes((slot / GAMES_PER_KICKOFF % KICKOFFS_PER_DAY) * MINUTES_BETWEEN_KICKOFFS);
+
+            final Game game = new Game();
+            game.setNumber(this.games.size() + 1);
+            game.setPlayday(playday);
+            game.setBracket(bracket);
+            game.setKickoff(kickoff.toDate());
+            game.setUpdatable(true);
+            playday.getGames().add(game);
+            this.games.add(game);
+
+            return game;
+        }
+
+        private Game createPlayoffGame(final Playday playday, final int slot, final String homeReference, final String awayReference) {
+            final Game game = createGame(playday, null, slot);
+            game.setPlayoff(true);
+            game.setHomeReference(homeReference);
+            game.setAwayReference(awayReference);
+            this.bulkWriter.save(game);
+
+            return game;
+        }
+
+        private void createExtra(final String question, final String questionShort, final String reference, final List<Game> gameReferences, final int points, final Date ending) {
+            final Extra extra = new Extra();
+            extra.setQuestion(question);
+            extra.setQuestionShort(questionShort);
+            extra.setExtraReference(reference);
+            extra.setGameReferences(gameReferences);
+            extra.setAnswers(this.teams);
+            extra.setPoints(points);
+            extra.setEnding(ending);
+            extra.setReminder(ending.before(this.now.toDate()));
+            this.bulkWriter.save(extra);
+            this.extras.add(extra);
+        }
+
+        private void setResult(final Game game) {
+            final int homeScore = getGoals(this.random, HOME_GOALS);
+            final int awayScore = getGoals(this.random, AWAY_GOALS);
+            game.setHomeScore(String.valueOf(homeScore));
+            game.setAwayScore(String.valueOf(awayScore));
+            if (homeScore == awayScore) {
+                game.setHomePoints(POINTS_GAME_DRAW);
+                game.setAwayPoints(POINTS_GAME_DRAW);
+            } else {
+                game.setHomePoints((homeScore > awayScore) ? POINTS_GAME_WIN : 0);
+                game.setAwayPoints((awayScore > homeScore) ? POINTS_GAME_WIN : 0);
+            }
+            game.setEnded(true);
+            game.setInformed(true);
+            game.setReminder(true);
+        }
+
+        private Playday getCurrentPlayday() {
+            for (final Playday playday : this.playdays) {
+                for (final Game game : playday.getGames()) {
+                    if (!game.isEnded()) {
+                        return playday;
+                    }
+                }
+            }
+
+            return this.playdays.get(this.playdays.size() - 1);
+        }
+
+        private String getReference(final Game game, final String outcome) {
+            return "G-" + game.getNumber() + "-" + outcome;
+        }
+    }
+}
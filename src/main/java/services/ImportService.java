@@ -59,15 +59,24 @@ public class ImportService {
     @Inject 
     private NinjaProperties ninjaProperties;
 
+    @Inject
+    private TournamentService tournamentService;
+
     public void loadInitialData(Context context) {
-        Map<String, Bracket> brackets = loadBrackets(context);
-        Map<String, Team> teams = loadTeams(brackets, context);
-        Map<String, Playday> playdays = loadPlaydays(context);
-        loadGames(playdays, teams, brackets, context);
-        loadExtras(teams, context);
+        BulkWriter bulkWriter = dataService.getBulkWriter("import");
+        Map<String, Bracket> brackets = loadBrackets(context, bulkWriter);
+        Map<String, Team> teams = loadTeams(brackets, context, bulkWriter);
+        Map<String, Playday> playdays = loadPlaydays(context, bulkWriter);
+        loadGames(playdays, teams, brackets, context, bulkWriter);
+        loadExtras(teams, context, bulkWriter);
+        bulkWriter.flush();
         loadSettingsAndAdmin();
 
-        setReferences();
+        setReferences(bulkWriter);
+        bulkWriter.finish();
+        tournamentService.rebuild();
+        dataService.refreshCurrentPlayday();
+        dataService.markInitialized();
     }
 
     public void loadSettingsAndAdmin() {
@@ -92,14 +101,14 @@ public class ImportService {
         settings.setNumPrePlayoffGames(prePlayoffGames.size());
         settings.setInformOnNewTipper(true);
         settings.setEnableRegistration(true);
-        dataService.save(settings);
+        dataService.saveSettings(settings);
 
         User user = new User();
         final String salt = DigestUtils.sha512Hex(UUID.randomUUID().toString());
         user.setSalt(salt);
         user.setEmail(ninjaProperties.get("rudeltippen.admin.email"));
         user.setUsername(ninjaProperties.get("rudeltippen.admin.username"));
-        user.setUserpass(authService.hashPassword(ninjaProperties.get("rudeltippen.admin.password"), salt));
+        user.setUserpass(authService.encodePassword(ninjaProperties.get("rudeltippen.admin.password"), salt));
         user.setRegistered(new Date());
         user.setExtraPoints(0);
         user.setTipPoints(0);
@@ -119,7 +128,7 @@ public class ImportService {
         dataService.save(user);        
     }
 
-    private void setReferences() {
+    private void setReferences(BulkWriter bulkWriter) {
         List<Bracket> brackets = dataService.findAllBrackets();
         for (Bracket bracket : brackets) {
             List<Game> games = dataService.findGamesByBracket(bracket);
@@ -127,7 +136,7 @@ public class ImportService {
 
             bracket.setGames(games);
             bracket.setTeams(teams);
-            dataService.save(bracket);
+            bulkWriter.save(bracket);
         }
 
         List<Playday> playdays = dataService.findAllPlaydaysOrderByNumber();
@@ -135,11 +144,11 @@ public class ImportService {
             List<Game> games = dataService.findGamesByPlayday(playday);
 
             playday.setGames(games);
-            dataService.save(playday);
+            bulkWriter.save(playday);
         }
     }
 
-    private Map<String, Bracket> loadBrackets(Context context) {
+    private Map<String, Bracket> loadBrackets(Context context, BulkWriter bulkWriter) {
         Map<String, Bracket> brackets = new HashMap<String, Bracket>();
         InputStream inputStream = context.getClass().getClassLoader().getResourceAsStream("brackets.json");
         List<String> lines = readLines(inputStream);
@@ -150,7 +159,7 @@ public class ImportService {
             bracket.setName(basicDBObject.getString("name"));
             bracket.setNumber(basicDBObject.getInt(NUMBER));
             bracket.setUpdatable(basicDBObject.getBoolean(UPDATABLE));
-            dataService.save(bracket);
+            bulkWriter.save(bracket);
 
             brackets.put(basicDBObject.getString("id"), bracket);
         }
@@ -158,7 +167,7 @@ public class ImportService {
         return brackets;
     }
 
-    private void loadExtras(Map<String, Team> teams, Context context) {
+    private void loadExtras(Map<String, Team> teams, Context context, BulkWriter bulkWriter) {
         List<String> lines = readLines(context.getClass().getClassLoader().getResourceAsStream("extras.json"));
         
         List<Team> answers = new ArrayList<Team>();
@@ -175,11 +184,11 @@ public class ImportService {
             extra.setQuestion(basicDBObject.getString("question"));
             extra.setExtraReference(basicDBObject.getString("extraReference"));
             extra.setQuestionShort(basicDBObject.getString("questionShort"));
-            dataService.save(extra);
+            bulkWriter.save(extra);
         }
     }
 
-    private void loadGames(Map<String, Playday> playdays, Map<String, Team> teams, Map<String, Bracket> brackets, Context context) {
+    private void loadGames(Map<String, Playday> playdays, Map<String, Team> teams, Map<String, Bracket> brackets, Context context, BulkWriter bulkWriter) {
         List<String> lines = readLines(context.getClass().getClassLoader().getResourceAsStream("games.json"));
 
         for (String line : lines) {
@@ -197,7 +206,7 @@ public class ImportService {
             game.setAwayTeam(teams.get(basicDBObject.getString("awayTeam")));
             game.setPlayday(playdays.get(basicDBObject.getString("playday")));
             game.setKickoff(parseDate(basicDBObject.getString("kickoff"), DATE_FORMAT));
-            dataService.save(game);
+            bulkWriter.save(game);
         }
     }
 
@@ -213,7 +222,7 @@ public class ImportService {
         return null;
     }
 
-    private Map<String, Playday> loadPlaydays(Context context) {
+    private Map<String, Playday> loadPlaydays(Context context, BulkWriter bulkWriter) {
         Map<String, Playday> playdays = new HashMap<String, Playday>();
         List<String> lines = readLines(context.getClass().getClassLoader().getResourceAsStream("playdays.json"));
 
@@ -224,7 +233,7 @@ public class ImportService {
             playday.setCurrent(basicDBObject.getBoolean("current"));
             playday.setCurrent(basicDBObject.getBoolean(PLAYOFF));
             playday.setNumber(basicDBObject.getInt(NUMBER));
-            dataService.save(playday);
+            bulkWriter.save(playday);
 
             playdays.put(basicDBObject.getString("id"), playday);
         }
@@ -232,7 +241,7 @@ public class ImportService {
         return playdays;
     }
 
-    private Map<String, Team> loadTeams(Map<String, Bracket> brackets, Context context) {
+    private Map<String, Team> loadTeams(Map<String, Bracket> brackets, Context context, BulkWriter bulkWriter) {
         Map<String, Team> teams = new HashMap<String, Team>();
         List<String> lines = readLines(context.getClass().getClassLoader().getResourceAsStream("teams.json"));
 
@@ -246,7 +255,7 @@ public class ImportService {
             team.setGamesDraw(basicDBObject.getInt("gamesDraw"));
             team.setGamesLost(basicDBObject.getInt("gamesLost"));
             team.setBracket(brackets.get(basicDBObject.getString(BRACKET)));
-            dataService.save(team);
+            bulkWriter.save(team);
 
             teams.put(basicDBObject.getString("id"), team);
         }
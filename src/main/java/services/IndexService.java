@@ -0,0 +1,234 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import models.Bracket;
+import models.Confirmation;
+import models.Extra;
+import models.ExtraTip;
+import models.Game;
+import models.GameTip;
+import models.JobRun;
+import models.OutboxMail;
+import models.Playday;
+import models.Settings;
+import models.Team;
+import models.User;
+import models.enums.ConfirmationType;
+import models.enums.Constants;
+import models.enums.OutboxStatus;
+import models.statistic.GameStatistic;
+import models.statistic.GameTipStatistic;
+import models.statistic.PlaydayStatistic;
+import models.statistic.ResultStatistic;
+import models.statistic.UserStatistic;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import com.mongodb.MongoException;
+
+/**
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+@SuppressWarnings("rawtypes")
+public class IndexService {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexService.class);
+    private static final String BASIC_CURSOR = "BasicCursor";
+    private static final String COLLSCAN = "COLLSCAN";
+    private static final String ACTIVE = "active";
+    private static final String USER = "user";
+    private static final String GAME = "game";
+    private static final String EXTRA = "extra";
+    private static final String PLAYDAY = "playday";
+    private static final String KICKOFF = "kickoff";
+    private static final String NUMBER = "number";
+    private static final String PLACE = "place";
+    private static final String REMINDER = "reminder";
+    private static final String GAME_RESULT = "gameResult";
+
+    @Inject
+    private DataService dataService;
+
+    /**
+     * Creates all declared indexes and logs every DataService query shape
+     * which MongoDB still answers with a full collection scan. A unique index
+     * which can not be created, because the collection already contains
+     * duplicates, fails the startup instead of leaving the duplicates unchecked.
+     *
+     * @throws IllegalStateException If an index could not be created
+     */
+    public void ensureIndexes() {
+        try {
+            dataService.ensureIndexes();
+            LOG.info("Ensured indexes for all mapped entities");
+        } catch (MongoException e) {
+            LOG.error("Failed to ensure indexes, remove the duplicate documents named below and restart", e);
+            throw new IllegalStateException("Failed to ensure indexes", e);
+        }
+
+        final List<String> scans = getCollectionScans();
+        if (scans.isEmpty()) {
+            LOG.info("All DataService queries are covered by an index");
+        } else {
+            for (final String scan : scans) {
+                LOG.warn("DataService query does a full collection scan: " + scan);
+            }
+        }
+    }
+
+    /**
+     * Runs explain on every query shape used in DataService
+     *
+     * @return The names of all queries which are answered with a collection scan
+     */
+    public List<String> getCollectionScans() {
+        final List<String> scans = new ArrayList<String>();
+        for (final Entry<String, QueryShape> entry : getQueryShapes().entrySet()) {
+            final QueryShape shape = entry.getValue();
+            try {
+                final String plan = String.valueOf(dataService.explain(shape.clazz, shape.query, shape.sort));
+                if (plan.contains(BASIC_CURSOR) || plan.contains(COLLSCAN)) {
+                    scans.add(entry.getKey());
+                }
+            } catch (Exception e) {
+                LOG.error("Failed to explain query " + entry.getKey(), e);
+            }
+        }
+
+        return scans;
+    }
+
+    /**
+     * @return The names of the DataService queries which are explained
+     */
+    Set<String> getQueryNames() {
+        return getQueryShapes().keySet();
+    }
+
+    private Map<String, QueryShape> getQueryShapes() {
+        final DBRef game = dataService.getReference(Game.class, new ObjectId());
+        final DBRef user = dataService.getReference(User.class, new ObjectId());
+        final Object playday = dataService.getReference(Playday.class, new ObjectId());
+        final Object team = dataService.getReference(Team.class, new ObjectId());
+        final Object bracket = dataService.getReference(Bracket.class, new ObjectId());
+        final DBRef extra = dataService.getReference(Extra.class, new ObjectId());
+        final List<DBRef> games = Collections.singletonList(game);
+        final List<DBRef> users = Collections.singletonList(user);
+        final List<DBRef> extras = Collections.singletonList(extra);
+        final Date now = new Date();
+
+        final Map<String, QueryShape> shapes = new LinkedHashMap<String, QueryShape>();
+        shapes.put("findAllNotifiableUsers", new QueryShape(User.class, query(ACTIVE, true).append("sendGameTips", true), null));
+        shapes.put("findAllRemindableUsers", new QueryShape(User.class, query(REMINDER, true).append(ACTIVE, true), null));
+        shapes.put("findAllAdmins", new QueryShape(User.class, query("admin", true), null));
+        shapes.put("findUsersByNotificationAndActive", new QueryShape(User.class, query(ACTIVE, true).append("notification", true), null));
+        shapes.put("findTopThreeUsers", new QueryShape(User.class, query(ACTIVE, true), query(PLACE, 1)));
+        shapes.put("findSendableUsers", new QueryShape(User.class, query("sendStandings", true), null));
+        shapes.put("findUserByEmail", new QueryShape(User.class, query("email", "foo@bar.com"), null));
+        shapes.put("findUserByUsername", new QueryShape(User.class, query("username", "foo"), null));
+        shapes.put("findUserByPlace", new QueryShape(User.class, query(PLACE, 1), null));
+        shapes.put("findUserByEmailAndActive", new QueryShape(User.class, query(ACTIVE, true).append("email", "foo@bar.com"), null));
+        shapes.put("findAllActiveUsers", new QueryShape(User.class, query(ACTIVE, true), null));
+        shapes.put("findActiveUsers", new QueryShape(User.class, query(ACTIVE, true), query(PLACE, 1)));
+        shapes.put("findAllActiveUsersOrderedByPlace", new QueryShape(User.class, query(ACTIVE, true), query(PLACE, 1)));
+        shapes.put("findUsersOrderByUsername", new QueryShape(User.class, query(ACTIVE, true), query("username", 1)));
+        shapes.put("findAllActiveUsersOrdered", new QueryShape(User.class, query(ACTIVE, true), query("points", -1).append("correctResults", -1).append("correctDifferences", -1).append("correctTrends", -1).append("correctExtraTips", -1)));
+        final List<DBObject> or = new ArrayList<DBObject>();
+        or.add(query("username", "foo"));
+        or.add(query("email", "foo"));
+        shapes.put("findUserByUsernameOrEmail", new QueryShape(User.class, query("$or", or).append(ACTIVE, true), null));
+
+        shapes.put("findAllNotifiableGames", new QueryShape(Game.class, query("informed", false).append(KICKOFF, query("$lte", now)), null));
+        shapes.put("findAllGamesWithNoResult", new QueryShape(Game.class, query("ended", false).append("webserviceID", query("$exists", true)).append(KICKOFF, query("$lte", now)), null));
+        shapes.put("findAllGamesEnding", new QueryShape(Game.class, query(REMINDER, false).append(KICKOFF, query("$lte", now)), null));
+        shapes.put("findGameByNumber", new QueryShape(Game.class, query(NUMBER, 1), null));
+        shapes.put("findGameFirstGame", new QueryShape(Game.class, query(NUMBER, 1), null));
+        shapes.put("findGamesByHomeTeam", new QueryShape(Game.class, query("homeTeam", team), null));
+        shapes.put("findGamesByAwayTeam", new QueryShape(Game.class, query("awayTeam", team), null));
+        shapes.put("findGamesByPlayoffAndEndedAndBracket", new QueryShape(Game.class, query("playoff", true).append("ended", false).append("bracket", null), null));
+        shapes.put("findReferencedGames", new QueryShape(Game.class, query("homeReference", Pattern.compile("B-1")), null));
+        shapes.put("findAllNonPlayoffGames", new QueryShape(Game.class, query("playoff", false), null));
+        shapes.put("findAllPlayoffGames", new QueryShape(Game.class, query("playoff", true), null));
+        shapes.put("findGamesByBracket", new QueryShape(Game.class, query("bracket", bracket), null));
+        shapes.put("findGamesByPlayday", new QueryShape(Game.class, query(PLAYDAY, playday), query(KICKOFF, 1).append(NUMBER, 1)));
+        shapes.put("findAllGamesOrderByNumber", new QueryShape(Game.class, new BasicDBObject(), query(NUMBER, 1)));
+
+        shapes.put("findGameTipByGameAndUser", new QueryShape(GameTip.class, query(GAME, game).append(USER, user), null));
+        shapes.put("findGameTipsByUser", new QueryShape(GameTip.class, query(USER, user), null));
+        shapes.put("findGameTipByGame", new QueryShape(GameTip.class, query(GAME, game), null));
+        shapes.put("findExtraTipByExtraAndUser", new QueryShape(ExtraTip.class, query(EXTRA, extra).append(USER, user), null));
+        shapes.put("findExtraTipsByUser", new QueryShape(ExtraTip.class, query(USER, user).append("points", query("$gt", 0)), null));
+        shapes.put("findGameTipMatrix", new QueryShape(GameTip.class, dataService.getTipsQuery(GAME, games, users), null));
+        shapes.put("findExtraTipMatrix", new QueryShape(ExtraTip.class, dataService.getTipsQuery(EXTRA, extras, users), null));
+        shapes.put("findPlacedGameTips", new QueryShape(GameTip.class, dataService.getTipsQuery(GAME, games, null), null));
+        shapes.put("findPlacedExtraTips", new QueryShape(ExtraTip.class, dataService.getTipsQuery(EXTRA, extras, null), null));
+        shapes.put("resetGameTips", new QueryShape(GameTip.class, dataService.getResetGameTipsQuery(games), null));
+        shapes.put("findAllExtrasEnding", new QueryShape(Extra.class, query(REMINDER, false).append("ending", query("$lte", now)), null));
+
+        shapes.put("findPlaydaybByNumber", new QueryShape(Playday.class, query(NUMBER, 1), null));
+        shapes.put("findCurrentPlayday", new QueryShape(Playday.class, query("current", true), null));
+        shapes.put("findAllPlaydaysOrderByNumber", new QueryShape(Playday.class, new BasicDBObject(), query(NUMBER, 1)));
+        shapes.put("findBracketByNumber", new QueryShape(Bracket.class, query(NUMBER, 1), null));
+        shapes.put("findAllUpdatableBrackets", new QueryShape(Bracket.class, query("updatable", true), null));
+        shapes.put("findTeamsByBracket", new QueryShape(Team.class, query("bracket", bracket), null));
+        shapes.put("findTeamsByBracketOrdered", new QueryShape(Team.class, query("bracket", bracket), query("points", -1).append("goalsDiff", -1).append("goalsFor", -1)));
+        shapes.put("findAllTournamentBrackets", new QueryShape(Team.class, query("bracket", bracket), query(PLACE, 1)));
+        shapes.put("findSettings", new QueryShape(Settings.class, query("appName", Constants.APPNAME.asString()), null));
+
+        shapes.put("claimOutboxMails", new QueryShape(OutboxMail.class, query("status", OutboxStatus.PENDING.name()).append("nextAttempt", query("$lte", now)), query("nextAttempt", 1)));
+        shapes.put("countOutboxMails", new QueryShape(OutboxMail.class, query("status", OutboxStatus.PENDING.name()), null));
+        shapes.put("releaseOutboxMails", new QueryShape(OutboxMail.class, query("status", OutboxStatus.SENDING.name()).append("claimed", query("$lt", now)), null));
+
+        shapes.put("findRecentJobRuns", new QueryShape(JobRun.class, new BasicDBObject(), query("started", -1)));
+
+        shapes.put("findConfirmationByToken", new QueryShape(Confirmation.class, query("token", "foo"), null));
+        shapes.put("findConfirmationByTypeAndUser", new QueryShape(Confirmation.class, query("confirmationType", ConfirmationType.ACTIVATION.name()).append(USER, user), null));
+
+        shapes.put("findResultStatisticByUserAndResult", new QueryShape(ResultStatistic.class, query(USER, user).append("result", "1:0"), null));
+        shapes.put("findGameStatisticByPlaydayAndResult", new QueryShape(GameStatistic.class, query(PLAYDAY, playday).append(GAME_RESULT, "1:0"), null));
+        shapes.put("findPlaydayStatisticByPlaydayAndResult", new QueryShape(PlaydayStatistic.class, query(PLAYDAY, playday).append(GAME_RESULT, "1:0"), null));
+        shapes.put("findGameTipStatisticByPlayday", new QueryShape(GameTipStatistic.class, query(PLAYDAY, playday), null));
+        shapes.put("findGameTipStatisticsOrderByPlayday", new QueryShape(GameTipStatistic.class, new BasicDBObject(), query(PLAYDAY, 1)));
+        shapes.put("findStatisticsForPlayday", new QueryShape(UserStatistic.class, query(PLAYDAY, playday), null));
+        shapes.put("findUserStatisticByPlaydayAndUser", new QueryShape(UserStatistic.class, query(PLAYDAY, playday).append(USER, user), null));
+        shapes.put("findUserStatisticByPlaydayOrderByPlaydayPoints", new QueryShape(UserStatistic.class, query(PLAYDAY, playday), query("playdayPoints", 1)));
+        shapes.put("findUserStatisticByPlaydayOrderByPoints", new QueryShape(UserStatistic.class, query(PLAYDAY, playday), query("points", 1)));
+        shapes.put("findUserStatisticByUser", new QueryShape(UserStatistic.class, query(USER, user), query(PLAYDAY, 1)));
+
+        return shapes;
+    }
+
+    private static BasicDBObject query(final String key, final Object value) {
+        return new BasicDBObject(key, value);
+    }
+
+    private static final class QueryShape {
+        private final Class clazz;
+        private final DBObject query;
+        private final DBObject sort;
+
+        QueryShape(final Class clazz, final DBObject query, final DBObject sort) {
+            this.clazz = clazz;
+            this.query = query;
+            this.sort = sort;
+        }
+    }
+}
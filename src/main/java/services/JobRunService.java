@@ -0,0 +1,167 @@
+package services;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import models.JobRun;
+import models.enums.JobOutcome;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Records every job run in the capped jobruns collection and keeps the durations of
+ * the latest runs of every job in memory for the percentiles shown on the jobs page.
+ * Recording never fails a job, errors while storing a run are only logged.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class JobRunService {
+    private static final Logger LOG = LoggerFactory.getLogger(JobRunService.class);
+    private static final int HISTORY = 256;
+    private static final int ERROR_LENGTH = 1000;
+    private final ConcurrentMap<String, Statistic> statistics = new ConcurrentHashMap<String, Statistic>();
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private LeaseService leaseService;
+
+    /**
+     * Starts a new run of the given job
+     *
+     * @param name The name of the job
+     * @return The run, which has to be passed to finish once the job is done
+     */
+    public JobRun start(final String name) {
+        final JobRun jobRun = new JobRun(name, leaseService.getOwner(), new Date());
+        if (getStatistic(name).running.getAndIncrement() > 0) {
+            jobRun.setOverlapped(true);
+            LOG.warn("Job " + name + " started while a previous run is still running");
+        }
+
+        return jobRun;
+    }
+
+    /**
+     * Marks the run as failed with the given error
+     *
+     * @param jobRun The run
+     * @param e The error which caused the job to fail
+     */
+    public void fail(final JobRun jobRun, final Throwable e) {
+        jobRun.setOutcome(JobOutcome.FAILED);
+        jobRun.setError(StringUtils.abbreviate(StringUtils.defaultString(e.getMessage(), e.getClass().getName()), ERROR_LENGTH));
+    }
+
+    /**
+     * Finishes the run, records its duration and stores it
+     *
+     * @param jobRun The run
+     */
+    public void finish(final JobRun jobRun) {
+        final Date finished = new Date();
+        jobRun.setFinished(finished);
+        jobRun.setDuration(finished.getTime() - jobRun.getStarted().getTime());
+        if (jobRun.getOutcome() == null) {
+            jobRun.setOutcome(JobOutcome.SUCCESS);
+        }
+
+        final Statistic statistic = getStatistic(jobRun.getName());
+        statistic.running.decrementAndGet();
+        statistic.record(jobRun);
+        LOG.info("Job " + jobRun.getName() + " finished with " + jobRun.getOutcome() + " in " + jobRun.getDuration() + " ms, items: " + jobRun.getItems());
+
+        try {
+            dataService.save(jobRun);
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to store run of job " + jobRun.getName(), e);
+        }
+    }
+
+    /**
+     * @return Run counts and duration percentiles of the latest runs for every job, ordered by name
+     */
+    public Map<String, Map<String, Object>> getMetrics() {
+        final Map<String, Map<String, Object>> metrics = new TreeMap<String, Map<String, Object>>();
+        for (final Map.Entry<String, Statistic> entry : this.statistics.entrySet()) {
+            metrics.put(entry.getKey(), entry.getValue().getMetrics());
+        }
+
+        return metrics;
+    }
+
+    private Statistic getStatistic(final String name) {
+        Statistic statistic = this.statistics.get(name);
+        if (statistic == null) {
+            final Statistic created = new Statistic();
+            statistic = this.statistics.putIfAbsent(name, created);
+            if (statistic == null) {
+                statistic = created;
+            }
+        }
+
+        return statistic;
+    }
+
+    /**
+     * Counters of a job and a ring buffer with the durations of its latest runs
+     */
+    private static final class Statistic {
+        private final AtomicInteger running = new AtomicInteger();
+        private final long[] durations = new long[HISTORY];
+        private long runs;
+        private long failures;
+        private long overlaps;
+
+        synchronized void record(final JobRun jobRun) {
+            this.durations[(int) (this.runs % HISTORY)] = jobRun.getDuration();
+            this.runs++;
+            if (JobOutcome.FAILED.equals(jobRun.getOutcome())) {
+                this.failures++;
+            }
+            if (jobRun.isOverlapped()) {
+                this.overlaps++;
+            }
+        }
+
+        synchronized Map<String, Object> getMetrics() {
+            final long[] sorted = Arrays.copyOf(this.durations, (int) Math.min(this.runs, HISTORY));
+            Arrays.sort(sorted);
+
+            final Map<String, Object> metrics = new LinkedHashMap<String, Object>();
+            metrics.put("runs", this.runs);
+            metrics.put("failures", this.failures);
+            metrics.put("overlaps", this.overlaps);
+            metrics.put("running", this.running.get());
+            metrics.put("p50", percentile(sorted, 50));
+            metrics.put("p95", percentile(sorted, 95));
+            metrics.put("p99", percentile(sorted, 99));
+            metrics.put("max", (sorted.length == 0) ? 0 : sorted[sorted.length - 1]);
+
+            return metrics;
+        }
+
+        private static long percentile(final long[] sorted, final int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import models.User;
+import models.ranking.Leaderboard;
+import models.ranking.Leaderboard.Entry;
+import models.ranking.PlaceChange;
+import ninja.utils.NinjaProperties;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Keeps the standings of all active users in memory to compute their places during a
+ * calculation. Users are ranked by points, followed by the tie-breakers configured in
+ * rudeltippen.ranking.tiebreakers. The leaderboard is only kept in sync on the node
+ * running the calculations; pages read the persisted places instead.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class LeaderboardService {
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderboardService.class);
+    private static final String POINTS = "points";
+    private static final String DEFAULT_TIEBREAKERS = "correctResults, correctDifferences, correctTrends, correctExtraTips";
+    private Leaderboard leaderboard;
+    private String[] keys;
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    /**
+     * Replaces the standings with the given users
+     *
+     * @param users All active users
+     */
+    public synchronized void rebuild(final Collection<User> users) {
+        this.leaderboard = new Leaderboard();
+        for (final User user : users) {
+            put(user);
+        }
+    }
+
+    /**
+     * Updates the totals of the given users. Inactive users are removed from the standings.
+     *
+     * @param users The users whose totals or state have changed
+     */
+    public synchronized void update(final Collection<User> users) {
+        getLeaderboard();
+        for (final User user : users) {
+            put(user);
+        }
+    }
+
+    public synchronized void remove(final User user) {
+        if (this.leaderboard != null && user != null) {
+            this.leaderboard.remove(String.valueOf(user.getId()));
+        }
+    }
+
+    /**
+     * @return The ids of all ranked users in rank order
+     */
+    public synchronized List<String> getRanking() {
+        return getIds(getLeaderboard().getEntries());
+    }
+
+    /**
+     * Pairs the current rank of every ranked user with the place last persisted and marks
+     * the new places as persisted
+     *
+     * @return The new and the previous place of all ranked users in rank order
+     */
+    public synchronized List<PlaceChange> getPlaceChanges() {
+        final List<PlaceChange> changes = new ArrayList<PlaceChange>();
+        int place = 1;
+        for (final Entry entry : getLeaderboard().getEntries()) {
+            changes.add(new PlaceChange(entry.getId(), entry.getPlace(), place));
+            entry.setPlace(place);
+            place++;
+        }
+
+        return changes;
+    }
+
+    private void put(final User user) {
+        final String id = String.valueOf(user.getId());
+        if (user.isActive()) {
+            this.leaderboard.put(id, user.getUsername(), getScores(user), user.getPlace());
+        } else {
+            this.leaderboard.remove(id);
+        }
+    }
+
+    private Leaderboard getLeaderboard() {
+        if (this.leaderboard == null) {
+            rebuild(dataService.findAllActiveUsers());
+        }
+
+        return this.leaderboard;
+    }
+
+    private int[] getScores(final User user) {
+        final String[] scoreKeys = getKeys();
+        final int[] scores = new int[scoreKeys.length];
+        for (int i = 0; i < scoreKeys.length; i++) {
+            scores[i] = getScore(user, scoreKeys[i]);
+        }
+
+        return scores;
+    }
+
+    private String[] getKeys() {
+        if (this.keys == null) {
+            final List<String> scoreKeys = new ArrayList<String>();
+            scoreKeys.add(POINTS);
+
+            final String tieBreakers = ninjaProperties.getWithDefault("rudeltippen.ranking.tiebreakers", DEFAULT_TIEBREAKERS);
+            for (final String tieBreaker : StringUtils.split(tieBreakers, ',')) {
+                final String key = tieBreaker.trim();
+                if (getScore(new User(), key) < 0) {
+                    LOG.warn("Ignoring unknown ranking tie-breaker: " + key);
+                } else if (!scoreKeys.contains(key)) {
+                    scoreKeys.add(key);
+                }
+            }
+            this.keys = scoreKeys.toArray(new String[scoreKeys.size()]);
+        }
+
+        return this.keys;
+    }
+
+    private static int getScore(final User user, final String key) {
+        switch (key) {
+        case POINTS:
+            return user.getPoints();
+        case "tipPoints":
+            return user.getTipPoints();
+        case "extraPoints":
+            return user.getExtraPoints();
+        case "correctResults":
+            return user.getCorrectResults();
+        case "correctDifferences":
+            return user.getCorrectDifferences();
+        case "correctTrends":
+            return user.getCorrectTrends();
+        case "correctExtraTips":
+            return user.getCorrectExtraTips();
+        default:
+            return -1;
+        }
+    }
+
+    private static List<String> getIds(final List<Entry> entries) {
+        final List<String> ids = new ArrayList<String>(entries.size());
+        for (final Entry entry : entries) {
+            ids.add(entry.getId());
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,186 @@
+package services;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import ninja.lifecycle.Dispose;
+import ninja.utils.NinjaProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Elects the node running the jobs through a lease stored in the leases collection. Every
+ * node tries to acquire or renew the lease every third of rudeltippen.lease.duration, so if
+ * the leader dies another node takes over within one lease period. A node only considers
+ * itself leader until one heartbeat interval before its lease expires, so two nodes never
+ * run the jobs at the same time as long as their clocks are roughly in sync.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class LeaseService {
+    private static final Logger LOG = LoggerFactory.getLogger(LeaseService.class);
+    private static final String JOBS = "jobs";
+    private static final long DURATION = 30000;
+    private final String owner;
+    private final Clock clock;
+    private long duration;
+    private volatile long validUntil;
+    private ScheduledExecutorService heartbeat;
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    public LeaseService() {
+        this(getHostname() + ":" + UUID.randomUUID().toString(), 0, Clock.SYSTEM);
+    }
+
+    LeaseService(final String owner, final long duration, final Clock clock) {
+        this.owner = owner;
+        this.duration = duration;
+        this.clock = clock;
+    }
+
+    /**
+     * @return True if this node currently holds the job lease
+     */
+    public boolean isLeader() {
+        return this.clock.now() < this.validUntil;
+    }
+
+    /**
+     * Starts the periodic renewal of the lease, if not already started
+     */
+    public synchronized void start() {
+        if (this.heartbeat != null) {
+            return;
+        }
+
+        if (this.duration <= 0) {
+            this.duration = ninjaProperties.getIntegerWithDefault("rudeltippen.lease.duration", (int) DURATION);
+        }
+
+        heartbeat();
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "lease-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.heartbeat.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                renew();
+            }
+        }, getInterval(), getInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tries to acquire or renew the job lease
+     *
+     * @return True if this node holds the lease afterwards
+     */
+    public synchronized boolean heartbeat() {
+        final long now = this.clock.now();
+        boolean acquired = false;
+        try {
+            acquired = dataService.acquireLease(JOBS, this.owner, now, this.duration);
+        } catch (final RuntimeException e) {
+            LOG.warn("Failed to renew job lease", e);
+        }
+
+        final boolean leader = this.clock.now() < this.validUntil;
+        this.validUntil = acquired ? (now + this.duration - getInterval()) : 0;
+        if (acquired && !leader) {
+            LOG.info("Node " + this.owner + " acquired the job lease");
+        } else if (!acquired && leader) {
+            LOG.info("Node " + this.owner + " lost the job lease");
+        }
+
+        return acquired;
+    }
+
+    /**
+     * Tries to acquire or renew the lease with the given name for this node, independent
+     * of the job lease
+     *
+     * @param name The name of the lease
+     * @param duration The duration of the lease in milliseconds
+     * @return True if this node holds the lease afterwards
+     */
+    public boolean acquire(final String name, final long duration) {
+        try {
+            return dataService.acquireLease(name, this.owner, this.clock.now(), duration);
+        } catch (final RuntimeException e) {
+            LOG.warn("Failed to acquire lease " + name, e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Releases the lease with the given name if it is held by this node
+     *
+     * @param name The name of the lease
+     */
+    public void release(final String name) {
+        try {
+            dataService.releaseLease(name, this.owner);
+        } catch (final RuntimeException e) {
+            LOG.warn("Failed to release lease " + name, e);
+        }
+    }
+
+    /**
+     * @return The identifier of this node in the leases collection
+     */
+    public String getOwner() {
+        return this.owner;
+    }
+
+    @Dispose(order = 90)
+    public synchronized void shutdown() {
+        if (this.heartbeat != null) {
+            this.heartbeat.shutdownNow();
+            this.heartbeat = null;
+        }
+
+        if (this.validUntil > 0) {
+            this.validUntil = 0;
+            dataService.releaseLease(JOBS, this.owner);
+        }
+    }
+
+    private synchronized void renew() {
+        if (this.heartbeat != null) {
+            heartbeat();
+        }
+    }
+
+    private long getInterval() {
+        return this.duration / 3;
+    }
+
+    private static String getHostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (final UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package services;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,7 +11,6 @@ import models.Settings;
 import models.User;
 import models.enums.ConfirmationType;
 import ninja.postoffice.Mail;
-import ninja.postoffice.Postoffice;
 import ninja.utils.NinjaProperties;
 
 import org.apache.commons.lang.StringEscapeUtils;
@@ -39,7 +39,7 @@ public class MailService {
     private Provider<Mail> mailProvider;
 
     @Inject
-    private Postoffice postoffice;
+    private OutboxService outboxService;
 
     @Inject
     private NinjaProperties ninjaProperties;
@@ -76,9 +76,9 @@ public class MailService {
             mail.setBodyHtml(commonService.getProcessedTemplate("reminder.ftl", content));
 
             try {
-                postoffice.send(mail);
+                outboxService.enqueue(mail);
             } catch (Exception e) {
-                LOG.error("Failed to send reminder e-mail", e);
+                LOG.error("Failed to queue reminder e-mail", e);
             }
         } else {
             LOG.error("Tryed to sent reminder, but recipient was invalid.");
@@ -117,9 +117,9 @@ public class MailService {
             mail.setBodyText(commonService.getProcessedTemplate("confirm.ftl", content));
 
             try {
-                postoffice.send(mail);
+                outboxService.enqueue(mail);
             } catch (Exception e) {
-                LOG.error("Failed to send confirm e-mail", e);
+                LOG.error("Failed to queue confirm e-mail", e);
             }
         } else {
             LOG.error("Tryed to sent confirmation e-mail, but user or confirmType was null or recipient e-mail was invalid.");
@@ -138,9 +138,9 @@ public class MailService {
             mail.setBodyText(commonService.getProcessedTemplate("newuser.ftl", content));
 
             try {
-                postoffice.send(mail);
+                outboxService.enqueue(mail);
             } catch (Exception e) {
-                LOG.error("Failed to send Reminder e-mail", e);
+                LOG.error("Failed to queue Reminder e-mail", e);
             }
         } else {
             LOG.error("Tryed to sent new user e-mail to admin, but recipient was invalid or user was null.");
@@ -159,9 +159,9 @@ public class MailService {
             mail.setBodyText(commonService.getProcessedTemplate("error.ftl", content));
 
             try {
-                postoffice.send(mail);
+                outboxService.enqueue(mail);
             } catch (Exception e) {
-                LOG.error("Failed to send error e-mail", e);
+                LOG.error("Failed to queue error e-mail", e);
             }
         } else {
             LOG.error("Tryed to sent info on webservice, but recipient was invalid or response was null.");
@@ -169,44 +169,89 @@ public class MailService {
     }
 
     public void notifications(final String subject, String notification, final User user) {
-        final Settings settings = dataService.findSettings();
-        if (validationService.isValidEmail(user.getEmail()) && StringUtils.isNotEmpty(notification)) {
-            Mail mail = getMailInstance(settings, user.getEmail(), StringEscapeUtils.unescapeHtml("[" + settings.getGameName() + "] " + subject));
+        notifications(subject, notification, Arrays.asList(user));
+    }
 
-            Map<String, Object> content = new HashMap<String, Object>();
-            content.put("notification", notification);
-            content.put(I18N, i18nService);
-            mail.setBodyText(commonService.getProcessedTemplate("notification.ftl", content));
+    /**
+     * Sends the same notification to all given users, the mail body is rendered only once
+     *
+     * @param subject The subject
+     * @param notification The notification message
+     * @param users The recipients
+     */
+    public void notifications(final String subject, String notification, final List<User> users) {
+        if (StringUtils.isEmpty(notification)) {
+            LOG.error("Tryed to sent result notification, but notification was null.");
+            return;
+        }
 
-            try {
-                postoffice.send(mail);
-            } catch (Exception e) {
-                LOG.error("Failed to send notifications e-mail", e);
+        final Settings settings = dataService.findSettings();
+        final String mailSubject = StringEscapeUtils.unescapeHtml("[" + settings.getGameName() + "] " + subject);
+
+        Map<String, Object> content = new HashMap<String, Object>();
+        content.put("notification", notification);
+        content.put(I18N, i18nService);
+        final String body = commonService.getProcessedTemplate("notification.ftl", content);
+
+        for (final User user : users) {
+            if (validationService.isValidEmail(user.getEmail())) {
+                Mail mail = getMailInstance(settings, user.getEmail(), mailSubject);
+                mail.setBodyText(body);
+
+                try {
+                    outboxService.enqueue(mail);
+                } catch (Exception e) {
+                    LOG.error("Failed to queue notifications e-mail", e);
+                }
+            } else {
+                LOG.error("Tryed to sent result notification, but recipient was invalid.");
             }
-        } else {
-            LOG.error("Tryed to sent result notification, but recipient was invalid or notification was null.");
         }
     }
 
     public void gametips(final User user, final List<Game> games) {
-        final Settings settings = dataService.findSettings();
-
-        if (validationService.isValidEmail(user.getEmail()) && !games.isEmpty()) {
-            Mail mail = getMailInstance(settings, user.getEmail(), StringEscapeUtils.unescapeHtml("[" + settings.getGameName() + "] " + i18nService.get("overview")));
+        gametips(Arrays.asList(user), games);
+    }
 
-            Map<String, Object> content = new HashMap<String, Object>();
-            content.put(I18N, i18nService);
-            content.put(GAMES, games);
-            content.put("user", user);
-            mail.setBodyHtml(commonService.getProcessedTemplate("gametips.ftl", content));
+    /**
+     * Sends the tips of the given games to all given users. The game list is rendered once
+     * and only the personal part of the mail is rendered per user.
+     *
+     * @param users The recipients
+     * @param games The games which have been kicked off
+     */
+    public void gametips(final List<User> users, final List<Game> games) {
+        if (games.isEmpty()) {
+            LOG.error("Tryed to sent gametips mail, but games list was empty.");
+            return;
+        }
 
-            try {
-                postoffice.send(mail);
-            } catch (Exception e) {
-                LOG.error("Failed to send gametips e-mail", e);
+        final Settings settings = dataService.findSettings();
+        final String subject = StringEscapeUtils.unescapeHtml("[" + settings.getGameName() + "] " + i18nService.get("overview"));
+
+        Map<String, Object> shared = new HashMap<String, Object>();
+        shared.put(I18N, i18nService);
+        shared.put(GAMES, games);
+        final String gamelist = commonService.getProcessedTemplate("gametips-games.ftl", shared);
+
+        for (final User user : users) {
+            if (validationService.isValidEmail(user.getEmail())) {
+                Mail mail = getMailInstance(settings, user.getEmail(), subject);
+
+                Map<String, Object> content = new HashMap<String, Object>();
+                content.put(I18N, i18nService);
+                content.put("gamelist", gamelist);
+                content.put("user", user);
+                mail.setBodyHtml(commonService.getProcessedTemplate("gametips.ftl", content));
+
+                try {
+                    outboxService.enqueue(mail);
+                } catch (Exception e) {
+                    LOG.error("Failed to queue gametips e-mail", e);
+                }
+            } else {
+                LOG.error("Tryed to sent gametips mail, but recipient was invalid.");
             }
-        } else {
-            LOG.error("Tryed to sent gametips mail, but recipient was invalid or games list was empty.");
         }
     }
 
@@ -222,9 +267,9 @@ public class MailService {
             mail.addBcc(bbcRecipients);
 
             try {
-                postoffice.send(mail);
+                outboxService.enqueue(mail);
             } catch (Exception e) {
-                LOG.error("Failed to send rudelmail e-mail", e);
+                LOG.error("Failed to queue rudelmail e-mail", e);
             }
         } else {
             LOG.error("Tryed to sent rudelmail, but subject, messages or recipients was empty");
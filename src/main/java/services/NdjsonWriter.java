@@ -0,0 +1,57 @@
+package services;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import models.enums.Constants;
+
+import org.apache.commons.io.IOUtils;
+import org.mongodb.morphia.mapping.Mapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.util.JSON;
+
+/**
+ * Appends entities to one NDJSON file per collection (e.g. gametips.json) instead of
+ * writing them to MongoDB. Only whole entities can be written, the files can be loaded
+ * with DataService.importDocuments().
+ *
+ * Instances are not thread-safe and are obtained from DataService.getNdjsonWriter()
+ *
+ * @author svenkubiak
+ *
+ */
+public class NdjsonWriter extends DocumentWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(NdjsonWriter.class);
+    private final File directory;
+
+    NdjsonWriter(final Mapper mapper, final String name, final int batchSize, final File directory) {
+        super(mapper, name, batchSize);
+        this.directory = directory;
+    }
+
+    @Override
+    int write(final String collection, final List<Operation> operations) {
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(new File(this.directory, collection + ".json"), true), Constants.ENCODING.asString());
+            for (final Operation operation : operations) {
+                writer.write(JSON.serialize(operation.document));
+                writer.write('\n');
+            }
+
+            return operations.size();
+        } catch (IOException e) {
+            LOG.error("Failed to write documents of " + collection + " to " + this.directory, e);
+        } finally {
+            IOUtils.closeQuietly(writer);
+        }
+
+        return 0;
+    }
+}
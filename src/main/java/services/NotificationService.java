@@ -1,5 +1,6 @@
 package services;
 
+import java.util.Arrays;
 import java.util.List;
 
 import models.Game;
@@ -35,8 +36,11 @@ public class NotificationService {
      * @return The message
      */
     public String getEmailNotificationMessage(final User user, final Game game) {
+        return getEmailNotificationMessage(game, dataService.findGameTipByGameAndUser(game, user));
+    }
+
+    private String getEmailNotificationMessage(final Game game, final GameTip gameTip) {
         final StringBuilder buffer = new StringBuilder();
-        final GameTip gameTip = dataService.findGameTipByGameAndUser(game, user);
 
         buffer.append(i18nService.get("helper.tweetscore"));
         buffer.append(" ");
@@ -65,15 +69,16 @@ public class NotificationService {
     }
 
     /**
-     * Sends notification to every user who wants to be informed on new results
+     * Sends notification to every user who wants to be informed on new results.
+     * Subscribed to GameEnded, so it runs after the result has been saved.
+     *
      * @param game The game object
      */
     public void sendNotfications(final Game game) {
-        if (!game.isEnded()) {
-            final List<User> users = dataService.findUsersByNotificationAndActive();
-            for (final User user : users) {
-                mailService.notifications(i18nService.get("mails.subject.notification"), getEmailNotificationMessage(user, game), user);
-            }
+        final List<User> users = dataService.findUsersByNotificationAndActive();
+        final GameTip[][] gameTips = dataService.findGameTipMatrix(Arrays.asList(game), users);
+        for (int i = 0; i < users.size(); i++) {
+            mailService.notifications(i18nService.get("mails.subject.notification"), getEmailNotificationMessage(game, gameTips[i][0]), users.get(i));
         }
     }
 
@@ -100,10 +105,7 @@ public class NotificationService {
 
             message = i18nService.get("topthree.notification", new Object[]{i18nService.get(playday.getName())}) + ": \n" + buffer.toString();
 
-            users = dataService.findSendableUsers();
-            for (final User user : users) {
-                mailService.notifications(i18nService.get("mails.top3.subject"), message, user);
-            }
+            mailService.notifications(i18nService.get("mails.top3.subject"), message, dataService.findSendableUsers());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import models.OutboxMail;
+import models.enums.OutboxStatus;
+import ninja.lifecycle.Dispose;
+import ninja.postoffice.Mail;
+import ninja.postoffice.Postoffice;
+import ninja.utils.NinjaProperties;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import services.mail.MailTransport;
+import services.mail.PostofficeMailTransport;
+import services.mail.SmtpMailTransport;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.mongodb.BasicDBObject;
+
+/**
+ * Persistent outbox for all mails sent by the application. Mails are stored in the outbox
+ * collection and drained in the background by a bounded pool of workers, each of which
+ * sends its batches through one reused SMTP connection. Failed mails are retried with an
+ * exponential backoff and marked as DEAD after rudeltippen.mail.attempts attempts.
+ *
+ * In dev and test mode, or if postoffice.implementation is set, the mails are handed to
+ * the Ninja postoffice instead.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class OutboxService {
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxService.class);
+    private static final int WORKERS = 2;
+    private static final int BATCH_SIZE = 50;
+    private static final int ATTEMPTS = 5;
+    private static final int BACKOFF = 30000;
+    private static final int MAX_BACKOFF = 3600000;
+    private static final int TIMEOUT = 10000;
+    private static final long POLL = 5000;
+    private static final long CLAIM_TIMEOUT = 600000;
+    private final ConcurrentLinkedQueue<MailTransport> transports = new ConcurrentLinkedQueue<MailTransport>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sendTime = new AtomicLong();
+    private volatile ThreadPoolExecutor workers;
+    private ScheduledExecutorService poller;
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    @Inject
+    private Postoffice postoffice;
+
+    @Inject
+    private Provider<Mail> mailProvider;
+
+    /**
+     * Stores the mail in the outbox and wakes up the workers
+     *
+     * @param mail The mail to send
+     */
+    public void enqueue(final Mail mail) {
+        final OutboxMail outboxMail = new OutboxMail();
+        outboxMail.setFrom(mail.getFrom());
+        outboxMail.setReplyTo(new ArrayList<String>(mail.getReplyTo()));
+        outboxMail.setTo(new ArrayList<String>(mail.getTos()));
+        outboxMail.setBcc(new ArrayList<String>(mail.getBccs()));
+        outboxMail.setSubject(mail.getSubject());
+        outboxMail.setCharset(mail.getCharset());
+        outboxMail.setBodyText(mail.getBodyText());
+        outboxMail.setBodyHtml(mail.getBodyHtml());
+        outboxMail.setStatus(OutboxStatus.PENDING);
+        outboxMail.setCreated(new Date());
+        outboxMail.setNextAttempt(outboxMail.getCreated());
+        dataService.save(outboxMail);
+
+        start();
+        drain();
+    }
+
+    /**
+     * Starts the workers and the periodic polling of the outbox. Called on application
+     * startup so mails left from a previous run are sent, and on the first enqueue.
+     */
+    public synchronized void start() {
+        if (this.workers != null) {
+            return;
+        }
+
+        final int size = ninjaProperties.getIntegerWithDefault("rudeltippen.mail.workers", WORKERS);
+        this.workers = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(size), getThreadFactory("outbox-worker"), new ThreadPoolExecutor.DiscardPolicy());
+        this.poller = Executors.newSingleThreadScheduledExecutor(getThreadFactory("outbox-poller"));
+        this.poller.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release();
+                    drain();
+                } catch (final RuntimeException e) {
+                    LOG.error("Failed to poll outbox", e);
+                }
+            }
+        }, POLL, POLL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Counters of the outbox since startup and the current number of pending and dead mails
+     */
+    public Map<String, Object> getMetrics() {
+        final long time = this.sendTime.get();
+        final Map<String, Object> metrics = new LinkedHashMap<String, Object>();
+        metrics.put("pending", dataService.countOutboxMails(OutboxStatus.PENDING));
+        metrics.put("dead", dataService.countOutboxMails(OutboxStatus.DEAD));
+        metrics.put("sent", this.sent.get());
+        metrics.put("retried", this.retried.get());
+        metrics.put("deadLettered", this.dead.get());
+        metrics.put("batches", this.batches.get());
+        metrics.put("throughput", (time > 0) ? (this.sent.get() * 1000 / time) : 0);
+
+        return metrics;
+    }
+
+    @Dispose(order = 80)
+    public synchronized void shutdown() {
+        if (this.workers != null) {
+            this.poller.shutdown();
+            this.workers.shutdown();
+            try {
+                this.workers.awaitTermination(TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        MailTransport transport = this.transports.poll();
+        while (transport != null) {
+            transport.close();
+            transport = this.transports.poll();
+        }
+    }
+
+    private void drain() {
+        final int size = this.workers.getMaximumPoolSize();
+        for (int i = 0; i < size; i++) {
+            this.workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            });
+        }
+    }
+
+    private void work() {
+        MailTransport transport = this.transports.poll();
+        if (transport == null) {
+            transport = createTransport();
+        }
+
+        try {
+            work(transport);
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to drain outbox", e);
+        } finally {
+            this.transports.offer(transport);
+        }
+    }
+
+    /**
+     * Claims and sends due mails through the given transport until no due mail is left
+     *
+     * @param transport The transport to send the mails with
+     */
+    void work(final MailTransport transport) {
+        final int batchSize = ninjaProperties.getIntegerWithDefault("rudeltippen.mail.batchsize", BATCH_SIZE);
+        List<OutboxMail> mails = dataService.claimOutboxMails(batchSize);
+        while (!mails.isEmpty()) {
+            send(transport, mails);
+            mails = dataService.claimOutboxMails(batchSize);
+        }
+    }
+
+    /**
+     * Returns mails which are claimed for longer than the claim timeout to the outbox
+     */
+    void release() {
+        dataService.releaseOutboxMails(new Date(System.currentTimeMillis() - CLAIM_TIMEOUT));
+    }
+
+    /**
+     * Sends the claimed mails and writes the status of each mail right after its attempt,
+     * so a stopped instance leaves at most one mail in SENDING which may be sent twice
+     */
+    private void send(final MailTransport transport, final List<OutboxMail> mails) {
+        final int attempts = ninjaProperties.getIntegerWithDefault("rudeltippen.mail.attempts", ATTEMPTS);
+        final long start = System.currentTimeMillis();
+        int count = 0;
+        for (final OutboxMail mail : mails) {
+            final BasicDBObject update = new BasicDBObject();
+            try {
+                transport.send(mail);
+                update.append("status", OutboxStatus.SENT.name()).append("sent", new Date());
+                count++;
+            } catch (final Exception e) {
+                transport.close();
+                final int attempt = mail.getAttempts() + 1;
+                update.append("attempts", attempt).append("lastError", StringUtils.defaultString(e.getMessage(), e.getClass().getName()));
+                if (attempt >= attempts) {
+                    update.append("status", OutboxStatus.DEAD.name());
+                    this.dead.incrementAndGet();
+                    LOG.error("Giving up on mail '" + mail.getSubject() + "' to " + mail.getTo() + " after " + attempt + " attempts", e);
+                } else {
+                    update.append("status", OutboxStatus.PENDING.name()).append("nextAttempt", new Date(System.currentTimeMillis() + getBackoff(attempt)));
+                    this.retried.incrementAndGet();
+                    LOG.warn("Failed to send mail '" + mail.getSubject() + "' to " + mail.getTo() + ", attempt " + attempt, e);
+                }
+            }
+            dataService.updateOutboxMail(mail, update);
+        }
+
+        final long duration = System.currentTimeMillis() - start;
+        this.sent.addAndGet(count);
+        this.sendTime.addAndGet(duration);
+        this.batches.incrementAndGet();
+        LOG.info("Sent " + count + " of " + mails.size() + " mails from outbox in " + duration + " ms");
+    }
+
+    private long getBackoff(final int attempt) {
+        final long backoff = (long) ninjaProperties.getIntegerWithDefault("rudeltippen.mail.backoff", BACKOFF) << Math.min(attempt - 1, 20);
+        return Math.min(backoff, MAX_BACKOFF);
+    }
+
+    private MailTransport createTransport() {
+        if (!ninjaProperties.isProd() || StringUtils.isNotBlank(ninjaProperties.get("postoffice.implementation"))) {
+            return new PostofficeMailTransport(postoffice, mailProvider);
+        }
+
+        return new SmtpMailTransport(
+                ninjaProperties.get("smtp.host"),
+                ninjaProperties.getIntegerWithDefault("smtp.port", 25),
+                ninjaProperties.getBooleanWithDefault("smtp.ssl", false),
+                ninjaProperties.get("smtp.user"),
+                ninjaProperties.get("smtp.password"),
+                ninjaProperties.getIntegerWithDefault("rudeltippen.mail.timeout", TIMEOUT));
+    }
+
+    private static ThreadFactory getThreadFactory(final String name) {
+        final AtomicInteger threads = new AtomicInteger();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, name + "-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import models.User;
+import models.enums.Constants;
+import ninja.Context;
+import ninja.Result;
+import ninja.Results;
+import ninja.i18n.Lang;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import com.google.common.base.Optional;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Caches the data of pages which only change after a calculation run, e.g. the standings
+ * and the statistics, and computes the ETags for these pages. Pages are keyed by their
+ * request path and the language and are valid until the shared page version advances,
+ * which happens whenever the CalculationService finishes or a user shown on these pages
+ * changes. The page version and the ETags are derived from the shared versions of the
+ * VersionService, so all nodes drop their pages within rudeltippen.versions.interval
+ * milliseconds and compute the same ETag for the same state.
+ *
+ * Pages are cached per language resolved from the request. The cached data is shared
+ * between requests: lists and the maps in them are cached as unmodifiable copies, the
+ * entities in them must not be modified by the controllers or templates.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class PageCacheService {
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String ETAG = "ETag";
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String REVALIDATE = "private, no-cache";
+    private final ConcurrentMap<String, Page> pages = new ConcurrentHashMap<String, Page>();
+
+    @Inject
+    private VersionService versionService;
+
+    @Inject
+    private I18nService i18nService;
+
+    @Inject
+    private Lang lang;
+
+    /**
+     * Loads the data of a page
+     *
+     * @param <T> The type of the data
+     */
+    public interface Loader<T> {
+        T load();
+    }
+
+    /**
+     * @return The current shared page version
+     */
+    public String getVersion() {
+        return versionService.get(VersionService.PAGES);
+    }
+
+    /**
+     * Advances the shared page version and drops all cached pages of this node, the
+     * other nodes drop theirs once they have seen the new version
+     */
+    public void invalidate() {
+        versionService.advance(VersionService.PAGES);
+        this.pages.clear();
+    }
+
+    /**
+     * @param context The current context
+     * @return The language the page is rendered in, resolved from the request
+     */
+    public String getLanguage(final Context context) {
+        final Optional<String> language = lang.getLanguage(context, Optional.<Result>absent());
+        return language.isPresent() ? language.get() : i18nService.getDefaultLanguage();
+    }
+
+    /**
+     * Returns the cached data of the given page, loading it if the page has not been
+     * cached for the current version and language
+     *
+     * @param language The language of the request, see getLanguage()
+     * @param key The request path of the page
+     * @param loader The loader for the data of the page
+     * @return The data of the page, lists are returned unmodifiable
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final String language, final String key, final Loader<T> loader) {
+        final String pageKey = language + ":" + key;
+        final String current = getVersion();
+        final Page page = this.pages.get(pageKey);
+        if (page != null && page.version.equals(current)) {
+            return (T) page.data;
+        }
+
+        final T data = freeze(loader.load());
+        this.pages.put(pageKey, new Page(current, data));
+
+        return data;
+    }
+
+    /**
+     * Computes the ETag of the requested page for the connected user. The layout shows
+     * the connected user and the flash messages, so the ETag depends on the user and no
+     * ETag is computed while a flash message is shown.
+     *
+     * @param context The current context
+     * @return The ETag or null if the page must not be revalidated
+     */
+    public String getETag(final Context context) {
+        if (!context.getFlashScope().getCurrentFlashCookieData().isEmpty()) {
+            return null;
+        }
+
+        final User connectedUser = context.getAttribute(Constants.CONNECTEDUSER.asString(), User.class);
+        final String tag = context.getRequestPath()
+                + ":" + getLanguage(context)
+                + ":" + getVersion()
+                + ":" + versionService.get(VersionService.TOURNAMENT)
+                + ":" + versionService.get(VersionService.SETTINGS)
+                + ":" + ((connectedUser == null) ? "" : connectedUser.getId());
+
+        return "\"" + DigestUtils.md5Hex(tag) + "\"";
+    }
+
+    /**
+     * @param context The current context
+     * @param etag The ETag of the requested page
+     * @return True if the client already has the page with the given ETag
+     */
+    public boolean isNotModified(final Context context, final String etag) {
+        final String ifNoneMatch = context.getHeader(IF_NONE_MATCH);
+        return etag != null && ifNoneMatch != null && ifNoneMatch.contains(etag);
+    }
+
+    /**
+     * @param etag The ETag of the requested page
+     * @return An empty 304 result for the given ETag
+     */
+    public Result notModified(final String etag) {
+        return Results.status(Result.SC_304_NOT_MODIFIED)
+                .render(Result.NO_HTTP_BODY)
+                .addHeader(ETAG, etag)
+                .addHeader(CACHE_CONTROL, REVALIDATE);
+    }
+
+    /**
+     * Adds the ETag to the given result, so the client revalidates the page on the next request
+     *
+     * @param result The rendered page
+     * @param etag The ETag of the page or null if the page must not be revalidated
+     * @return The result
+     */
+    public Result revalidate(final Result result, final String etag) {
+        if (etag == null) {
+            return result;
+        }
+
+        return result.addHeader(ETAG, etag).addHeader(CACHE_CONTROL, REVALIDATE);
+    }
+
+    /**
+     * Copies lists and the maps in them into unmodifiable collections
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T freeze(final T data) {
+        if (!(data instanceof List)) {
+            return data;
+        }
+
+        final List<Object> list = new ArrayList<Object>();
+        for (final Object element : (List<Object>) data) {
+            list.add((element instanceof Map) ? Collections.unmodifiableMap(new LinkedHashMap<Object, Object>((Map<Object, Object>) element)) : element);
+        }
+
+        return (T) Collections.unmodifiableList(list);
+    }
+
+    private static final class Page {
+        private final String version;
+        private final Object data;
+
+        Page(final String version, final Object data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+}
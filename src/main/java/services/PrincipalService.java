@@ -0,0 +1,124 @@
+package services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import models.User;
+import ninja.utils.NinjaProperties;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Bounded cache of the connected users, keyed by the username stored in the session.
+ * Entries expire after rudeltippen.principal.ttl milliseconds. Changing a user invalidates
+ * its entries on this node and advances the shared principals version, which clears the
+ * caches of the other nodes within rudeltippen.versions.interval milliseconds, so a
+ * deactivated user loses access on every node within that interval.
+ *
+ * Every call returns a copy of the cached user; controllers changing the connected user
+ * have to save it and call invalidate afterwards.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class PrincipalService {
+    private static final int TTL = 30000;
+    private static final int SIZE = 1000;
+    private String version = "";
+    private final Map<String, Principal> principals = new LinkedHashMap<String, Principal>(16, 0.75f, true) {
+        private static final long serialVersionUID = 4716255019183209426L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Principal> eldest) {
+            return size() > SIZE;
+        }
+    };
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private VersionService versionService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    /**
+     * Returns the active user with the given username or email, from the cache if present
+     *
+     * @param username The username or email from the session
+     * @return The user or null if no active user exists
+     */
+    public User findConnectedUser(final String username) {
+        final long now = System.currentTimeMillis();
+        final String sharedVersion = versionService.get(VersionService.PRINCIPALS);
+        synchronized (this.principals) {
+            if (!sharedVersion.equals(this.version)) {
+                this.principals.clear();
+                this.version = sharedVersion;
+            }
+
+            final Principal principal = this.principals.get(username);
+            if (principal != null && principal.expires > now) {
+                return principal.user.copy();
+            }
+        }
+
+        final User user = dataService.findUserByUsernameOrEmail(username);
+        if (user != null) {
+            final Principal principal = new Principal(user, now + ninjaProperties.getIntegerWithDefault("rudeltippen.principal.ttl", TTL));
+            synchronized (this.principals) {
+                this.principals.put(username, principal);
+            }
+
+            return user.copy();
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes all cached entries of the given user, regardless of the key they were cached
+     * under, and clears the caches of the other nodes
+     *
+     * @param user The changed user
+     */
+    public void invalidate(final User user) {
+        if (user == null) {
+            return;
+        }
+
+        synchronized (this.principals) {
+            final Iterator<Principal> iterator = this.principals.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().user.getId().equals(user.getId())) {
+                    iterator.remove();
+                }
+            }
+        }
+        versionService.advance(VersionService.PRINCIPALS);
+    }
+
+    /**
+     * Removes all cached users on all nodes, e.g. after points and places have been recalculated
+     */
+    public void invalidateAll() {
+        synchronized (this.principals) {
+            this.principals.clear();
+        }
+        versionService.advance(VersionService.PRINCIPALS);
+    }
+
+    private static final class Principal {
+        private final User user;
+        private final long expires;
+
+        Principal(final User user, final long expires) {
+            this.user = user;
+            this.expires = expires;
+        }
+    }
+}
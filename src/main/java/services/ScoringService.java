@@ -0,0 +1,88 @@
+package services;
+
+import models.Game;
+import models.Settings;
+import ninja.utils.NinjaProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import services.scoring.DefaultTipScoring;
+import services.scoring.OvertimeTipScoring;
+import services.scoring.TendencyTipScoring;
+import services.scoring.TipScoring;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Provides the tip scoring rules configured in rudeltippen.scoring (default or tendency),
+ * built from the point values of the current settings
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class ScoringService {
+    private static final Logger LOG = LoggerFactory.getLogger(ScoringService.class);
+    private static final String TENDENCY = "tendency";
+    private volatile Rules rules;
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    /**
+     * @param overtime True if the game was decided in overtime
+     * @return The rules for scoring tips of a game
+     */
+    public TipScoring getRules(final boolean overtime) {
+        final Rules current = getRules();
+        return overtime ? current.overtime : current.regular;
+    }
+
+    /**
+     * Scores the first count tips of an ended game in one pass
+     *
+     * @param game The ended game
+     * @param homeTips The home scores of the tips
+     * @param awayTips The away scores of the tips
+     * @param points Receives the points for each tip
+     * @param count The number of tips to score
+     */
+    public void score(final Game game, final int[] homeTips, final int[] awayTips, final int[] points, final int count) {
+        getRules(game.isOvertime()).score(Integer.parseInt(game.getHomeScore()), Integer.parseInt(game.getAwayScore()), homeTips, awayTips, points, count);
+    }
+
+    private Rules getRules() {
+        final long version = dataService.getSettingsVersion();
+        Rules current = this.rules;
+        if (current == null || current.version != version) {
+            current = new Rules(dataService.findSettings(), ninjaProperties.getWithDefault("rudeltippen.scoring", "default"), version);
+            this.rules = current;
+        }
+
+        return current;
+    }
+
+    private static final class Rules {
+        private final TipScoring regular;
+        private final TipScoring overtime;
+        private final long version;
+
+        Rules(final Settings settings, final String scheme, final long version) {
+            this.version = version;
+            this.overtime = new OvertimeTipScoring(settings.getPointsTip(), settings.getPointsTipDiff());
+            if (TENDENCY.equalsIgnoreCase(scheme)) {
+                this.regular = new TendencyTipScoring(settings.getPointsTip(), settings.getPointsTipTrend());
+            } else {
+                if (!"default".equalsIgnoreCase(scheme)) {
+                    LOG.warn("Unknown scoring scheme '" + scheme + "', using default");
+                }
+                this.regular = new DefaultTipScoring(settings.getPointsTip(), settings.getPointsTipDiff(), settings.getPointsTipTrend());
+            }
+        }
+    }
+}
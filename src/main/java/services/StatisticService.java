@@ -30,20 +30,30 @@ public class StatisticService {
     @Inject
     private DataService dataService;
     
-    public void setResultStatistic(final User user) {
+    public void setResultStatistics(final List<User> users) {
+        final Settings settings = dataService.findSettings();
+        final BulkWriter bulkWriter = dataService.getBulkWriter("result statistics");
+        for (final User user : users) {
+            setResultStatistic(user, settings, bulkWriter);
+        }
+        bulkWriter.finish();
+    }
+
+    private void setResultStatistic(final User user, final Settings settings, final BulkWriter bulkWriter) {
         dataService.deleteResultsStatisticByUser(user);
 
-        final Settings settings = dataService.findSettings();
+        final Map<String, ResultStatistic> resultStatistics = new HashMap<String, ResultStatistic>();
         final List<GameTip> gameTips = dataService.findGameTipsByUser(user);
         for (final GameTip gameTip : gameTips) {
             final Game game = gameTip.getGame();
             if ((game != null) && game.isEnded()) {
                 final String score = gameTip.getHomeScore() + ":" + gameTip.getAwayScore();
-                ResultStatistic resultStatistic = dataService.findResultStatisticByUserAndResult(user, score);
+                ResultStatistic resultStatistic = resultStatistics.get(score);
                 if (resultStatistic == null) {
                     resultStatistic = new ResultStatistic();
                     resultStatistic.setUser(user);
                     resultStatistic.setResult(score);
+                    resultStatistics.put(score, resultStatistic);
                 }
 
                 final int points = gameTip.getPoints();
@@ -54,10 +64,12 @@ public class StatisticService {
                 } else if (points == settings.getPointsTipTrend()) {
                     resultStatistic.setCorrectTrends( resultStatistic.getCorrectTrends() + 1 );
                 }
-
-                dataService.save(resultStatistic);
             }
         }
+
+        for (final ResultStatistic resultStatistic : resultStatistics.values()) {
+            bulkWriter.save(resultStatistic);
+        }
     }
 
     public void setGameStatistic(final Playday playday) {
@@ -107,30 +119,41 @@ public class StatisticService {
     }
 
     public void setPlaydayPlaces(final Playday playday) {
+        final BulkWriter bulkWriter = dataService.getBulkWriter("playday places");
         List<UserStatistic> userStatistics = dataService.findUserStatisticByPlaydayOrderByPlaydayPoints(playday);
         int place = 1;
         for (final UserStatistic userStatistic : userStatistics) {
             userStatistic.setPlaydayPlace(place);
-            dataService.save(userStatistic);
+            bulkWriter.save(userStatistic);
             place++;
         }
+        bulkWriter.flush();
 
         userStatistics = dataService.findUserStatisticByPlaydayOrderByPoints(playday);
         place = 1;
         for (final UserStatistic userStatistic : userStatistics) {
             userStatistic.setPlace(place);
-            dataService.save(userStatistic);
+            bulkWriter.save(userStatistic);
             place++;
         }
+        bulkWriter.finish();
+    }
+
+    public void setPlaydayPoints(final Playday playday, final List<User> users) {
+        final Settings settings = dataService.findSettings();
+        final BulkWriter bulkWriter = dataService.getBulkWriter("playday points");
+        for (final User user : users) {
+            setPlaydayPoints(playday, user, settings, bulkWriter);
+        }
+        bulkWriter.finish();
     }
 
-    public void setPlaydayPoints(final Playday playday, final User user) {
+    private void setPlaydayPoints(final Playday playday, final User user, final Settings settings, final BulkWriter bulkWriter) {
         int playdayPoints = 0;
         int correctTips = 0;
         int correctDiffs = 0;
         int correctTrends = 0;
 
-        final Settings settings = dataService.findSettings();
         final List<Game> games = playday.getGames();
         for (final Game game : games) {
             final GameTip gameTip = dataService.findGameTipByGameAndUser(game, user);
@@ -158,7 +181,7 @@ public class StatisticService {
         userStatistic.setPlaydayCorrectTips(correctTips);
         userStatistic.setPlaydayCorrectDiffs(correctDiffs);
         userStatistic.setPlaydayCorrectTrends(correctTrends);
-        dataService.save(userStatistic);
+        bulkWriter.save(userStatistic);
     }
 
     public void setPlaydayStatistics(final Playday playday, final Map<String, Integer> scores) {
@@ -0,0 +1,101 @@
+package services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import models.TournamentSnapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Holds the current TournamentSnapshot. Readers get the published snapshot without
+ * touching the database, writers call rebuild() after changing games, teams, brackets,
+ * playdays or extras. rebuild() advances the shared tournament version, so the other
+ * nodes rebuild their snapshot on the next read after they have seen the new version.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class TournamentService {
+    private static final Logger LOG = LoggerFactory.getLogger(TournamentService.class);
+    private final AtomicReference<Published> published = new AtomicReference<Published>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private VersionService versionService;
+
+    /**
+     * @return The current snapshot, rebuilt if the shared tournament version has changed
+     */
+    public TournamentSnapshot getSnapshot() {
+        final Published current = this.published.get();
+        if (current != null && current.version.equals(versionService.get(VersionService.TOURNAMENT))) {
+            return current.snapshot;
+        }
+
+        return refresh();
+    }
+
+    /**
+     * Loads the tournament structure from the database, atomically replaces the
+     * current snapshot and advances the shared tournament version. Rebuilds are
+     * serialized, so an older build can never replace a newer one.
+     *
+     * @return The new snapshot
+     */
+    public synchronized TournamentSnapshot rebuild() {
+        return build(versionService.advance(VersionService.TOURNAMENT));
+    }
+
+    /**
+     * Drops the current snapshot on all nodes, the next read builds a new one
+     */
+    public synchronized void invalidate() {
+        this.published.set(null);
+        versionService.advance(VersionService.TOURNAMENT);
+    }
+
+    private synchronized TournamentSnapshot refresh() {
+        final String sharedVersion = versionService.get(VersionService.TOURNAMENT);
+        final Published current = this.published.get();
+        if (current != null && current.version.equals(sharedVersion)) {
+            return current.snapshot;
+        }
+
+        return build(sharedVersion);
+    }
+
+    private TournamentSnapshot build(final String sharedVersion) {
+        final long start = System.currentTimeMillis();
+        final TournamentSnapshot tournamentSnapshot = new TournamentSnapshot(
+                dataService.findAllPlaydaysOrderByNumber(),
+                dataService.findAllGames(),
+                dataService.findAllTeams(),
+                dataService.findAllBrackets(),
+                dataService.findAllExtras(),
+                this.version.incrementAndGet());
+
+        this.published.set(new Published(tournamentSnapshot, sharedVersion));
+        LOG.debug("Rebuilt tournament snapshot " + tournamentSnapshot.getVersion() + " in " + (System.currentTimeMillis() - start) + " ms");
+
+        return tournamentSnapshot;
+    }
+
+    private static final class Published {
+        private final TournamentSnapshot snapshot;
+        private final String version;
+
+        Published(final TournamentSnapshot snapshot, final String version) {
+            this.snapshot = snapshot;
+            this.version = version;
+        }
+    }
+}
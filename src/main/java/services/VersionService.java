@@ -0,0 +1,90 @@
+package services;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import ninja.utils.NinjaProperties;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Shares the versions of the in-memory snapshots between all nodes. A node changing the
+ * data behind a snapshot advances its version in the versions collection, readers compare
+ * the version their snapshot has been built from with the shared one and rebuild it on a
+ * mismatch. The shared versions are read with a single query at most every
+ * rudeltippen.versions.interval milliseconds, which bounds how long another node keeps
+ * serving an outdated snapshot.
+ *
+ * @author svenkubiak
+ *
+ */
+@Singleton
+public class VersionService {
+    public static final String SETTINGS = "settings";
+    public static final String TOURNAMENT = "tournament";
+    public static final String PRINCIPALS = "principals";
+    public static final String PAGES = "pages";
+    public static final String STANDINGS = "standings";
+    private static final int INTERVAL = 1000;
+    private volatile Map<String, String> versions = Collections.emptyMap();
+    private volatile long checked;
+    private volatile long interval = -1;
+
+    @Inject
+    private DataService dataService;
+
+    @Inject
+    private NinjaProperties ninjaProperties;
+
+    /**
+     * @param name The name of the version
+     * @return The current shared version or an empty String if it has never been advanced
+     */
+    public String get(final String name) {
+        if (System.currentTimeMillis() - this.checked >= getInterval()) {
+            poll();
+        }
+
+        final String version = this.versions.get(name);
+        return (version == null) ? "" : version;
+    }
+
+    /**
+     * Advances the shared version with the given name, so all nodes rebuild their snapshot
+     *
+     * @param name The name of the version
+     * @return The new version
+     */
+    public synchronized String advance(final String name) {
+        final String version = dataService.advanceVersion(name);
+        final Map<String, String> updated = new HashMap<String, String>(this.versions);
+        updated.put(name, version);
+        this.versions = updated;
+
+        return version;
+    }
+
+    /**
+     * Reads the shared versions from the database, regardless of the interval
+     */
+    public synchronized void refresh() {
+        this.versions = dataService.findVersions();
+        this.checked = System.currentTimeMillis();
+    }
+
+    private synchronized void poll() {
+        if (System.currentTimeMillis() - this.checked >= getInterval()) {
+            refresh();
+        }
+    }
+
+    private long getInterval() {
+        if (this.interval < 0) {
+            this.interval = ninjaProperties.getIntegerWithDefault("rudeltippen.versions.interval", INTERVAL);
+        }
+
+        return this.interval;
+    }
+}
@@ -0,0 +1,21 @@
+package services.events;
+
+import models.Game;
+
+/**
+ * Published after the first result of a game has been saved
+ *
+ * @author svenkubiak
+ *
+ */
+public class GameEnded {
+    private final Game game;
+
+    public GameEnded(final Game game) {
+        this.game = game;
+    }
+
+    public Game getGame() {
+        return this.game;
+    }
+}
@@ -0,0 +1,22 @@
+package services.events;
+
+import models.Playday;
+
+/**
+ * Published by the calculations when all games of the current playday have ended
+ * and the next playday has become the current one
+ *
+ * @author svenkubiak
+ *
+ */
+public class PlaydayCompleted {
+    private final Playday playday;
+
+    public PlaydayCompleted(final Playday playday) {
+        this.playday = playday;
+    }
+
+    public Playday getPlayday() {
+        return this.playday;
+    }
+}
@@ -0,0 +1,35 @@
+package services.events;
+
+import java.util.List;
+
+import models.Playday;
+import models.User;
+
+/**
+ * Published by the calculations after the points and places of the users have been
+ * written
+ *
+ * @author svenkubiak
+ *
+ */
+public class StandingsChanged {
+    private final List<Playday> playdays;
+    private final List<User> users;
+
+    /**
+     * @param playdays The playdays whose games have changed
+     * @param users The users whose points have changed
+     */
+    public StandingsChanged(final List<Playday> playdays, final List<User> users) {
+        this.playdays = playdays;
+        this.users = users;
+    }
+
+    public List<Playday> getPlaydays() {
+        return this.playdays;
+    }
+
+    public List<User> getUsers() {
+        return this.users;
+    }
+}
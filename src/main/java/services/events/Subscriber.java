@@ -0,0 +1,14 @@
+package services.events;
+
+/**
+ * Receives the events of one type published on the EventBus. Subscribers are called
+ * on the executor of their subscription, never on the publishing thread unless the
+ * queue of the subscription is full.
+ *
+ * @author svenkubiak
+ *
+ * @param <T> The type of event
+ */
+public interface Subscriber<T> {
+    void on(T event);
+}
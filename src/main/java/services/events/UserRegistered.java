@@ -0,0 +1,27 @@
+package services.events;
+
+import models.User;
+
+/**
+ * Published after a new user and the activation confirmation have been saved
+ *
+ * @author svenkubiak
+ *
+ */
+public class UserRegistered {
+    private final User user;
+    private final String token;
+
+    public UserRegistered(final User user, final String token) {
+        this.user = user;
+        this.token = token;
+    }
+
+    public User getUser() {
+        return this.user;
+    }
+
+    public String getToken() {
+        return this.token;
+    }
+}
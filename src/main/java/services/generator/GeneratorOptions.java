@@ -0,0 +1,95 @@
+package services.generator;
+
+/**
+ * Shape and size of a generated tournament. The defaults describe a world cup with
+ * eight groups of four teams, a knockout stage and 1000 users.
+ *
+ * @author svenkubiak
+ *
+ */
+public class GeneratorOptions {
+    private long seed;
+    private int groups = 8;
+    private int teamsPerGroup = 4;
+    private int legs = 1;
+    private boolean playoffs = true;
+    private int users = 1000;
+    private int endedPlaydays;
+
+    /**
+     * @param teams The number of teams
+     * @return A league where every team plays every other team home and away
+     */
+    public static GeneratorOptions league(final int teams) {
+        final GeneratorOptions options = new GeneratorOptions();
+        options.setGroups(1);
+        options.setTeamsPerGroup(teams);
+        options.setLegs(2);
+        options.setPlayoffs(false);
+
+        return options;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public void setSeed(final long seed) {
+        this.seed = seed;
+    }
+
+    public int getGroups() {
+        return this.groups;
+    }
+
+    public void setGroups(final int groups) {
+        this.groups = groups;
+    }
+
+    public int getTeamsPerGroup() {
+        return this.teamsPerGroup;
+    }
+
+    public void setTeamsPerGroup(final int teamsPerGroup) {
+        this.teamsPerGroup = teamsPerGroup;
+    }
+
+    public int getLegs() {
+        return this.legs;
+    }
+
+    public void setLegs(final int legs) {
+        this.legs = legs;
+    }
+
+    /**
+     * @return True if the two best teams of each group play a knockout stage. Only
+     * applies if the number of groups is a power of two.
+     */
+    public boolean isPlayoffs() {
+        return this.playoffs;
+    }
+
+    public void setPlayoffs(final boolean playoffs) {
+        this.playoffs = playoffs;
+    }
+
+    public int getUsers() {
+        return this.users;
+    }
+
+    public void setUsers(final int users) {
+        this.users = users;
+    }
+
+    /**
+     * @return The number of group stage playdays which are already played and have results
+     */
+    public int getEndedPlaydays() {
+        return this.endedPlaydays;
+    }
+
+    public void setEndedPlaydays(final int endedPlaydays) {
+        this.endedPlaydays = endedPlaydays;
+    }
+}
@@ -0,0 +1,25 @@
+package services.mail;
+
+import models.OutboxMail;
+
+/**
+ * Delivers mails of the outbox. An instance is used by one outbox worker at a time and
+ * may keep its connection open between batches.
+ *
+ * @author svenkubiak
+ *
+ */
+public interface MailTransport {
+    /**
+     * Sends the given mail
+     *
+     * @param mail The mail to send
+     * @throws Exception If the mail could not be delivered
+     */
+    void send(OutboxMail mail) throws Exception;
+
+    /**
+     * Releases the connection held by this transport, if any
+     */
+    void close();
+}
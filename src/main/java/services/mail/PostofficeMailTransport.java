@@ -0,0 +1,54 @@
+package services.mail;
+
+import models.OutboxMail;
+import ninja.postoffice.Mail;
+import ninja.postoffice.Postoffice;
+
+import com.google.inject.Provider;
+
+/**
+ * Hands the mails of the outbox to the Ninja postoffice, which logs them instead of
+ * sending them in dev and test mode
+ *
+ * @author svenkubiak
+ *
+ */
+public class PostofficeMailTransport implements MailTransport {
+    private final Postoffice postoffice;
+    private final Provider<Mail> mailProvider;
+
+    public PostofficeMailTransport(final Postoffice postoffice, final Provider<Mail> mailProvider) {
+        this.postoffice = postoffice;
+        this.mailProvider = mailProvider;
+    }
+
+    @Override
+    public void send(final OutboxMail outboxMail) throws Exception {
+        final Mail mail = this.mailProvider.get();
+        mail.setCharset(outboxMail.getCharset());
+        mail.setFrom(outboxMail.getFrom());
+        mail.setSubject(outboxMail.getSubject());
+        if (outboxMail.getReplyTo() != null) {
+            mail.addReplyTo(outboxMail.getReplyTo().toArray(new String[outboxMail.getReplyTo().size()]));
+        }
+        if (outboxMail.getTo() != null) {
+            mail.addTo(outboxMail.getTo().toArray(new String[outboxMail.getTo().size()]));
+        }
+        if (outboxMail.getBcc() != null) {
+            mail.addBcc(outboxMail.getBcc().toArray(new String[outboxMail.getBcc().size()]));
+        }
+        if (outboxMail.getBodyText() != null) {
+            mail.setBodyText(outboxMail.getBodyText());
+        }
+        if (outboxMail.getBodyHtml() != null) {
+            mail.setBodyHtml(outboxMail.getBodyHtml());
+        }
+
+        this.postoffice.send(mail);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
@@ -0,0 +1,122 @@
+package services.mail;
+
+import java.util.List;
+import java.util.Properties;
+
+import javax.mail.Address;
+import javax.mail.Message.RecipientType;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+
+import models.OutboxMail;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the mails of the outbox through a single SMTP connection, which is opened on the
+ * first mail and reused for all following mails until it is closed or dropped by the server
+ *
+ * @author svenkubiak
+ *
+ */
+public class SmtpMailTransport implements MailTransport {
+    private static final Logger LOG = LoggerFactory.getLogger(SmtpMailTransport.class);
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private Transport transport;
+
+    public SmtpMailTransport(final String host, final int port, final boolean ssl, final String username, final String password, final int timeout) {
+        final String protocol = ssl ? "smtps" : "smtp";
+        final Properties properties = new Properties();
+        properties.put("mail.transport.protocol", protocol);
+        properties.put("mail." + protocol + ".host", host);
+        properties.put("mail." + protocol + ".port", String.valueOf(port));
+        properties.put("mail." + protocol + ".auth", String.valueOf(StringUtils.isNotBlank(username)));
+        properties.put("mail." + protocol + ".connectiontimeout", String.valueOf(timeout));
+        properties.put("mail." + protocol + ".timeout", String.valueOf(timeout));
+        properties.put("mail." + protocol + ".writetimeout", String.valueOf(timeout));
+
+        this.session = Session.getInstance(properties);
+        this.host = host;
+        this.port = port;
+        this.username = StringUtils.isNotBlank(username) ? username : null;
+        this.password = StringUtils.isNotBlank(username) ? password : null;
+    }
+
+    @Override
+    public void send(final OutboxMail mail) throws MessagingException {
+        final MimeMessage message = toMessage(mail);
+        if (this.transport == null || !this.transport.isConnected()) {
+            close();
+            this.transport = this.session.getTransport();
+            this.transport.connect(this.host, this.port, this.username, this.password);
+        }
+
+        this.transport.sendMessage(message, message.getAllRecipients());
+    }
+
+    @Override
+    public void close() {
+        if (this.transport != null) {
+            try {
+                this.transport.close();
+            } catch (final MessagingException e) {
+                LOG.warn("Failed to close SMTP connection", e);
+            }
+            this.transport = null;
+        }
+    }
+
+    private MimeMessage toMessage(final OutboxMail mail) throws MessagingException {
+        final String charset = StringUtils.isNotBlank(mail.getCharset()) ? mail.getCharset() : "UTF-8";
+        final MimeMessage message = new MimeMessage(this.session);
+        message.setFrom(new InternetAddress(mail.getFrom()));
+        message.setReplyTo(toAddresses(mail.getReplyTo()));
+        message.setRecipients(RecipientType.TO, toAddresses(mail.getTo()));
+        message.setRecipients(RecipientType.BCC, toAddresses(mail.getBcc()));
+        message.setSubject(mail.getSubject(), charset);
+
+        if (mail.getBodyHtml() != null && mail.getBodyText() != null) {
+            final MimeBodyPart text = new MimeBodyPart();
+            text.setText(mail.getBodyText(), charset);
+            final MimeBodyPart html = new MimeBodyPart();
+            html.setText(mail.getBodyHtml(), charset, "html");
+
+            final MimeMultipart multipart = new MimeMultipart("alternative");
+            multipart.addBodyPart(text);
+            multipart.addBodyPart(html);
+            message.setContent(multipart);
+        } else if (mail.getBodyHtml() != null) {
+            message.setText(mail.getBodyHtml(), charset, "html");
+        } else {
+            message.setText(StringUtils.defaultString(mail.getBodyText()), charset);
+        }
+        message.saveChanges();
+
+        return message;
+    }
+
+    private static Address[] toAddresses(final List<String> addresses) throws AddressException {
+        if (addresses == null || addresses.isEmpty()) {
+            return null;
+        }
+
+        final Address[] result = new Address[addresses.size()];
+        for (int i = 0; i < addresses.size(); i++) {
+            result[i] = new InternetAddress(addresses.get(i));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+package services.matchdata;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import models.ws.WSMatch;
+import models.ws.WSResult;
+import models.ws.WSResults;
+
+import org.apache.commons.lang.StringUtils;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+/**
+ * Streaming parser for the SOAP responses of the openligadb WebService. The responses are
+ * read in a single pass with a StAX pull parser, only the elements needed are extracted
+ * and no DOM is built.
+ *
+ * @author svenkubiak
+ *
+ */
+public final class MatchdataParser {
+    private static final XMLInputFactory FACTORY = createFactory();
+    private static final DateTimeFormatter KICKOFF_FORMAT = ISODateTimeFormat.dateTimeParser().withZoneUTC();
+    private static final String MATCHDATA = "Matchdata";
+    private static final String MATCH_ID = "matchID";
+    private static final String MATCH_IS_FINISHED = "matchIsFinished";
+    private static final String MATCH_DATE_TIME_UTC = "matchDateTimeUTC";
+    private static final String MATCH_RESULT = "matchResult";
+    private static final String RESULT_NAME = "resultName";
+    private static final String POINTS_TEAM1 = "pointsTeam1";
+    private static final String POINTS_TEAM2 = "pointsTeam2";
+
+    private MatchdataParser() {
+    }
+
+    /**
+     * Parses a GetMatchByMatchID response
+     *
+     * @param inputStream The response body
+     * @return The finished flag, the kickoff and the results keyed by 90, 120 and 121
+     * @throws XMLStreamException If the response is not well-formed
+     */
+    public static WSResults parseMatch(final InputStream inputStream) throws XMLStreamException {
+        final WSResults wsResults = new WSResults();
+        final Map<String, WSResult> resultsMap = new HashMap<String, WSResult>();
+        final XMLStreamReader reader = FACTORY.createXMLStreamReader(inputStream);
+        try {
+            WSResult wsResult = null;
+            String resultName = null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final String name = reader.getLocalName();
+                    if (MATCH_RESULT.equals(name)) {
+                        wsResult = new WSResult();
+                        resultName = null;
+                    } else if (wsResult != null) {
+                        if (RESULT_NAME.equals(name)) {
+                            resultName = reader.getElementText().trim();
+                        } else if (POINTS_TEAM1.equals(name)) {
+                            wsResult.setHomeScore(reader.getElementText().trim());
+                        } else if (POINTS_TEAM2.equals(name)) {
+                            wsResult.setAwayScore(reader.getElementText().trim());
+                        }
+                    } else if (MATCH_IS_FINISHED.equals(name)) {
+                        wsResults.setFinished(("true").equalsIgnoreCase(reader.getElementText().trim()));
+                    } else if (MATCH_DATE_TIME_UTC.equals(name)) {
+                        wsResults.setKickoff(parseKickoff(reader.getElementText()));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && MATCH_RESULT.equals(reader.getLocalName())) {
+                    final String key = getResultKey(resultName);
+                    if (key != null) {
+                        resultsMap.put(key, wsResult);
+                    }
+                    wsResult = null;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        wsResults.setWsResult(resultsMap);
+
+        return wsResults;
+    }
+
+    /**
+     * Parses a GetMatchdataByGroupLeagueSaison response
+     *
+     * @param inputStream The response body
+     * @return The matches having a matchID and a kickoff
+     * @throws XMLStreamException If the response is not well-formed
+     */
+    public static List<WSMatch> parseMatches(final InputStream inputStream) throws XMLStreamException {
+        final List<WSMatch> matches = new ArrayList<WSMatch>();
+        final XMLStreamReader reader = FACTORY.createXMLStreamReader(inputStream);
+        try {
+            WSMatch match = null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final String name = reader.getLocalName();
+                    if (MATCHDATA.equals(name)) {
+                        match = new WSMatch();
+                    } else if (match != null && MATCH_ID.equals(name)) {
+                        match.setMatchID(reader.getElementText().trim());
+                    } else if (match != null && MATCH_DATE_TIME_UTC.equals(name)) {
+                        match.setKickoff(parseKickoff(reader.getElementText()));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && MATCHDATA.equals(reader.getLocalName())) {
+                    if (StringUtils.isNotBlank(match.getMatchID()) && match.getKickoff() != null) {
+                        matches.add(match);
+                    }
+                    match = null;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return matches;
+    }
+
+    private static String getResultKey(final String resultName) {
+        String key = null;
+        if (("Endergebnis").equalsIgnoreCase(resultName)) {
+            key = "90";
+        } else if (("Verlängerung").equalsIgnoreCase(resultName)) {
+            key = "120";
+        } else if (("Elfmeterschiessen").equalsIgnoreCase(resultName)) {
+            key = "121";
+        }
+
+        return key;
+    }
+
+    private static Date parseKickoff(final String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+
+        return KICKOFF_FORMAT.parseDateTime(value.trim()).toDate();
+    }
+
+    private static XMLInputFactory createFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+        return factory;
+    }
+}
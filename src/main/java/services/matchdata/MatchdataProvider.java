@@ -0,0 +1,22 @@
+package services.matchdata;
+
+import java.util.List;
+
+import models.ws.WSMatch;
+
+/**
+ * Source of the match schedule, e.g. the openligadb WebService
+ *
+ * @author svenkubiak
+ *
+ */
+public interface MatchdataProvider {
+
+    /**
+     * Fetches all matches of a playday with a single request
+     *
+     * @param playday The number of the playday
+     * @return The matches of the playday, empty if the request failed
+     */
+    List<WSMatch> getMatches(int playday);
+}
@@ -0,0 +1,73 @@
+package services.matchdata;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import models.enums.Constants;
+import models.ws.WSMatch;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetches the matches of a playday from the openligadb SOAP WebService
+ * (GetMatchdataByGroupLeagueSaison), one request per playday
+ *
+ * @author svenkubiak
+ *
+ */
+public class OpenligadbMatchdataProvider implements MatchdataProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(OpenligadbMatchdataProvider.class);
+    private final String url;
+    private final String leagueShortcut;
+    private final String leagueSaison;
+    private final int timeout;
+
+    public OpenligadbMatchdataProvider(final String url, final String leagueShortcut, final String leagueSaison, final int timeout) {
+        this.url = url;
+        this.leagueShortcut = leagueShortcut;
+        this.leagueSaison = leagueSaison;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public List<WSMatch> getMatches(final int playday) {
+        final StringBuilder buffer = new StringBuilder();
+        buffer.append("<soap12:Envelope xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" xmlns:soap12=\"http://www.w3.org/2003/05/soap-envelope\">");
+        buffer.append("<soap12:Body>");
+        buffer.append("<GetMatchdataByGroupLeagueSaison xmlns=\"http://msiggi.de/Sportsdata/Webservices\">");
+        buffer.append("<groupOrderID>" + playday + "</groupOrderID>");
+        buffer.append("<leagueShortcut>" + this.leagueShortcut + "</leagueShortcut>");
+        buffer.append("<leagueSaison>" + this.leagueSaison + "</leagueSaison>");
+        buffer.append("</GetMatchdataByGroupLeagueSaison>");
+        buffer.append("</soap12:Body>");
+        buffer.append("</soap12:Envelope>");
+
+        InputStream inputStream = null;
+        try {
+            final HttpResponse httpResponse = Request
+                    .Post(this.url)
+                    .connectTimeout(this.timeout)
+                    .socketTimeout(this.timeout)
+                    .setHeader("Content-Type", Constants.WS_COTENT_TYPE.asString())
+                    .setHeader("charset", Constants.ENCODING.asString())
+                    .bodyString(buffer.toString(), ContentType.TEXT_XML)
+                    .execute()
+                    .returnResponse();
+
+            inputStream = httpResponse.getEntity().getContent();
+            return MatchdataParser.parseMatches(inputStream);
+        } catch (final Exception e) {
+            LOG.error("Failed to get matches of playday " + playday + " from " + this.url, e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+
+        return new ArrayList<WSMatch>();
+    }
+}
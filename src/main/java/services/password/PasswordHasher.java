@@ -0,0 +1,40 @@
+package services.password;
+
+/**
+ * Hashes passwords into a self-describing format, so stored hashes can be verified
+ * after the algorithm or its parameters have changed
+ *
+ * @author svenkubiak
+ *
+ */
+public interface PasswordHasher {
+
+    /**
+     * @param password The clear-text password
+     * @param salt The salt of the user
+     * @return The encoded hash, including the algorithm and its parameters
+     */
+    String hash(String password, String salt);
+
+    /**
+     * @param hash A stored hash
+     * @return True if this hasher is able to verify the given hash
+     */
+    boolean supports(String hash);
+
+    /**
+     * Compares the password against the stored hash in constant time
+     *
+     * @param password The clear-text password
+     * @param salt The salt of the user
+     * @param hash The stored hash
+     * @return True if the password matches
+     */
+    boolean verify(String password, String salt, String hash);
+
+    /**
+     * @param hash A stored hash
+     * @return True if the hash should be replaced by one created with the current parameters
+     */
+    boolean needsRehash(String hash);
+}
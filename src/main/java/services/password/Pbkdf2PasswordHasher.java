@@ -0,0 +1,98 @@
+package services.password;
+
+import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import models.enums.Constants;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * PBKDF2 with HMAC-SHA512 and a single 64 byte block. The rounds work on two reused
+ * byte arrays, so a hash allocates the same few objects regardless of the number of
+ * iterations. Hashes are encoded as $pbkdf2-sha512$iterations$hex.
+ *
+ * The algorithm is implemented on top of Mac, as PBKDF2WithHmacSHA512 is not
+ * available on Java 7.
+ *
+ * @author svenkubiak
+ *
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    private static final String PREFIX = "$pbkdf2-sha512$";
+    private static final String HMAC_SHA512 = "HmacSHA512";
+    private static final String SEPARATOR = "$";
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher(final int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String hash(final String password, final String salt) {
+        return PREFIX + this.iterations + SEPARATOR + Hex.encodeHexString(derive(password, salt, this.iterations));
+    }
+
+    @Override
+    public boolean supports(final String hash) {
+        return hash != null && hash.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean verify(final String password, final String salt, final String hash) {
+        final String[] parts = StringUtils.split(hash.substring(PREFIX.length()), SEPARATOR);
+        if (parts.length != 2) {
+            return false;
+        }
+
+        try {
+            return MessageDigest.isEqual(Hex.decodeHex(parts[1].toCharArray()), derive(password, salt, Integer.parseInt(parts[0])));
+        } catch (final DecoderException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(final String hash) {
+        if (!supports(hash)) {
+            return true;
+        }
+
+        final String iterations = StringUtils.substringBefore(hash.substring(PREFIX.length()), SEPARATOR);
+        return !String.valueOf(this.iterations).equals(iterations);
+    }
+
+    private static byte[] derive(final String password, final String salt, final int iterations) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_SHA512);
+            final byte[] key = password.getBytes(Constants.ENCODING.asString());
+            // HMAC pads the key with zeros, so a single zero byte is equivalent to an empty key
+            mac.init(new SecretKeySpec((key.length == 0) ? new byte[1] : key, HMAC_SHA512));
+
+            final byte[] block = new byte[mac.getMacLength()];
+            final byte[] result = new byte[mac.getMacLength()];
+            mac.update(salt.getBytes(Constants.ENCODING.asString()));
+            mac.update(new byte[] {0, 0, 0, 1});
+            mac.doFinal(block, 0);
+            System.arraycopy(block, 0, result, 0, block.length);
+
+            for (int i = 1; i < iterations; i++) {
+                mac.update(block);
+                mac.doFinal(block, 0);
+                for (int j = 0; j < block.length; j++) {
+                    result[j] ^= block[j];
+                }
+            }
+
+            return result;
+        } catch (final GeneralSecurityException | UnsupportedEncodingException e) {
+            throw new IllegalStateException("Failed to derive password hash", e);
+        }
+    }
+}
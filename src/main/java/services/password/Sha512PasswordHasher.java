@@ -0,0 +1,51 @@
+package services.password;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+
+import models.enums.Constants;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * The former password hash, 100000 rounds of SHA512 over the hex encoded previous
+ * round, the password and the salt. Only used to verify hashes created before the
+ * hashes were versioned; they are replaced on the next successful login.
+ *
+ * @author svenkubiak
+ *
+ */
+public class Sha512PasswordHasher implements PasswordHasher {
+    private static final int ROUNDS = 100000;
+    private static final int LENGTH = 128;
+
+    @Override
+    public String hash(final String password, final String salt) {
+        String hash = "";
+        for (int i = 1; i <= ROUNDS; i++) {
+            hash = DigestUtils.sha512Hex(hash + password + salt);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public boolean supports(final String hash) {
+        return hash != null && hash.length() == LENGTH && hash.indexOf('$') < 0;
+    }
+
+    @Override
+    public boolean verify(final String password, final String salt, final String hash) {
+        try {
+            final String encoding = Constants.ENCODING.asString();
+            return MessageDigest.isEqual(hash(password, salt).getBytes(encoding), hash.getBytes(encoding));
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean needsRehash(final String hash) {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package services.scoring;
+
+/**
+ * Awards points for the exact result, else for the correct goal difference,
+ * else for the correct trend
+ *
+ * @author svenkubiak
+ *
+ */
+public final class DefaultTipScoring implements TipScoring {
+    private final int pointsTip;
+    private final int pointsDiff;
+    private final int pointsTrend;
+
+    public DefaultTipScoring(final int pointsTip, final int pointsDiff, final int pointsTrend) {
+        this.pointsTip = pointsTip;
+        this.pointsDiff = pointsDiff;
+        this.pointsTrend = pointsTrend;
+    }
+
+    @Override
+    public int score(final int homeScore, final int awayScore, final int homeTip, final int awayTip) {
+        if (homeScore == homeTip && awayScore == awayTip) {
+            return this.pointsTip;
+        } else if (homeScore - awayScore == homeTip - awayTip) {
+            return this.pointsDiff;
+        } else if ((homeScore > awayScore && homeTip > awayTip) || (homeScore < awayScore && homeTip < awayTip)) {
+            return this.pointsTrend;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public void score(final int homeScore, final int awayScore, final int[] homeTips, final int[] awayTips, final int[] points, final int count) {
+        final int diff = homeScore - awayScore;
+        final int trend = Integer.signum(diff);
+        for (int i = 0; i < count; i++) {
+            final int homeTip = homeTips[i];
+            final int awayTip = awayTips[i];
+            final int tipDiff = homeTip - awayTip;
+
+            if (homeTip == homeScore && awayTip == awayScore) {
+                points[i] = this.pointsTip;
+            } else if (tipDiff == diff) {
+                points[i] = this.pointsDiff;
+            } else if (trend != 0 && Integer.signum(tipDiff) == trend) {
+                points[i] = this.pointsTrend;
+            } else {
+                points[i] = 0;
+            }
+        }
+    }
+}
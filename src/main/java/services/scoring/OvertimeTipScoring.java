@@ -0,0 +1,52 @@
+package services.scoring;
+
+/**
+ * Scores games decided in overtime. Only the draw after regular time counts: the exact
+ * draw gets the points for a correct tip, any other draw the points for a correct difference.
+ *
+ * @author svenkubiak
+ *
+ */
+public final class OvertimeTipScoring implements TipScoring {
+    private final int pointsTip;
+    private final int pointsDiff;
+
+    public OvertimeTipScoring(final int pointsTip, final int pointsDiff) {
+        this.pointsTip = pointsTip;
+        this.pointsDiff = pointsDiff;
+    }
+
+    @Override
+    public int score(final int homeScore, final int awayScore, final int homeTip, final int awayTip) {
+        if (homeScore == awayScore && homeScore == homeTip && awayScore == awayTip) {
+            return this.pointsTip;
+        } else if (homeScore == awayScore && homeTip == awayTip) {
+            return this.pointsDiff;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public void score(final int homeScore, final int awayScore, final int[] homeTips, final int[] awayTips, final int[] points, final int count) {
+        if (homeScore != awayScore) {
+            for (int i = 0; i < count; i++) {
+                points[i] = 0;
+            }
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            final int homeTip = homeTips[i];
+            final int awayTip = awayTips[i];
+
+            if (homeTip == homeScore && awayTip == awayScore) {
+                points[i] = this.pointsTip;
+            } else if (homeTip == awayTip) {
+                points[i] = this.pointsDiff;
+            } else {
+                points[i] = 0;
+            }
+        }
+    }
+}
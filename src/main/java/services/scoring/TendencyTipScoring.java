@@ -0,0 +1,47 @@
+package services.scoring;
+
+/**
+ * Alternative scheme without a goal difference tier: the exact result gets the points for
+ * a correct tip, every other tip with the correct tendency (home win, draw, away win) the
+ * points for a correct trend
+ *
+ * @author svenkubiak
+ *
+ */
+public final class TendencyTipScoring implements TipScoring {
+    private final int pointsTip;
+    private final int pointsTrend;
+
+    public TendencyTipScoring(final int pointsTip, final int pointsTrend) {
+        this.pointsTip = pointsTip;
+        this.pointsTrend = pointsTrend;
+    }
+
+    @Override
+    public int score(final int homeScore, final int awayScore, final int homeTip, final int awayTip) {
+        if (homeScore == homeTip && awayScore == awayTip) {
+            return this.pointsTip;
+        } else if (Integer.signum(homeScore - awayScore) == Integer.signum(homeTip - awayTip)) {
+            return this.pointsTrend;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public void score(final int homeScore, final int awayScore, final int[] homeTips, final int[] awayTips, final int[] points, final int count) {
+        final int trend = Integer.signum(homeScore - awayScore);
+        for (int i = 0; i < count; i++) {
+            final int homeTip = homeTips[i];
+            final int awayTip = awayTips[i];
+
+            if (homeTip == homeScore && awayTip == awayScore) {
+                points[i] = this.pointsTip;
+            } else if (Integer.signum(homeTip - awayTip) == trend) {
+                points[i] = this.pointsTrend;
+            } else {
+                points[i] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package services.scoring;
+
+/**
+ * Scores the tips of one game. Implementations are stateless apart from the
+ * configured point values and must not allocate while scoring.
+ *
+ * @author svenkubiak
+ *
+ */
+public interface TipScoring {
+
+    /**
+     * Scores a single tip
+     *
+     * @return The points for the tip
+     */
+    int score(int homeScore, int awayScore, int homeTip, int awayTip);
+
+    /**
+     * Scores the first count tips of the given arrays in one pass
+     *
+     * @param homeScore The home score of the game
+     * @param awayScore The away score of the game
+     * @param homeTips The home scores of the tips
+     * @param awayTips The away scores of the tips
+     * @param points Receives the points for each tip
+     * @param count The number of tips to score
+     */
+    void score(int homeScore, int awayScore, int[] homeTips, int[] awayTips, int[] points, int count);
+}
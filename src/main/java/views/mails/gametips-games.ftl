@@ -0,0 +1,14 @@
+<table>
+	<#list games as game>
+		<tr>
+			<td colspan="2"><strong>${i18n.get(game.homeTeam.name)} - ${i18n.get(game.awayTeam.name)}</strong></td>
+		</tr>
+		<#list game.gameTips as gameTip>
+			<tr>
+				<td>${gameTip.user.username}</td>
+				<td>${gameTip.homeScore} : ${gameTip.awayScore}</td>
+			</tr>			
+		</#list>
+	</#list>
+	<tr><td>&nbsp;</td></tr>
+</table>
\ No newline at end of file
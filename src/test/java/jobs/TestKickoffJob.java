@@ -0,0 +1,116 @@
+package jobs;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import main.TestBase;
+import models.Game;
+import models.Playday;
+import models.Team;
+import models.ws.WSMatch;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import org.quartz.JobExecutionException;
+
+import services.DataService;
+import services.TournamentService;
+import services.matchdata.MatchdataProvider;
+
+public class TestKickoffJob extends TestBase {
+    private static final String MATCH = "4711";
+
+    @Test
+    public void testUpdateKickoffs() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final Team home = createTeam(dataService, "home");
+        final Team away = createTeam(dataService, "away");
+        final Game game = createGame(dataService, home, away, kickoff(1, 18));
+
+        final Map<Game, Date> kickoffs = new LinkedHashMap<Game, Date>();
+        kickoffs.put(game, kickoff(2, 20));
+        dataService.updateKickoffs(kickoffs);
+        assertEquals(kickoff(2, 20), dataService.findGameById(game.getId().toString()).getKickoff());
+
+        dataService.delete(game);
+        dataService.delete(home);
+        dataService.delete(away);
+    }
+
+    @Test
+    public void testChangedKickoff() throws JobExecutionException {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final TournamentService tournamentService = getInjector().getInstance(TournamentService.class);
+        final Team home = createTeam(dataService, "home");
+        final Team away = createTeam(dataService, "away");
+        final Game game = createGame(dataService, home, away, kickoff(1, 18));
+
+        final List<Game> games = new ArrayList<Game>();
+        games.add(game);
+        final Playday playday = new Playday();
+        playday.setName("playday");
+        playday.setNumber(1);
+        playday.setCurrent(true);
+        playday.setGames(games);
+        dataService.save(playday);
+        game.setPlayday(playday);
+        dataService.save(game);
+        tournamentService.rebuild();
+
+        final KickoffJob kickoffJob = new KickoffJob(new MatchdataProvider() {
+            @Override
+            public List<WSMatch> getMatches(final int number) {
+                final List<WSMatch> matches = new ArrayList<WSMatch>();
+                final WSMatch match = new WSMatch();
+                match.setMatchID(MATCH);
+                match.setKickoff(kickoff(2, 20));
+                matches.add(match);
+
+                return matches;
+            }
+        });
+        getInjector().injectMembers(kickoffJob);
+        kickoffJob.execute(null);
+
+        final String id = game.getId().toString();
+        assertEquals(kickoff(2, 20), dataService.findGameById(id).getKickoff());
+        assertEquals(kickoff(2, 20), tournamentService.getSnapshot().getGame(id).getKickoff());
+
+        dataService.delete(playday);
+        dataService.delete(game);
+        dataService.delete(home);
+        dataService.delete(away);
+        tournamentService.rebuild();
+    }
+
+    private static Team createTeam(final DataService dataService, final String name) {
+        final Team team = new Team();
+        team.setName(name);
+        dataService.save(team);
+
+        return team;
+    }
+
+    private static Game createGame(final DataService dataService, final Team home, final Team away, final Date kickoff) {
+        final Game game = new Game();
+        game.setNumber(998);
+        game.setHomeTeam(home);
+        game.setAwayTeam(away);
+        game.setKickoff(kickoff);
+        game.setWebserviceID(MATCH);
+        game.setUpdatable(true);
+        dataService.save(game);
+
+        return game;
+    }
+
+    private static Date kickoff(final int day, final int hour) {
+        return new DateTime(DateTime.now(DateTimeZone.UTC).getYear(), 6, day, hour, 0, DateTimeZone.UTC).toDate();
+    }
+}
@@ -0,0 +1,67 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import main.TestBase;
+import models.User;
+import ninja.utils.NinjaProperties;
+
+import org.junit.Test;
+
+import services.password.Pbkdf2PasswordHasher;
+import services.password.Sha512PasswordHasher;
+
+public class TestAuthService extends TestBase {
+
+    @Test
+    public void testPbkdf2() {
+        final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1000);
+        final String hash = hasher.hash("password", "salt");
+
+        assertEquals("$pbkdf2-sha512$1000$afe6c5530785b6cc6b1c6453384731bd5ee432ee549fd42fb6695779ad8a1c5bf59de69c48f774efc4007d5298f9033c0241d5ab69305e7b64eceeb8d834cfec", hash);
+        assertTrue(hasher.supports(hash));
+        assertTrue(hasher.verify("password", "salt", hash));
+        assertFalse(hasher.verify("passwort", "salt", hash));
+        assertFalse(hasher.needsRehash(hash));
+        assertTrue(new Pbkdf2PasswordHasher(2000).needsRehash(hash));
+        assertFalse(new Sha512PasswordHasher().supports(hash));
+    }
+
+    @Test
+    public void testRehashOnLogin() {
+        final AuthService authService = getInjector().getInstance(AuthService.class);
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final User user = dataService.findUserByUsername(USER);
+        user.setUserpass(authService.hashPassword(USER, user.getSalt()));
+        dataService.save(user);
+
+        assertFalse(authService.authenticate(USER, "foo"));
+        assertEquals(128, dataService.findUserByUsername(USER).getUserpass().length());
+
+        assertTrue(authService.authenticate(USER, USER));
+        assertTrue(dataService.findUserByUsername(USER).getUserpass().startsWith("$pbkdf2-sha512$"));
+        assertTrue(authService.authenticate(USER, USER));
+        assertFalse(authService.authenticate(USER, "foo"));
+    }
+
+    @Test
+    public void testSignAndEncrypt() throws Exception {
+        final AuthService authService = getInjector().getInstance(AuthService.class);
+        final String secret = getInjector().getInstance(NinjaProperties.class).get("application.secret");
+        final String signature = authService.sign("foo");
+
+        assertEquals(authService.sign("foo", secret.getBytes("UTF-8")), signature);
+        assertEquals(signature, authService.sign("foo"));
+        assertTrue(authService.verify("foo", signature));
+        assertFalse(authService.verify("bar", signature));
+        assertFalse(authService.verify("foo", signature.substring(1)));
+        assertFalse(authService.verify("foo", null));
+
+        final String encrypted = authService.encryptAES("foo@bar.com");
+        assertEquals(authService.encryptAES("foo@bar.com", secret.substring(0, 16)), encrypted);
+        assertEquals("foo@bar.com", authService.decryptAES(encrypted));
+        assertEquals("foo@bar.com", authService.decryptAES(encrypted));
+    }
+}
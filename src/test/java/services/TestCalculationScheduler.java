@@ -0,0 +1,270 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import main.TestBase;
+import models.Game;
+import ninja.utils.NinjaProperties;
+
+import org.junit.Test;
+
+public class TestCalculationScheduler extends TestBase {
+    private static final int DEBOUNCE = 2000;
+    private static final int MAX_WAIT = 10000;
+
+    @Test
+    public void testCoalescing() {
+        final TestClock clock = new TestClock();
+        final ManualExecutor executor = new ManualExecutor(clock);
+        final CalculationScheduler calculationScheduler = createScheduler(executor, clock);
+        final long debounce = getDebounce();
+
+        final CalculationRun run = calculationScheduler.schedule(new ArrayList<Game>());
+        assertSame(run, calculationScheduler.schedule(new ArrayList<Game>()));
+        assertSame(run, calculationScheduler.schedule(new ArrayList<Game>()));
+        assertEquals(3, run.getRequests());
+        assertFalse(run.isFull());
+
+        clock.advance(debounce);
+        executor.runDue();
+        assertTrue(run.isDone());
+        assertFalse(run.isFailed());
+        assertNull(calculationScheduler.getPending());
+
+        final CalculationRun next = calculationScheduler.schedule(new ArrayList<Game>());
+        assertNotSame(run, next);
+        assertTrue(next.getNumber() > run.getNumber());
+        clock.advance(debounce);
+        executor.runDue();
+        assertTrue(next.isDone());
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        final TestClock clock = new TestClock();
+        final ManualExecutor executor = new ManualExecutor(clock);
+        final CalculationScheduler calculationScheduler = createScheduler(executor, clock);
+        final long debounce = getDebounce();
+
+        final CalculationRun run = calculationScheduler.schedule(new ArrayList<Game>());
+        clock.advance(debounce / 2);
+        executor.runDue();
+        assertSame(run, calculationScheduler.schedule(new ArrayList<Game>()));
+
+        clock.advance(debounce - 1);
+        executor.runDue();
+        assertSame(run, calculationScheduler.getPending());
+        assertFalse(run.isDone());
+
+        clock.advance(1);
+        executor.runDue();
+        assertTrue(run.isDone());
+        assertEquals(2, run.getRequests());
+    }
+
+    @Test
+    public void testMaxWait() {
+        final TestClock clock = new TestClock();
+        final ManualExecutor executor = new ManualExecutor(clock);
+        final CalculationScheduler calculationScheduler = createScheduler(executor, clock);
+        final long debounce = getDebounce();
+        final long maxWait = getInjector().getInstance(NinjaProperties.class).getIntegerWithDefault("rudeltippen.calculations.maxwait", MAX_WAIT);
+        final long start = clock.now();
+
+        final CalculationRun run = calculationScheduler.schedule(new ArrayList<Game>());
+        while (!run.isDone()) {
+            assertSame(run, calculationScheduler.schedule(new ArrayList<Game>()));
+            clock.advance(debounce - 1);
+            executor.runDue();
+        }
+
+        assertTrue(clock.now() - start >= maxWait);
+        assertTrue(clock.now() - start < maxWait + debounce);
+    }
+
+    private CalculationScheduler createScheduler(final ScheduledExecutorService executor, final Clock clock) {
+        final CalculationScheduler calculationScheduler = new CalculationScheduler(executor, clock);
+        getInjector().injectMembers(calculationScheduler);
+
+        return calculationScheduler;
+    }
+
+    private long getDebounce() {
+        return getInjector().getInstance(NinjaProperties.class).getIntegerWithDefault("rudeltippen.calculations.debounce", DEBOUNCE);
+    }
+
+    private static final class TestClock implements Clock {
+        private long now = System.currentTimeMillis();
+
+        @Override
+        public long now() {
+            return this.now;
+        }
+
+        void advance(final long millis) {
+            this.now = this.now + millis;
+        }
+    }
+
+    /**
+     * Runs the scheduled tasks on the test thread once the test clock has passed their delay
+     */
+    private static final class ManualExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+        private final List<Task> tasks = new ArrayList<Task>();
+        private final Clock clock;
+
+        ManualExecutor(final Clock clock) {
+            this.clock = clock;
+        }
+
+        void runDue() {
+            Task due = next();
+            while (due != null) {
+                due.command.run();
+                due.done = true;
+                due = next();
+            }
+        }
+
+        private Task next() {
+            Task next = null;
+            for (final Iterator<Task> iterator = this.tasks.iterator(); iterator.hasNext();) {
+                final Task task = iterator.next();
+                if (task.cancelled) {
+                    iterator.remove();
+                } else if (task.time <= this.clock.now() && (next == null || task.time < next.time)) {
+                    next = task;
+                }
+            }
+            this.tasks.remove(next);
+
+            return next;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+            final Task task = new Task(command, this.clock.now() + unit.toMillis(delay));
+            this.tasks.add(task);
+
+            return task;
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay, final long period, final TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay, final TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            this.tasks.clear();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            final List<Runnable> commands = new ArrayList<Runnable>();
+            for (final Task task : this.tasks) {
+                commands.add(task.command);
+            }
+            this.tasks.clear();
+
+            return commands;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+
+        private final class Task implements ScheduledFuture<Object> {
+            private final Runnable command;
+            private final long time;
+            private boolean cancelled;
+            private boolean done;
+
+            Task(final Runnable command, final long time) {
+                this.command = command;
+                this.time = time;
+            }
+
+            @Override
+            public long getDelay(final TimeUnit unit) {
+                return unit.convert(this.time - ManualExecutor.this.clock.now(), TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public int compareTo(final Delayed other) {
+                return Long.valueOf(getDelay(TimeUnit.MILLISECONDS)).compareTo(other.getDelay(TimeUnit.MILLISECONDS));
+            }
+
+            @Override
+            public boolean cancel(final boolean mayInterruptIfRunning) {
+                if (this.done) {
+                    return false;
+                }
+                this.cancelled = true;
+
+                return true;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return this.cancelled;
+            }
+
+            @Override
+            public boolean isDone() {
+                return this.done || this.cancelled;
+            }
+
+            @Override
+            public Object get() {
+                return null;
+            }
+
+            @Override
+            public Object get(final long timeout, final TimeUnit unit) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.Date;
+
+import main.TestBase;
+import models.Game;
+import models.GameTip;
+import models.Settings;
+import models.Team;
+import models.User;
+import models.enums.TipOutcome;
+
+import org.junit.Test;
+
+public class TestCalculationService extends TestBase {
+    private static final String TIPPER = "calculation";
+
+    @Test
+    public void testClearScore() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final CalculationService calculationService = getInjector().getInstance(CalculationService.class);
+        final Settings settings = dataService.findSettings();
+
+        final Team home = new Team();
+        home.setName("home");
+        dataService.save(home);
+        final Team away = new Team();
+        away.setName("away");
+        dataService.save(away);
+        final Game game = new Game();
+        game.setNumber(998);
+        game.setHomeTeam(home);
+        game.setAwayTeam(away);
+        game.setKickoff(new Date(System.currentTimeMillis() - 86400000));
+        dataService.save(game);
+
+        final User user = new User();
+        user.setUsername(TIPPER);
+        user.setEmail("calculation@foo.bar");
+        user.setRegistered(new Date());
+        user.setActive(true);
+        dataService.save(user);
+
+        final GameTip gameTip = new GameTip();
+        gameTip.setGame(game);
+        gameTip.setUser(user);
+        gameTip.setPlaced(new Date());
+        gameTip.setHomeScore(1);
+        gameTip.setAwayScore(0);
+        dataService.save(gameTip);
+
+        // a full run first, so the following runs are incremental
+        calculationService.calculations();
+        final String id = game.getId().toString();
+        final Game scored = calculationService.setGameScore(id, "1", "0", "", "", "");
+        assertNotNull(scored);
+        calculationService.calculations(Collections.singletonList(scored));
+
+        User tipper = dataService.findUserByUsername(TIPPER);
+        assertEquals(settings.getPointsTip(), tipper.getTipPoints());
+        assertEquals(settings.getPointsTip(), tipper.getPoints());
+        assertEquals(1, tipper.getCorrectResults());
+        assertEquals(TipOutcome.RESULT, dataService.findGameTipByGameAndUser(scored, tipper).getOutcome());
+
+        final Game cleared = calculationService.setGameScore(id, "", "", "", "", "");
+        assertNotNull(cleared);
+        assertFalse(cleared.isEnded());
+        assertNull(dataService.findGameById(id).getHomeScore());
+        calculationService.calculations(Collections.singletonList(cleared));
+
+        tipper = dataService.findUserByUsername(TIPPER);
+        assertEquals(0, tipper.getTipPoints());
+        assertEquals(0, tipper.getPoints());
+        assertEquals(0, tipper.getCorrectResults());
+        final GameTip reset = dataService.findGameTipByGameAndUser(cleared, tipper);
+        assertEquals(0, reset.getPoints());
+        assertNull(reset.getOutcome());
+
+        assertNull(calculationService.setGameScore(id, "", "", "", "", ""));
+
+        dataService.delete(reset);
+        dataService.delete(tipper);
+        dataService.delete(dataService.findGameById(id));
+        dataService.delete(home);
+        dataService.delete(away);
+    }
+}
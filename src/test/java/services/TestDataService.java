@@ -0,0 +1,65 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import main.TestBase;
+import models.Game;
+import models.GameTip;
+import models.Team;
+import models.User;
+
+import org.junit.Test;
+
+public class TestDataService extends TestBase {
+
+    @Test
+    public void testGameTipMatrix() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+
+        final Team home = new Team();
+        home.setName("home");
+        dataService.save(home);
+        final Team away = new Team();
+        away.setName("away");
+        dataService.save(away);
+        final Game game = new Game();
+        game.setNumber(997);
+        game.setHomeTeam(home);
+        game.setAwayTeam(away);
+        game.setKickoff(new Date());
+        dataService.save(game);
+
+        final User user = dataService.findUserByUsername(USER);
+        final GameTip stored = new GameTip();
+        stored.setGame(game);
+        stored.setUser(user);
+        stored.setPlaced(new Date());
+        stored.setHomeScore(2);
+        stored.setAwayScore(1);
+        dataService.save(stored);
+
+        final List<Game> games = Collections.singletonList(game);
+        final List<User> users = Collections.singletonList(user);
+        final GameTip gameTip = dataService.findGameTipMatrix(games, users)[0][0];
+        assertEquals(stored.getId(), gameTip.getId());
+        assertSame(game, gameTip.getGame());
+        assertSame(user, gameTip.getUser());
+        assertEquals(2, gameTip.getHomeScore());
+        assertEquals(1, gameTip.getAwayScore());
+
+        gameTip.setPoints(3);
+        dataService.save(gameTip);
+        assertEquals(1, dataService.findGameTipByGame(game).size());
+        assertEquals(3, dataService.findGameTipByGameAndUser(game, user).getPoints());
+
+        dataService.delete(gameTip);
+        dataService.delete(game);
+        dataService.delete(home);
+        dataService.delete(away);
+    }
+}
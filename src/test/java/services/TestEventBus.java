@@ -0,0 +1,78 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import main.TestBase;
+import models.Game;
+
+import org.junit.Test;
+
+import services.events.GameEnded;
+import services.events.Subscriber;
+import services.events.UserRegistered;
+
+public class TestEventBus extends TestBase {
+
+    @Test
+    public void testPublish() throws InterruptedException {
+        final EventBus eventBus = new EventBus();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        final Game game = new Game();
+
+        eventBus.subscribe(GameEnded.class, "test", 1, 10, new Subscriber<GameEnded>() {
+            @Override
+            public void on(final GameEnded event) {
+                assertSame(game, event.getGame());
+                thread.set(Thread.currentThread());
+                latch.countDown();
+            }
+        });
+        eventBus.publish(new UserRegistered(null, "foo"));
+        eventBus.publish(new GameEnded(game));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), thread.get());
+        eventBus.shutdown();
+    }
+
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        final EventBus eventBus = new EventBus();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+
+        eventBus.subscribe(GameEnded.class, "test", 1, 1, new Subscriber<GameEnded>() {
+            @Override
+            public void on(final GameEnded event) {
+                if (event.getGame() == null) {
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    thread.set(Thread.currentThread());
+                }
+            }
+        });
+
+        eventBus.publish(new GameEnded(null));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        eventBus.publish(new GameEnded(null));
+        eventBus.publish(new GameEnded(new Game()));
+        release.countDown();
+
+        assertEquals(Thread.currentThread(), thread.get());
+        eventBus.shutdown();
+    }
+}
@@ -0,0 +1,90 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import main.TestBase;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import services.generator.GeneratorOptions;
+
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+
+public class TestGeneratorService extends TestBase {
+
+    @Test
+    public void testExport() throws IOException {
+        GeneratorOptions options = new GeneratorOptions();
+        options.setGroups(2);
+        options.setTeamsPerGroup(4);
+        options.setUsers(5);
+        options.setEndedPlaydays(1);
+        options.setSeed(7);
+
+        Map<Object, DBObject> games = read(export(options), "games");
+        assertEquals(16, games.size());
+
+        List<String> references = new ArrayList<String>();
+        int ended = 0;
+        for (DBObject game : games.values()) {
+            if (Boolean.TRUE.equals(game.get("playoff"))) {
+                references.add(game.get("homeReference") + " " + game.get("awayReference"));
+            }
+            if (Boolean.TRUE.equals(game.get("ended"))) {
+                ended++;
+            }
+        }
+        assertEquals(4, ended);
+        assertEquals("B-1-1 B-2-2", references.get(0));
+        assertEquals("B-2-1 B-1-2", references.get(1));
+        assertEquals("G-13-L G-14-L", references.get(2));
+        assertEquals("G-13-W G-14-W", references.get(3));
+    }
+
+    @Test
+    public void testSeed() throws IOException {
+        GeneratorOptions options = new GeneratorOptions();
+        options.setUsers(20);
+        options.setSeed(42);
+
+        assertEquals(getScores(export(options)), getScores(export(options)));
+    }
+
+    private File export(GeneratorOptions options) throws IOException {
+        File directory = File.createTempFile("generator", "");
+        directory.delete();
+        directory.mkdirs();
+        directory.deleteOnExit();
+        getInjector().getInstance(GeneratorService.class).generate(options, directory);
+
+        return directory;
+    }
+
+    private static List<String> getScores(File directory) throws IOException {
+        List<String> scores = new ArrayList<String>();
+        for (DBObject gameTip : read(directory, "gametips").values()) {
+            scores.add(gameTip.get("homeScore") + ":" + gameTip.get("awayScore"));
+        }
+
+        return scores;
+    }
+
+    private static Map<Object, DBObject> read(File directory, String collection) throws IOException {
+        Map<Object, DBObject> documents = new LinkedHashMap<Object, DBObject>();
+        for (String line : FileUtils.readLines(new File(directory, collection + ".json"), "UTF-8")) {
+            DBObject document = (DBObject) JSON.parse(line);
+            documents.put(document.get("_id"), document);
+        }
+
+        return documents;
+    }
+}
@@ -0,0 +1,91 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import main.TestBase;
+import models.Game;
+import models.User;
+import ninja.utils.NinjaProperties;
+
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+
+import de.svenkubiak.embeddedmongodb.EmbeddedMongo;
+
+public class TestIndexService extends TestBase {
+    private static final List<String> PREFIXES = Arrays.asList("find", "claim", "release", "count", "reset");
+
+    // queries by _id, over the whole collection, aggregations or delegating to other queries
+    private static final Set<String> UNINDEXED = new HashSet<String>(Arrays.asList(
+            "findAllConfirmation", "findAllUsers", "findAllGames", "findAllBrackets", "findAllExtras", "findAllTeams",
+            "findAllGameStatistics", "findGameById", "findUserById", "findTeamById", "findBracketById", "findExtraById",
+            "findOutboxMailById", "findLeaseOwner", "releaseLease", "findVersions", "findResultsStatistic",
+            "findGameStatistics", "findPlaydayTips", "findExtraTips", "findNextPlaydays", "countAll"));
+
+    @Test
+    public void testQueryShapes() {
+        final IndexService indexService = getInjector().getInstance(IndexService.class);
+        final Set<String> names = indexService.getQueryNames();
+
+        final List<String> missing = new ArrayList<String>();
+        for (final Method method : DataService.class.getDeclaredMethods()) {
+            final String name = method.getName();
+            if (Modifier.isPublic(method.getModifiers()) && isQuery(name) && !UNINDEXED.contains(name) && !names.contains(name)) {
+                missing.add(name);
+            }
+        }
+
+        assertTrue("DataService queries without a query shape: " + missing, missing.isEmpty());
+        assertEquals(new ArrayList<String>(), indexService.getCollectionScans());
+    }
+
+    @Test
+    public void testDuplicates() {
+        final IndexService indexService = getInjector().getInstance(IndexService.class);
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final NinjaProperties ninjaProperties = getInjector().getInstance(NinjaProperties.class);
+        final DBCollection gameTips = EmbeddedMongo.DB.getMongoClient().getDB(ninjaProperties.get("ninja.mongodb.dbname")).getCollection("gametips");
+
+        final BasicDBObject tip = new BasicDBObject("game", dataService.getReference(Game.class, new ObjectId()))
+                .append("user", dataService.getReference(User.class, new ObjectId()));
+        gameTips.dropIndexes();
+        gameTips.insert(new BasicDBObject(tip));
+        gameTips.insert(new BasicDBObject(tip));
+
+        try {
+            indexService.ensureIndexes();
+            fail("Unique index must not be created over duplicates");
+        } catch (IllegalStateException e) {
+            assertEquals(2, gameTips.count(tip));
+        } finally {
+            gameTips.remove(tip);
+        }
+
+        indexService.ensureIndexes();
+        assertFalse(indexService.getCollectionScans().contains("findGameTipByGameAndUser"));
+    }
+
+    private static boolean isQuery(final String name) {
+        for (final String prefix : PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import main.TestBase;
+import models.JobRun;
+import models.enums.JobOutcome;
+
+import org.junit.Test;
+
+public class TestJobRunService extends TestBase {
+
+    @Test
+    public void testRuns() {
+        final JobRunService jobRunService = getInjector().getInstance(JobRunService.class);
+        final DataService dataService = getInjector().getInstance(DataService.class);
+
+        final JobRun first = jobRunService.start("TestJob");
+        final JobRun second = jobRunService.start("TestJob");
+        first.addItems("games", 2);
+        first.addItems("games", 3);
+        jobRunService.finish(first);
+        jobRunService.fail(second, new IllegalStateException("foo"));
+        jobRunService.finish(second);
+
+        assertFalse(first.isOverlapped());
+        assertTrue(second.isOverlapped());
+        assertEquals(JobOutcome.SUCCESS, first.getOutcome());
+        assertEquals(JobOutcome.FAILED, second.getOutcome());
+        assertEquals("foo", second.getError());
+        assertEquals(Integer.valueOf(5), first.getItems().get("games"));
+
+        final Map<String, Object> metrics = jobRunService.getMetrics().get("TestJob");
+        assertEquals(2L, metrics.get("runs"));
+        assertEquals(1L, metrics.get("failures"));
+        assertEquals(1L, metrics.get("overlaps"));
+        assertEquals(0, metrics.get("running"));
+
+        final List<JobRun> runs = dataService.findRecentJobRuns(10);
+        assertTrue(runs.size() >= 2);
+        assertEquals("TestJob", runs.get(0).getName());
+    }
+}
@@ -0,0 +1,120 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import main.TestBase;
+import models.User;
+import models.ranking.Leaderboard;
+import models.ranking.PlaceChange;
+
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+public class TestLeaderboardService extends TestBase {
+
+    @Test
+    public void testRanking() {
+        LeaderboardService leaderboardService = getInjector().getInstance(LeaderboardService.class);
+
+        User alice = getUser("alice", 10, 2, 1);
+        User bob = getUser("bob", 12, 0, 0);
+        User carol = getUser("carol", 10, 3, 0);
+        User dave = getUser("dave", 10, 2, 0);
+        leaderboardService.rebuild(Arrays.asList(alice, bob, carol, dave));
+
+        assertEquals(Arrays.asList(id(bob), id(carol), id(alice), id(dave)), leaderboardService.getRanking());
+
+        List<PlaceChange> changes = leaderboardService.getPlaceChanges();
+        assertEquals(4, changes.size());
+        assertEquals(1, get(changes, bob).getPlace());
+        assertEquals(0, get(changes, bob).getPreviousPlace());
+
+        changes = leaderboardService.getPlaceChanges();
+        assertEquals(4, changes.size());
+        for (PlaceChange change : changes) {
+            assertEquals(change.getPlace(), change.getPreviousPlace());
+        }
+
+        dave.setPoints(20);
+        leaderboardService.update(Collections.singletonList(dave));
+        changes = leaderboardService.getPlaceChanges();
+        assertEquals(1, get(changes, dave).getPlace());
+        assertEquals(4, get(changes, dave).getPreviousPlace());
+        assertEquals(2, get(changes, bob).getPlace());
+
+        alice.setPoints(11);
+        leaderboardService.update(Collections.singletonList(alice));
+        changes = leaderboardService.getPlaceChanges();
+        assertEquals(3, get(changes, alice).getPlace());
+        assertEquals(4, get(changes, alice).getPreviousPlace());
+        assertEquals(4, get(changes, carol).getPlace());
+        assertEquals(2, get(changes, bob).getPlace());
+        assertEquals(2, get(changes, bob).getPreviousPlace());
+
+        bob.setActive(false);
+        leaderboardService.update(Collections.singletonList(bob));
+        assertEquals(Arrays.asList(id(dave), id(alice), id(carol)), leaderboardService.getRanking());
+    }
+
+    @Test
+    public void testLeaderboardMatchesSortedOrder() {
+        Leaderboard leaderboard = new Leaderboard(42);
+        for (int i = 0; i < 1000; i++) {
+            int[] score = new int[]{(i * 7919) % 97, (i * 31) % 5};
+            leaderboard.put(String.format("%04d", i), "user" + String.format("%04d", i), score, 0);
+        }
+
+        for (int i = 0; i < 1000; i = i + 3) {
+            leaderboard.remove(String.format("%04d", i));
+        }
+
+        int previousPoints = Integer.MAX_VALUE;
+        int previousTieBreaker = Integer.MAX_VALUE;
+        int rank = 1;
+        for (Leaderboard.Entry entry : leaderboard.getEntries()) {
+            int points = entry.getScore(0);
+            int tieBreaker = entry.getScore(1);
+            assertEquals(true, points < previousPoints || (points == previousPoints && tieBreaker <= previousTieBreaker));
+            assertEquals(rank, leaderboard.getRank(entry.getId()));
+            assertEquals(entry.getId(), leaderboard.getEntry(rank).getId());
+            previousPoints = points;
+            previousTieBreaker = tieBreaker;
+            rank++;
+        }
+        assertEquals(666, leaderboard.size());
+    }
+
+    private static PlaceChange get(List<PlaceChange> changes, User user) {
+        for (PlaceChange change : changes) {
+            if (change.getUserId().equals(id(user))) {
+                return change;
+            }
+        }
+
+        return null;
+    }
+
+    private static String id(User user) {
+        return String.valueOf(user.getId());
+    }
+
+    private static User getUser(String username, int points, int correctResults, int correctDifferences) {
+        User user = new User() {
+            private static final long serialVersionUID = 1L;
+            {
+                objectId = new ObjectId();
+            }
+        };
+        user.setUsername(username);
+        user.setActive(true);
+        user.setPoints(points);
+        user.setCorrectResults(correctResults);
+        user.setCorrectDifferences(correctDifferences);
+
+        return user;
+    }
+}
@@ -0,0 +1,103 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import main.TestBase;
+
+import org.junit.Test;
+
+public class TestLeaseService extends TestBase {
+    private static final String JOBS = "jobs";
+    private static final String CALCULATIONS = "calculations";
+    private static final long DURATION = 1500;
+
+    @Test
+    public void testElection() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final LeaseService nodeA = createNode("node-a", Clock.SYSTEM);
+        final LeaseService nodeB = createNode("node-b", Clock.SYSTEM);
+
+        nodeA.start();
+        nodeB.start();
+        assertTrue(nodeA.isLeader() ^ nodeB.isLeader());
+
+        final LeaseService leader = nodeA.isLeader() ? nodeA : nodeB;
+        final LeaseService follower = nodeA.isLeader() ? nodeB : nodeA;
+        assertEquals(leader.getOwner(), dataService.findLeaseOwner(JOBS));
+
+        leader.shutdown();
+        assertFalse(leader.isLeader());
+        assertTrue(follower.heartbeat());
+        assertTrue(follower.isLeader());
+        assertEquals(follower.getOwner(), dataService.findLeaseOwner(JOBS));
+
+        follower.shutdown();
+        assertNull(dataService.findLeaseOwner(JOBS));
+    }
+
+    @Test
+    public void testFailover() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final TestClock clock = new TestClock();
+        final LeaseService nodeA = createNode("node-c", clock);
+        final LeaseService nodeB = createNode("node-d", clock);
+
+        assertTrue(nodeA.heartbeat());
+        assertFalse(nodeB.heartbeat());
+        assertTrue(nodeA.isLeader());
+        assertFalse(nodeB.isLeader());
+
+        // node-c crashes and stops renewing its lease without releasing it
+        clock.advance(DURATION - DURATION / 3);
+        assertFalse(nodeA.isLeader());
+        assertFalse(nodeB.heartbeat());
+
+        clock.advance(DURATION / 3 + 1);
+        assertTrue(nodeB.heartbeat());
+        assertTrue(nodeB.isLeader());
+        assertFalse(nodeA.heartbeat());
+        assertEquals("node-d", dataService.findLeaseOwner(JOBS));
+
+        nodeB.shutdown();
+    }
+
+    @Test
+    public void testNamedLease() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final LeaseService nodeA = createNode("node-e", Clock.SYSTEM);
+        final LeaseService nodeB = createNode("node-f", Clock.SYSTEM);
+
+        assertTrue(nodeA.acquire(CALCULATIONS, DURATION));
+        assertFalse(nodeB.acquire(CALCULATIONS, DURATION));
+        assertFalse(nodeA.isLeader());
+        assertEquals("node-e", dataService.findLeaseOwner(CALCULATIONS));
+
+        nodeA.release(CALCULATIONS);
+        assertTrue(nodeB.acquire(CALCULATIONS, DURATION));
+        nodeB.release(CALCULATIONS);
+        assertNull(dataService.findLeaseOwner(CALCULATIONS));
+    }
+
+    private LeaseService createNode(final String owner, final Clock clock) {
+        final LeaseService leaseService = new LeaseService(owner, DURATION, clock);
+        getInjector().injectMembers(leaseService);
+
+        return leaseService;
+    }
+
+    private static final class TestClock implements Clock {
+        private long now = System.currentTimeMillis();
+
+        @Override
+        public long now() {
+            return this.now;
+        }
+
+        void advance(final long millis) {
+            this.now = this.now + millis;
+        }
+    }
+}
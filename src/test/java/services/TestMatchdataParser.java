@@ -0,0 +1,61 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import main.TestBase;
+import models.ws.WSMatch;
+import models.ws.WSResults;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import services.matchdata.MatchdataParser;
+
+public class TestMatchdataParser extends TestBase {
+    private static final String MATCH = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"><soap:Body>"
+            + "<GetMatchByMatchIDResponse xmlns=\"http://msiggi.de/Sportsdata/Webservices\"><GetMatchByMatchIDResult>"
+            + "<matchID>19357</matchID><pointsTeam1>4</pointsTeam1><pointsTeam2>2</pointsTeam2><matchIsFinished>true</matchIsFinished>"
+            + "<matchResults><matchResult><resultName>Halbzeit</resultName><pointsTeam1>1</pointsTeam1><pointsTeam2>0</pointsTeam2></matchResult>"
+            + "<matchResult><resultName>Endergebnis</resultName><pointsTeam1>1</pointsTeam1><pointsTeam2>1</pointsTeam2></matchResult>"
+            + "<matchResult><resultName>Verlängerung</resultName><pointsTeam1>2</pointsTeam1><pointsTeam2>1</pointsTeam2></matchResult></matchResults>"
+            + "<goals><Goal><goalScoreTeam1>1</goalScoreTeam1></Goal></goals>"
+            + "<matchDateTimeUTC>2012-06-22T18:45:00Z</matchDateTimeUTC></GetMatchByMatchIDResult></GetMatchByMatchIDResponse></soap:Body></soap:Envelope>";
+
+    private static final String MATCHDATA = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"><soap:Body>"
+            + "<GetMatchdataByGroupLeagueSaisonResponse xmlns=\"http://msiggi.de/Sportsdata/Webservices\"><GetMatchdataByGroupLeagueSaisonResult>"
+            + "<Matchdata><matchID>28847</matchID><matchResults /><matchDateTimeUTC>2014-08-22T18:30:00Z</matchDateTimeUTC></Matchdata>"
+            + "<Matchdata><matchID>28848</matchID><matchResults /><matchDateTimeUTC /></Matchdata>"
+            + "</GetMatchdataByGroupLeagueSaisonResult></GetMatchdataByGroupLeagueSaisonResponse></soap:Body></soap:Envelope>";
+
+    @Test
+    public void testParseMatch() throws XMLStreamException, UnsupportedEncodingException {
+        final WSResults wsResults = MatchdataParser.parseMatch(new ByteArrayInputStream(MATCH.getBytes("UTF-8")));
+
+        assertTrue(wsResults.isFinished());
+        assertEquals(2, wsResults.getWsResult().size());
+        assertEquals("1", wsResults.getWsResult().get("90").getHomeScore());
+        assertEquals("1", wsResults.getWsResult().get("90").getAwayScore());
+        assertEquals("2", wsResults.getWsResult().get("120").getHomeScore());
+        assertEquals("1", wsResults.getWsResult().get("120").getAwayScore());
+        assertEquals(new DateTime(2012, 6, 22, 18, 45, DateTimeZone.UTC).toDate(), wsResults.getKickoff());
+    }
+
+    @Test
+    public void testParseMatches() throws XMLStreamException, UnsupportedEncodingException {
+        final List<WSMatch> matches = MatchdataParser.parseMatches(new ByteArrayInputStream(MATCHDATA.getBytes("UTF-8")));
+
+        assertEquals(1, matches.size());
+        assertEquals("28847", matches.get(0).getMatchID());
+        assertFalse(matches.get(0).getKickoff() == null);
+        assertEquals(new DateTime(2014, 8, 22, 18, 30, DateTimeZone.UTC).toDate(), matches.get(0).getKickoff());
+    }
+}
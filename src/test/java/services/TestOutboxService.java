@@ -0,0 +1,110 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+import main.TestBase;
+import models.OutboxMail;
+import models.enums.OutboxStatus;
+import ninja.utils.NinjaProperties;
+
+import org.junit.Test;
+
+import services.mail.MailTransport;
+
+public class TestOutboxService extends TestBase {
+    private static final String ERROR = "connection refused";
+    private static final long CLAIM_TIMEOUT = 600000;
+    private static final long MAX_BACKOFF = 3600000;
+
+    @Test
+    public void testRetries() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final OutboxService outboxService = getInjector().getInstance(OutboxService.class);
+        final NinjaProperties ninjaProperties = getInjector().getInstance(NinjaProperties.class);
+        final int attempts = ninjaProperties.getIntegerWithDefault("rudeltippen.mail.attempts", 5);
+        final long backoff = ninjaProperties.getIntegerWithDefault("rudeltippen.mail.backoff", 30000);
+        final FailingTransport transport = new FailingTransport();
+
+        final OutboxMail mail = createMail(dataService, OutboxStatus.PENDING, null);
+        final String id = mail.getId().toString();
+        for (int attempt = 1; attempt < attempts; attempt++) {
+            final long before = System.currentTimeMillis();
+            outboxService.work(transport);
+            final long after = System.currentTimeMillis();
+
+            final OutboxMail failed = dataService.findOutboxMailById(id);
+            final long expected = Math.min(backoff << (attempt - 1), MAX_BACKOFF);
+            assertEquals(OutboxStatus.PENDING, failed.getStatus());
+            assertEquals(attempt, failed.getAttempts());
+            assertEquals(ERROR, failed.getLastError());
+            assertTrue(failed.getNextAttempt().getTime() >= before + expected);
+            assertTrue(failed.getNextAttempt().getTime() <= after + expected);
+
+            failed.setNextAttempt(new Date());
+            dataService.save(failed);
+        }
+
+        outboxService.work(transport);
+        final OutboxMail dead = dataService.findOutboxMailById(id);
+        assertEquals(OutboxStatus.DEAD, dead.getStatus());
+        assertEquals(attempts, dead.getAttempts());
+        assertTrue(transport.closed >= attempts);
+
+        outboxService.work(transport);
+        assertEquals(attempts, dataService.findOutboxMailById(id).getAttempts());
+
+        dataService.delete(dead);
+    }
+
+    @Test
+    public void testRelease() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final OutboxService outboxService = getInjector().getInstance(OutboxService.class);
+
+        final OutboxMail stale = createMail(dataService, OutboxStatus.SENDING, new Date(System.currentTimeMillis() - CLAIM_TIMEOUT - 60000));
+        final OutboxMail sending = createMail(dataService, OutboxStatus.SENDING, new Date());
+        outboxService.release();
+
+        assertEquals(OutboxStatus.PENDING, dataService.findOutboxMailById(stale.getId().toString()).getStatus());
+        assertEquals(OutboxStatus.SENDING, dataService.findOutboxMailById(sending.getId().toString()).getStatus());
+
+        dataService.delete(stale);
+        dataService.delete(sending);
+    }
+
+    private static OutboxMail createMail(final DataService dataService, final OutboxStatus status, final Date claimed) {
+        final OutboxMail mail = new OutboxMail();
+        mail.setFrom("rudelmail@foo.bar");
+        mail.setReplyTo(new ArrayList<String>());
+        mail.setTo(new ArrayList<String>());
+        mail.getTo().add("user@foo.bar");
+        mail.setBcc(new ArrayList<String>());
+        mail.setSubject("outbox");
+        mail.setBodyText("outbox");
+        mail.setStatus(status);
+        mail.setCreated(new Date());
+        mail.setNextAttempt(mail.getCreated());
+        mail.setClaimed(claimed);
+        dataService.save(mail);
+
+        return mail;
+    }
+
+    private static final class FailingTransport implements MailTransport {
+        private int closed;
+
+        @Override
+        public void send(final OutboxMail mail) throws Exception {
+            throw new IllegalStateException(ERROR);
+        }
+
+        @Override
+        public void close() {
+            this.closed++;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main.TestBase;
+import ninja.Result;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.cookie.Cookie;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+public class TestPageCacheService extends TestBase {
+    private static final String STANDINGS = "/tips/standings";
+    private static final String EN = "en";
+    private static final String DE = "de";
+    private static final String LANGUAGE_COOKIE = "RUDEL_LANG";
+
+    @Test
+    public void testCache() {
+        final PageCacheService pageCacheService = getInjector().getInstance(PageCacheService.class);
+        final AtomicInteger loads = new AtomicInteger();
+        final PageCacheService.Loader<List<String>> loader = new PageCacheService.Loader<List<String>>() {
+            @Override
+            public List<String> load() {
+                loads.incrementAndGet();
+                return new ArrayList<String>();
+            }
+        };
+
+        final List<String> page = pageCacheService.get(EN, STANDINGS, loader);
+        assertSame(page, pageCacheService.get(EN, STANDINGS, loader));
+        assertEquals(1, loads.get());
+
+        pageCacheService.get(EN, "/tips/statistics", loader);
+        assertEquals(2, loads.get());
+
+        final String version = pageCacheService.getVersion();
+        pageCacheService.invalidate();
+        assertFalse(version.equals(pageCacheService.getVersion()));
+        assertTrue(page != pageCacheService.get(EN, STANDINGS, loader));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testLanguages() {
+        final PageCacheService pageCacheService = getInjector().getInstance(PageCacheService.class);
+        final PageCacheService.Loader<List<Map<String, String>>> loader = new PageCacheService.Loader<List<Map<String, String>>>() {
+            @Override
+            public List<Map<String, String>> load() {
+                final List<Map<String, String>> rows = new ArrayList<Map<String, String>>();
+                rows.add(new HashMap<String, String>());
+                return rows;
+            }
+        };
+
+        final List<Map<String, String>> english = pageCacheService.get(EN, STANDINGS, loader);
+        final List<Map<String, String>> german = pageCacheService.get(DE, STANDINGS, loader);
+        assertTrue(english != german);
+        assertSame(german, pageCacheService.get(DE, STANDINGS, loader));
+
+        try {
+            english.clear();
+            fail("Cached page must not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(1, english.size());
+        }
+
+        try {
+            english.get(0).put("place", "1");
+            fail("Cached rows must not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(english.get(0).isEmpty());
+        }
+    }
+
+    @Test
+    public void testSharedVersion() {
+        final PageCacheService pageCacheService = getInjector().getInstance(PageCacheService.class);
+        final VersionService versionService = getInjector().getInstance(VersionService.class);
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final AtomicInteger loads = new AtomicInteger();
+        final PageCacheService.Loader<List<String>> loader = new PageCacheService.Loader<List<String>>() {
+            @Override
+            public List<String> load() {
+                loads.incrementAndGet();
+                return new ArrayList<String>();
+            }
+        };
+
+        final List<String> page = pageCacheService.get(EN, STANDINGS, loader);
+        final String advanced = dataService.advanceVersion(VersionService.PAGES);
+        versionService.refresh();
+        assertEquals(advanced, pageCacheService.getVersion());
+        assertTrue(page != pageCacheService.get(EN, STANDINGS, loader));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testETag() throws IOException {
+        final PageCacheService pageCacheService = getInjector().getInstance(PageCacheService.class);
+        final VersionService versionService = getInjector().getInstance(VersionService.class);
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        doLogin(USER, USER);
+
+        HttpResponse response = get(null);
+        assertEquals(Result.SC_200_OK, response.getStatusLine().getStatusCode());
+        final String etag = response.getFirstHeader("ETag").getValue();
+        assertNotNull(etag);
+
+        response = get(etag);
+        assertEquals(Result.SC_304_NOT_MODIFIED, response.getStatusLine().getStatusCode());
+        assertEquals(etag, response.getFirstHeader("ETag").getValue());
+        assertEquals("private, no-cache", response.getFirstHeader("Cache-Control").getValue());
+
+        pageCacheService.invalidate();
+        response = get(etag);
+        assertEquals(Result.SC_200_OK, response.getStatusLine().getStatusCode());
+        final String invalidated = response.getFirstHeader("ETag").getValue();
+        assertFalse(etag.equals(invalidated));
+
+        dataService.advanceVersion(VersionService.PAGES);
+        versionService.refresh();
+        response = get(invalidated);
+        assertEquals(Result.SC_200_OK, response.getStatusLine().getStatusCode());
+        final String advanced = response.getFirstHeader("ETag").getValue();
+        assertFalse(invalidated.equals(advanced));
+
+        response = get(advanced, EN);
+        assertEquals(Result.SC_200_OK, response.getStatusLine().getStatusCode());
+        assertFalse(advanced.equals(response.getFirstHeader("ETag").getValue()));
+
+        doLogout();
+    }
+
+    private HttpResponse get(final String etag) throws IOException {
+        return get(etag, DE);
+    }
+
+    private HttpResponse get(final String etag, final String language) throws IOException {
+        final StringBuilder cookies = new StringBuilder(LANGUAGE_COOKIE + "=" + language);
+        for (Cookie cookie : getCookies().getCookies()) {
+            if (!LANGUAGE_COOKIE.equals(cookie.getName())) {
+                cookies.append("; ").append(cookie.getName()).append('=').append(cookie.getValue());
+            }
+        }
+
+        final HttpClient httpclient = HttpClientBuilder.create().disableRedirectHandling().build();
+        final HttpGet request = new HttpGet(getServerAddress() + STANDINGS);
+        request.addHeader("Cookie", cookies.toString());
+        if (etag != null) {
+            request.addHeader("If-None-Match", etag);
+        }
+
+        final HttpResponse response = httpclient.execute(request);
+        if (response.getEntity() != null) {
+            EntityUtils.consume(response.getEntity());
+        }
+
+        return response;
+    }
+}
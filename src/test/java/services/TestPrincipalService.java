@@ -0,0 +1,64 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import main.TestBase;
+import models.User;
+
+import org.junit.Test;
+
+public class TestPrincipalService extends TestBase {
+
+    @Test
+    public void testCache() {
+        final PrincipalService principalService = getInjector().getInstance(PrincipalService.class);
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        principalService.invalidateAll();
+
+        final User user = principalService.findConnectedUser(USER);
+        assertEquals(USER, user.getUsername());
+        final User cached = principalService.findConnectedUser(USER);
+        assertNotSame(user, cached);
+        assertEquals(user.getId(), cached.getId());
+
+        final int points = cached.getPoints();
+        cached.setPoints(points + 1);
+        assertEquals(points, principalService.findConnectedUser(USER).getPoints());
+
+        principalService.invalidate(user);
+        final User reloaded = principalService.findConnectedUser(USER);
+        assertNotSame(user, reloaded);
+
+        reloaded.setActive(false);
+        dataService.save(reloaded);
+        principalService.invalidate(reloaded);
+        assertNull(principalService.findConnectedUser(USER));
+
+        reloaded.setActive(true);
+        dataService.save(reloaded);
+        assertNull(principalService.findConnectedUser("foo"));
+    }
+
+    @Test
+    public void testSharedInvalidation() {
+        final PrincipalService principalService = getInjector().getInstance(PrincipalService.class);
+        final VersionService versionService = getInjector().getInstance(VersionService.class);
+        final DataService dataService = getInjector().getInstance(DataService.class);
+
+        final String picture = principalService.findConnectedUser(USER).getPicture();
+        final User stored = dataService.findUserByUsername(USER);
+        stored.setPicture("changed on another node");
+        dataService.save(stored);
+        assertEquals(picture, principalService.findConnectedUser(USER).getPicture());
+
+        dataService.advanceVersion(VersionService.PRINCIPALS);
+        versionService.refresh();
+        assertEquals("changed on another node", principalService.findConnectedUser(USER).getPicture());
+
+        stored.setPicture(picture);
+        dataService.save(stored);
+        principalService.invalidate(stored);
+    }
+}
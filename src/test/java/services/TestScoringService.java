@@ -0,0 +1,128 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import main.TestBase;
+import models.Settings;
+
+import org.junit.Test;
+
+import services.scoring.DefaultTipScoring;
+import services.scoring.OvertimeTipScoring;
+import services.scoring.TendencyTipScoring;
+import services.scoring.TipScoring;
+
+public class TestScoringService extends TestBase {
+    private static final int RESULT = 4;
+    private static final int DIFFERENCE = 2;
+    private static final int TREND = 1;
+    private static final int MISS = 0;
+
+    /**
+     * homeScore, awayScore, homeTip, awayTip, expected points as scored by
+     * ResultService.getTipPoints before the scoring kernels were introduced
+     */
+    private static final int[][] REGULAR = {
+        {2, 1, 2, 1, RESULT},
+        {0, 0, 0, 0, RESULT},
+        {1, 1, 1, 1, RESULT},
+        {2, 1, 3, 2, DIFFERENCE},
+        {0, 2, 1, 3, DIFFERENCE},
+        {1, 1, 0, 0, DIFFERENCE},
+        {0, 0, 3, 3, DIFFERENCE},
+        {3, 0, 1, 0, TREND},
+        {0, 1, 0, 3, TREND},
+        {2, 1, 1, 2, MISS},
+        {1, 1, 2, 1, MISS},
+        {2, 0, 1, 1, MISS},
+        {0, 3, 2, 0, MISS}
+    };
+
+    /**
+     * homeScore, awayScore, homeTip, awayTip, expected points as scored by
+     * ResultService.getTipPointsOvertime before the scoring kernels were introduced
+     */
+    private static final int[][] OVERTIME = {
+        {1, 1, 1, 1, RESULT},
+        {1, 1, 2, 2, DIFFERENCE},
+        {1, 1, 0, 0, DIFFERENCE},
+        {1, 1, 2, 1, MISS},
+        {2, 1, 2, 1, MISS},
+        {2, 1, 1, 1, MISS}
+    };
+
+    @Test
+    public void testBaseline() {
+        assertTable(new DefaultTipScoring(RESULT, DIFFERENCE, TREND), REGULAR);
+        assertTable(new OvertimeTipScoring(RESULT, DIFFERENCE), OVERTIME);
+
+        ResultService resultService = getInjector().getInstance(ResultService.class);
+        Settings settings = getInjector().getInstance(DataService.class).findSettings();
+        for (int[] row : REGULAR) {
+            assertEquals(toSettings(row[4], settings), resultService.getTipPoints(row[0], row[1], row[2], row[3]));
+        }
+        for (int[] row : OVERTIME) {
+            assertEquals(toSettings(row[4], settings), resultService.getTipPointsOvertime(row[0], row[1], 0, 0, row[2], row[3]));
+        }
+    }
+
+    @Test
+    public void testKernelMatchesSingleTipScoring() {
+        ScoringService scoringService = getInjector().getInstance(ScoringService.class);
+
+        assertKernel(scoringService.getRules(false));
+        assertKernel(scoringService.getRules(true));
+        assertKernel(new TendencyTipScoring(4, 1));
+    }
+
+    @Test
+    public void testTendencyScoring() {
+        TipScoring tipScoring = new TendencyTipScoring(4, 1);
+
+        assertEquals(4, tipScoring.score(2, 1, 2, 1));
+        assertEquals(1, tipScoring.score(2, 1, 3, 1));
+        assertEquals(1, tipScoring.score(1, 1, 0, 0));
+        assertEquals(0, tipScoring.score(1, 1, 1, 0));
+        assertEquals(0, tipScoring.score(0, 2, 2, 0));
+    }
+
+    private static void assertKernel(TipScoring tipScoring) {
+        int[] homeTips = new int[36];
+        int[] awayTips = new int[36];
+        int[] points = new int[36];
+        for (int i = 0; i < 36; i++) {
+            homeTips[i] = i / 6;
+            awayTips[i] = i % 6;
+        }
+
+        for (int homeScore = 0; homeScore < 6; homeScore++) {
+            for (int awayScore = 0; awayScore < 6; awayScore++) {
+                tipScoring.score(homeScore, awayScore, homeTips, awayTips, points, 36);
+                for (int i = 0; i < 36; i++) {
+                    assertEquals(tipScoring.score(homeScore, awayScore, homeTips[i], awayTips[i]), points[i]);
+                }
+            }
+        }
+    }
+
+    private static void assertTable(TipScoring tipScoring, int[][] table) {
+        int[] points = new int[1];
+        for (int[] row : table) {
+            assertEquals(row[4], tipScoring.score(row[0], row[1], row[2], row[3]));
+            tipScoring.score(row[0], row[1], new int[]{row[2]}, new int[]{row[3]}, points, 1);
+            assertEquals(row[4], points[0]);
+        }
+    }
+
+    private static int toSettings(int points, Settings settings) {
+        switch (points) {
+        case RESULT:
+            return settings.getPointsTip();
+        case DIFFERENCE:
+            return settings.getPointsTipDiff();
+        case TREND:
+            return settings.getPointsTipTrend();
+        default:
+            return 0;
+        }
+    }
+}
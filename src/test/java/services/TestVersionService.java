@@ -0,0 +1,115 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+
+import main.TestBase;
+import models.Game;
+import models.Settings;
+import models.Team;
+import models.User;
+
+import org.junit.Test;
+
+public class TestVersionService extends TestBase {
+
+    @Test
+    public void testSettingsSnapshot() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final VersionService versionService = getInjector().getInstance(VersionService.class);
+
+        final Settings settings = dataService.findSettings();
+        final String gameName = settings.getGameName();
+        assertSame(settings, dataService.findSettings());
+        try {
+            settings.setGameName("foo");
+            fail("Shared settings must not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(gameName, dataService.findSettings().getGameName());
+        }
+
+        final Settings copy = settings.copy();
+        copy.setGameName("foo");
+        assertEquals(gameName, dataService.findSettings().getGameName());
+
+        final String version = versionService.get(VersionService.SETTINGS);
+        final Settings changed = dataService.loadSettings();
+        changed.setGameName("bar");
+        dataService.save(changed);
+        final String advanced = dataService.advanceVersion(VersionService.SETTINGS);
+        assertFalse(advanced.equals(version));
+
+        versionService.refresh();
+        assertEquals(advanced, versionService.get(VersionService.SETTINGS));
+        assertEquals("bar", dataService.findSettings().getGameName());
+
+        changed.setGameName(gameName);
+        dataService.saveSettings(changed);
+        assertEquals(gameName, dataService.findSettings().getGameName());
+    }
+
+    @Test
+    public void testInitialization() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final VersionService versionService = getInjector().getInstance(VersionService.class);
+        assertTrue(dataService.appIsInizialized());
+
+        final Settings settings = dataService.loadSettings();
+        dataService.delete(settings);
+        assertTrue(dataService.appIsInizialized());
+
+        dataService.advanceVersion(VersionService.SETTINGS);
+        versionService.refresh();
+        assertFalse(dataService.appIsInizialized());
+
+        dataService.saveSettings(settings);
+        assertTrue(dataService.appIsInizialized());
+    }
+
+    @Test
+    public void testTournamentSnapshot() {
+        final DataService dataService = getInjector().getInstance(DataService.class);
+        final VersionService versionService = getInjector().getInstance(VersionService.class);
+        final TournamentService tournamentService = getInjector().getInstance(TournamentService.class);
+
+        final Team home = new Team();
+        home.setName("home");
+        dataService.save(home);
+        final Team away = new Team();
+        away.setName("away");
+        dataService.save(away);
+        final Game game = new Game();
+        game.setNumber(999);
+        game.setHomeTeam(home);
+        game.setAwayTeam(away);
+        game.setKickoff(new Date(System.currentTimeMillis() + 86400000));
+        dataService.save(game);
+        tournamentService.rebuild();
+
+        final String id = game.getId().toString();
+        final Game cached = tournamentService.getSnapshot().getGame(id);
+        assertNotNull(cached);
+
+        game.setKickoff(new Date(System.currentTimeMillis() - 60000));
+        dataService.save(game);
+        final User user = dataService.findUserByUsername(USER);
+        dataService.saveGameTip(cached, 1, 0, user);
+        assertNull(dataService.findGameTipByGameAndUser(game, user));
+
+        dataService.advanceVersion(VersionService.TOURNAMENT);
+        versionService.refresh();
+        assertTrue(tournamentService.getSnapshot().getGame(id).getKickoff().before(new Date()));
+
+        dataService.delete(game);
+        dataService.delete(home);
+        dataService.delete(away);
+        tournamentService.rebuild();
+    }
+}